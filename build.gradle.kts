@@ -13,6 +13,7 @@ plugins {
     id("com.palantir.git-version") version "5.0.0"
     id("org.jreleaser") version "1.25.0"
     id("com.gradleup.shadow") version "9.6.1"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 val projectVersion: String by lazy {
@@ -74,7 +75,9 @@ dependencies {
     implementation("com.google.code.gson:gson:2.14.0")
     implementation("io.github.resilience4j:resilience4j-circuitbreaker:2.4.0")
     compileOnly("javax.annotation:javax.annotation-api:1.3.2")
+    compileOnly("jakarta.persistence:jakarta.persistence-api:3.1.0")
     testImplementation("org.junit.jupiter:junit-jupiter-api:6.1.3")
+    testImplementation("io.grpc:grpc-inprocess:1.83.1")
     testImplementation("org.testcontainers:junit-jupiter:1.21.4")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:6.1.3")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
@@ -82,6 +85,9 @@ dependencies {
     testImplementation("ch.qos.logback:logback-classic:1.6.3")
     testImplementation("com.fasterxml.jackson.core:jackson-core:2.22.2")
     testImplementation("com.fasterxml.jackson.dataformat:jackson-dataformat-yaml:2.22.2")
+    testImplementation("jakarta.persistence:jakarta.persistence-api:3.1.0")
+    testImplementation("org.hibernate.orm:hibernate-core:6.6.13.Final")
+    testImplementation("com.h2database:h2:2.3.232")
 }
 
 tasks.withType<JavaCompile> {
@@ -5,6 +5,7 @@
 
 package dev.cerbos.sdk;
 
+import com.google.common.collect.Lists;
 import dev.cerbos.api.v1.policy.PolicyOuterClass;
 import dev.cerbos.api.v1.request.Request;
 import dev.cerbos.api.v1.response.Response;
@@ -15,6 +16,7 @@ import io.grpc.Metadata;
 import io.grpc.StatusRuntimeException;
 import io.grpc.stub.MetadataUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -22,6 +24,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class CerbosBlockingAdminClient {
+    private static final int GET_POLICY_BATCH_SIZE = 25;
+
     private final CerbosAdminServiceGrpc.CerbosAdminServiceBlockingStub stub;
     private final long timeoutMillis;
     private final Optional<Metadata> headerMetadata;
@@ -118,6 +122,30 @@ public class CerbosBlockingAdminClient {
         }
     }
 
+    /**
+     * Inspect the enabled policies in the policy repository to find the actions, attributes, derived roles, variables
+     * and constants referenced by each policy.
+     *
+     * @param nameRegex    Optional regex to filter the policy name by
+     * @param versionRegex Optional regex to filter the policy version by
+     * @param scopeRegex   Optional regex to filter the policy scope by
+     * @return Map of policy ID to the inspection result
+     * @throws CerbosException if an RPC error occurrs
+     */
+    public Map<String, Response.InspectPoliciesResponse.Result> inspectPolicies(Optional<String> nameRegex, Optional<String> versionRegex, Optional<String> scopeRegex) {
+        Request.InspectPoliciesRequest.Builder requestBuilder = Request.InspectPoliciesRequest.newBuilder();
+        nameRegex.ifPresent(requestBuilder::setNameRegexp);
+        versionRegex.ifPresent(requestBuilder::setVersionRegexp);
+        scopeRegex.ifPresent(requestBuilder::setScopeRegexp);
+
+        try {
+            Response.InspectPoliciesResponse resp = withClient().inspectPolicies(requestBuilder.build());
+            return resp.getResultsMap();
+        } catch (StatusRuntimeException sre) {
+            throw new CerbosException(sre.getStatus(), sre.getCause());
+        }
+    }
+
     /**
      * Get the policy definitions for the given IDs
      *
@@ -137,6 +165,22 @@ public class CerbosBlockingAdminClient {
         }
     }
 
+    /**
+     * Get the policy definitions for the given IDs, splitting them into as many requests as the PDP needs. The PDP
+     * accepts at most {@value #GET_POLICY_BATCH_SIZE} IDs per request.
+     *
+     * @param ids IDs to retrieve
+     * @return List of policy definitions
+     * @throws CerbosException if an RPC error occurrs
+     */
+    public List<PolicyOuterClass.Policy> getPolicies(List<String> ids) {
+        List<PolicyOuterClass.Policy> policies = new ArrayList<>(ids.size());
+        for (List<String> batch : Lists.partition(ids, GET_POLICY_BATCH_SIZE)) {
+            policies.addAll(getPolicy(batch.toArray(new String[0])));
+        }
+        return policies;
+    }
+
     /**
      * Enable a policy by ID
      *
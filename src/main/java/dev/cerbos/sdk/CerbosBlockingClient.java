@@ -5,8 +5,11 @@
 
 package dev.cerbos.sdk;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.protobuf.Value;
 import dev.cerbos.api.v1.audit.Audit;
+import dev.cerbos.api.v1.effect.EffectOuterClass;
+import dev.cerbos.api.v1.engine.Engine;
 import dev.cerbos.api.v1.request.Request;
 import dev.cerbos.api.v1.response.Response;
 import dev.cerbos.api.v1.svc.CerbosServiceGrpc;
@@ -14,15 +17,29 @@ import dev.cerbos.sdk.builders.AttributeValue;
 import dev.cerbos.sdk.builders.AuxData;
 import dev.cerbos.sdk.builders.Principal;
 import dev.cerbos.sdk.builders.Resource;
+import dev.cerbos.sdk.cache.DecisionKey;
 import io.grpc.Channel;
 import io.grpc.Metadata;
+import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.grpc.stub.MetadataUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -31,34 +48,48 @@ import java.util.stream.Collectors;
  * PDP.
  */
 public class CerbosBlockingClient {
+    private static final int DEFAULT_CHUNK_SIZE = 50;
+    private static final int DEFAULT_MAX_CHUNKS_IN_FLIGHT = 4;
+
     private final CerbosServiceGrpc.CerbosServiceBlockingStub cerbosStub;
+    private final CerbosServiceGrpc.CerbosServiceFutureStub cerbosFutureStub;
     private final long timeoutMillis;
     private final Optional<AuxData> auxData;
     private final Optional<Metadata> headerMetadata;
     private final Optional<Map<String, Value>> requestAnnotations;
+    private final ClientOptions options;
 
     CerbosBlockingClient(
-            Channel channel, long timeoutMillis, PlaygroundInstanceCredentials playgroundCredentials) {
+            Channel channel, long timeoutMillis, PlaygroundInstanceCredentials playgroundCredentials,
+            ClientOptions options) {
         CerbosServiceGrpc.CerbosServiceBlockingStub c = CerbosServiceGrpc.newBlockingStub(channel);
+        CerbosServiceGrpc.CerbosServiceFutureStub f = CerbosServiceGrpc.newFutureStub(channel);
         if (playgroundCredentials != null) {
             this.cerbosStub = c.withCallCredentials(playgroundCredentials);
+            this.cerbosFutureStub = f.withCallCredentials(playgroundCredentials);
         } else {
             this.cerbosStub = c;
+            this.cerbosFutureStub = f;
         }
         this.timeoutMillis = timeoutMillis;
         this.auxData = Optional.empty();
         this.headerMetadata = Optional.empty();
         this.requestAnnotations = Optional.empty();
+        this.options = options;
     }
 
     CerbosBlockingClient(
-            CerbosServiceGrpc.CerbosServiceBlockingStub cerbosStub, long timeoutMillis, Optional<AuxData> auxData,
-            Optional<Metadata> headerMetadata, Optional<Map<String, Value>> requestAnnotations) {
+            CerbosServiceGrpc.CerbosServiceBlockingStub cerbosStub,
+            CerbosServiceGrpc.CerbosServiceFutureStub cerbosFutureStub, long timeoutMillis, Optional<AuxData> auxData,
+            Optional<Metadata> headerMetadata, Optional<Map<String, Value>> requestAnnotations,
+            ClientOptions options) {
         this.cerbosStub = cerbosStub;
+        this.cerbosFutureStub = cerbosFutureStub;
         this.timeoutMillis = timeoutMillis;
         this.auxData = auxData;
         this.headerMetadata = headerMetadata;
         this.requestAnnotations = requestAnnotations;
+        this.options = options;
     }
 
     private CerbosServiceGrpc.CerbosServiceBlockingStub withClient() {
@@ -68,6 +99,13 @@ public class CerbosBlockingClient {
         return stub.withDeadlineAfter(timeoutMillis, TimeUnit.MILLISECONDS);
     }
 
+    private CerbosServiceGrpc.CerbosServiceFutureStub withFutureClient() {
+        CerbosServiceGrpc.CerbosServiceFutureStub stub = this.headerMetadata
+                .map(md -> cerbosFutureStub.withInterceptors(MetadataUtils.newAttachHeadersInterceptor(md)))
+                .orElse(cerbosFutureStub);
+        return stub.withDeadlineAfter(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * Automatically attach the provided auxiliary data to requests.
      *
@@ -76,8 +114,8 @@ public class CerbosBlockingClient {
      *         requests.
      */
     public CerbosBlockingClient with(AuxData auxData) {
-        return new CerbosBlockingClient(cerbosStub, timeoutMillis, Optional.ofNullable(auxData), headerMetadata,
-                requestAnnotations);
+        return new CerbosBlockingClient(cerbosStub, cerbosFutureStub, timeoutMillis, Optional.ofNullable(auxData),
+                headerMetadata, requestAnnotations, options);
     }
 
     /**
@@ -88,8 +126,8 @@ public class CerbosBlockingClient {
      *         requests.
      */
     public CerbosBlockingClient withHeaders(Metadata md) {
-        return new CerbosBlockingClient(cerbosStub, timeoutMillis, auxData, Optional.ofNullable(md),
-                requestAnnotations);
+        return new CerbosBlockingClient(cerbosStub, cerbosFutureStub, timeoutMillis, auxData, Optional.ofNullable(md),
+                requestAnnotations, options);
     }
 
     /**
@@ -118,12 +156,14 @@ public class CerbosBlockingClient {
      */
     public CerbosBlockingClient withRequestAnnotations(Map<String, AttributeValue> annotations) {
         if (annotations == null) {
-            return new CerbosBlockingClient(cerbosStub, timeoutMillis, auxData, headerMetadata, Optional.empty());
+            return new CerbosBlockingClient(cerbosStub, cerbosFutureStub, timeoutMillis, auxData, headerMetadata,
+                    Optional.empty(), options);
         }
 
         Map<String, Value> valueMap = annotations.entrySet().stream()
                 .collect(Collectors.toMap(Map.Entry::getKey, v -> v.getValue().toValue()));
-        return new CerbosBlockingClient(cerbosStub, timeoutMillis, auxData, headerMetadata, Optional.of(valueMap));
+        return new CerbosBlockingClient(cerbosStub, cerbosFutureStub, timeoutMillis, auxData, headerMetadata,
+                Optional.of(valueMap), options);
     }
 
     /**
@@ -140,15 +180,101 @@ public class CerbosBlockingClient {
      * @throws CerbosException if an RPC error occurs
      */
     public CheckResult check(String requestId, Principal principal, Resource resource, String... actions) {
+        try {
+            return doCheck(requestId, principal, resource, actions);
+        } catch (StatusRuntimeException sre) {
+            throw options.exception(sre.getStatus(), sre.getCause());
+        }
+    }
+
+    /**
+     * Check whether the principal is allowed to perform the actions on the given
+     * resource without throwing if the RPC fails.
+     * Useful for callers that treat failures as denials: the status of a failed RPC is returned instead of being
+     * wrapped in a {@link CerbosException} and thrown.
+     *
+     * @param requestId Request ID
+     * @param principal Principal performing the action
+     * @param resource  Resource being accessed
+     * @param actions   List of actions being performed on the resource
+     * @return {@link CheckOutcome} holding either the result or the status of the failed RPC
+     */
+    public CheckOutcome tryCheck(String requestId, Principal principal, Resource resource, String... actions) {
+        try {
+            return CheckOutcome.success(doCheck(requestId, principal, resource, actions));
+        } catch (StatusRuntimeException sre) {
+            return CheckOutcome.failure(sre.getStatus());
+        }
+    }
+
+    /**
+     * Check whether the principal is allowed to perform the actions on the given
+     * resource without throwing if the RPC fails.
+     *
+     * @param principal Principal performing the action
+     * @param resource  Resource being accessed
+     * @param actions   List of actions being performed on the resource
+     * @return {@link CheckOutcome} holding either the result or the status of the failed RPC
+     */
+    public CheckOutcome tryCheck(Principal principal, Resource resource, String... actions) {
+        return tryCheck(options.requestIdGenerator().generate(), principal, resource, actions);
+    }
+
+    private CheckResult doCheck(String requestId, Principal principal, Resource resource, String... actions) {
         Request.AuxData ad = this.auxData.map(AuxData::toAuxData).orElseGet(Request.AuxData::getDefaultInstance);
+        Engine.Principal p = principal.toPrincipal();
+        Engine.Resource r = resource.toResource();
+        boolean sampled = options.sampleMeta(p.getId());
+
+        Set<String> remaining = new LinkedHashSet<>(Arrays.asList(actions));
+        Map<String, EffectOuterClass.Effect> known = new HashMap<>();
+        if (options.localEvaluator() != null && !sampled) {
+            known.putAll(options.localEvaluator().evaluate(p, r, remaining));
+            remaining.removeAll(known.keySet());
+        }
+
+        CheckScope scope = sampled ? null : options.scopedMemo().current();
+        DecisionKey scopeKey = null;
+        if (scope != null && !remaining.isEmpty()) {
+            scopeKey = DecisionKey.of(p, r, ad);
+            Map<String, EffectOuterClass.Effect> memoized = scope.lookup(scopeKey, remaining);
+            known.putAll(memoized);
+            remaining.removeAll(memoized.keySet());
+        }
+
+        DecisionKey cacheKey = null;
+        if (options.checkCache() != null && !sampled && !remaining.isEmpty()) {
+            cacheKey = options.checkCache().keyOf(p, r, ad);
+            Map<String, EffectOuterClass.Effect> cached = options.checkCache().lookup(cacheKey, remaining);
+            known.putAll(cached);
+            remaining.removeAll(cached.keySet());
+        }
+
+        if (remaining.isEmpty()) {
+            return localResult(requestId, r, known);
+        }
+
+        DegradedMode degraded = options.degradedMode();
+        if (degraded != null && degraded.isUnavailable()) {
+            return degradedResult(requestId, principal, resource, ad, remaining, known);
+        }
+
+        Set<String> requested = remaining;
+        long generation = 0;
+        if (cacheKey != null) {
+            requested = options.checkCache().widen(r.getKind(), remaining, known.keySet());
+            // Read before sending so that a decision made under policies invalidated meanwhile is not cached
+            generation = options.checkCache().generation(r.getKind());
+        }
         Request.CheckResourcesRequest request = Request.CheckResourcesRequest.newBuilder()
                 .setRequestId(requestId)
-                .setPrincipal(principal.toPrincipal())
+                .setPrincipal(p)
                 .setAuxData(ad)
+                .setIncludeMeta(sampled)
                 .addResources(
                         Request.CheckResourcesRequest.ResourceEntry.newBuilder()
-                                .setResource(resource.toResource())
-                                .addAllActions(Arrays.asList(actions))
+                                .setResource(r)
+                                .addAllActions(requested)
                                 .build())
                 .build();
 
@@ -159,14 +285,110 @@ public class CerbosBlockingClient {
                     .build();
         }
 
+        Response.CheckResourcesResponse response;
         try {
-            Response.CheckResourcesResponse response = withClient().checkResources(request);
-            if (response.getResultsCount() == 1) {
-                return new CheckResult(response.getRequestId(), response.getCerbosCallId(), response.getResults(0));
+            SingleFlight singleFlight = options.singleFlight();
+            if (singleFlight != null && !sampled && headerMetadata.isEmpty() && requestAnnotations.isEmpty()) {
+                Request.CheckResourcesRequest call = request;
+                DecisionKey input = scopeKey != null ? scopeKey : DecisionKey.of(p, r, ad);
+                response = singleFlight.execute(SingleFlight.Key.of(input, requested, generation), requestId,
+                        () -> withClient().checkResources(call));
+            } else {
+                response = withClient().checkResources(request);
             }
-            return new CheckResult(response.getRequestId(), response.getCerbosCallId(), null);
         } catch (StatusRuntimeException sre) {
-            throw new CerbosException(sre.getStatus(), sre.getCause());
+            if (degraded != null && degraded.isOutage(sre.getStatus())) {
+                return degradedResult(requestId, principal, resource, ad, remaining, known);
+            }
+            throw sre;
+        }
+        if (degraded != null) {
+            degraded.reachable();
+        }
+
+        if (response.getResultsCount() == 1) {
+            Response.CheckResourcesResponse.ResultEntry entry = response.getResults(0);
+            if (cacheKey != null) {
+                options.checkCache().store(cacheKey, entry, generation);
+            }
+            if (scopeKey != null) {
+                scope.store(scopeKey, entry);
+            }
+            if (requested.size() > remaining.size()) {
+                // Only report the actions that were asked for, the rest were fetched for the cache
+                Map<String, EffectOuterClass.Effect> effects = new HashMap<>(entry.getActionsMap());
+                effects.keySet().retainAll(remaining);
+                entry = entry.toBuilder().clearActions().putAllActions(effects).build();
+            }
+            if (!known.isEmpty()) {
+                entry = entry.toBuilder().putAllActions(known).build();
+            }
+            CheckResult result = new CheckResult(response.getRequestId(), response.getCerbosCallId(), entry);
+            if (sampled) {
+                options.publishMeta(p.getId(), result);
+            }
+            return result;
+        }
+        return new CheckResult(response.getRequestId(), response.getCerbosCallId(), null);
+    }
+
+    /**
+     * Answer a check while the PDP is unreachable: serve cached decisions within the staleness bound, apply the
+     * default to the rest and refresh the decision once the PDP is reachable again.
+     */
+    private CheckResult degradedResult(String requestId, Principal principal, Resource resource, Request.AuxData ad,
+            Set<String> remaining, Map<String, EffectOuterClass.Effect> known) {
+        DegradedMode degraded = options.degradedMode();
+        if (options.checkCache() != null) {
+            DecisionKey key = options.checkCache().keyOf(principal.toPrincipal(), resource.toResource(), ad);
+            known.putAll(options.checkCache().lookup(key, remaining, degraded.maxStalenessMillis()));
+            String[] actions = remaining.toArray(new String[0]);
+            degraded.scheduleRefresh(key,
+                    () -> doCheck(options.requestIdGenerator().generate(), principal, resource, actions));
+        }
+
+        EffectOuterClass.Effect fallback = degraded.defaultAllowed()
+                ? EffectOuterClass.Effect.EFFECT_ALLOW
+                : EffectOuterClass.Effect.EFFECT_DENY;
+        for (String action : remaining) {
+            known.putIfAbsent(action, fallback);
+        }
+        return localResult(requestId, resource.toResource(), known);
+    }
+
+    private static CheckResult localResult(String requestId, Engine.Resource r,
+            Map<String, EffectOuterClass.Effect> effects) {
+        return new CheckResult(requestId, "", Response.CheckResourcesResponse.ResultEntry.newBuilder()
+                .setResource(Response.CheckResourcesResponse.ResultEntry.Resource.newBuilder()
+                        .setId(r.getId())
+                        .setKind(r.getKind())
+                        .setPolicyVersion(r.getPolicyVersion())
+                        .setScope(r.getScope()))
+                .putAllActions(effects)
+                .build());
+    }
+
+    /**
+     * Open a {@link CheckScope} on the calling thread. Until it is closed, single resource checks made on this thread
+     * reuse the decisions the PDP already made within the scope instead of sending identical requests again.
+     *
+     * @return {@link CheckScope} to close when the unit of work ends
+     */
+    public CheckScope openScope() {
+        return options.scopedMemo().open();
+    }
+
+    /**
+     * Run the given work within a {@link CheckScope}.
+     *
+     * @param work Work to run
+     * @param <T>  Type of the result
+     * @return Result of the work
+     * @see #openScope()
+     */
+    public <T> T withScope(Supplier<T> work) {
+        try (CheckScope scope = openScope()) {
+            return work.get();
         }
     }
 
@@ -183,7 +405,7 @@ public class CerbosBlockingClient {
      * @throws CerbosException if an RPC error occurs
      */
     public CheckResult check(Principal principal, Resource resource, String... actions) {
-        return check(RequestId.generate(), principal, resource, actions);
+        return check(options.requestIdGenerator().generate(), principal, resource, actions);
     }
 
     /**
@@ -195,7 +417,8 @@ public class CerbosBlockingClient {
     public CheckResourcesRequestBuilder batch(Principal principal) {
         return new CheckResourcesRequestBuilder(
                 this::withClient,
-                RequestId.generate(),
+                options,
+                options.requestIdGenerator().generate(),
                 this.auxData.map(AuxData::toAuxData).orElseGet(Request.AuxData::getDefaultInstance),
                 this.requestAnnotations,
                 principal.toPrincipal());
@@ -211,6 +434,7 @@ public class CerbosBlockingClient {
     public CheckResourcesRequestBuilder batch(String requestId, Principal principal) {
         return new CheckResourcesRequestBuilder(
                 this::withClient,
+                options,
                 requestId,
                 this.auxData.map(AuxData::toAuxData).orElseGet(Request.AuxData::getDefaultInstance),
                 this.requestAnnotations,
@@ -226,8 +450,173 @@ public class CerbosBlockingClient {
      */
     public CheckResourcesRequestBuilder batch(Principal principal, AuxData auxData) {
         return new CheckResourcesRequestBuilder(
-                this::withClient, RequestId.generate(), auxData.toAuxData(), this.requestAnnotations,
-                principal.toPrincipal());
+                this::withClient, options, options.requestIdGenerator().generate(),
+                auxData.toAuxData(), this.requestAnnotations, principal.toPrincipal());
+    }
+
+    /**
+     * Check whether the principal is allowed to perform the action on each of the given items and return the allowed
+     * items in their original order.
+     * The items are checked in chunks, up to four of which are sent to the PDP concurrently. Items that map to
+     * identical resources are only checked once.
+     *
+     * @param principal  Principal performing the action
+     * @param items      Items to filter
+     * @param action     Action being performed on the items
+     * @param toResource Function to convert an item to the {@link Resource} to check
+     * @param <T>        Type of the items
+     * @return List of allowed items
+     * @throws CerbosException if an RPC error occurs
+     */
+    public <T> List<T> filterAllowed(Principal principal, Collection<T> items, String action,
+            Function<T, Resource> toResource) {
+        BitSet allowed = filterAllowedMask(principal, items, action, toResource);
+        List<T> result = new ArrayList<>(allowed.cardinality());
+        int i = 0;
+        for (T item : items) {
+            if (allowed.get(i++)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check whether the principal is allowed to perform the action on each of the given items.
+     *
+     * @param principal  Principal performing the action
+     * @param items      Items to check
+     * @param action     Action being performed on the items
+     * @param toResource Function to convert an item to the {@link Resource} to check
+     * @param <T>        Type of the items
+     * @return BitSet parallel to the iteration order of items where a set bit indicates that the item is allowed
+     * @throws CerbosException if an RPC error occurs
+     */
+    public <T> BitSet filterAllowedMask(Principal principal, Collection<T> items, String action,
+            Function<T, Resource> toResource) {
+        return filterAllowedMask(principal, items, action, toResource, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Check whether the principal is allowed to perform the action on each of the given items.
+     *
+     * @param principal  Principal performing the action
+     * @param items      Items to check
+     * @param action     Action being performed on the items
+     * @param toResource Function to convert an item to the {@link Resource} to check
+     * @param chunkSize  Maximum number of resources to send in a single request. Must not exceed the
+     *                   maxResourcesPerRequest setting of the PDP.
+     * @param <T>        Type of the items
+     * @return BitSet parallel to the iteration order of items where a set bit indicates that the item is allowed
+     * @throws CerbosException if an RPC error occurs
+     */
+    public <T> BitSet filterAllowedMask(Principal principal, Collection<T> items, String action,
+            Function<T, Resource> toResource, int chunkSize) {
+        return filterAllowedMask(principal, items, action, toResource, chunkSize, DEFAULT_MAX_CHUNKS_IN_FLIGHT);
+    }
+
+    /**
+     * Check whether the principal is allowed to perform the action on each of the given items.
+     *
+     * @param principal         Principal performing the action
+     * @param items             Items to check
+     * @param action            Action being performed on the items
+     * @param toResource        Function to convert an item to the {@link Resource} to check
+     * @param chunkSize         Maximum number of resources to send in a single request. Must not exceed the
+     *                          maxResourcesPerRequest setting of the PDP.
+     * @param maxChunksInFlight Maximum number of requests to have in flight at the same time. Defaults to 4.
+     * @param <T>               Type of the items
+     * @return BitSet parallel to the iteration order of items where a set bit indicates that the item is allowed
+     * @throws CerbosException if an RPC error occurs
+     */
+    public <T> BitSet filterAllowedMask(Principal principal, Collection<T> items, String action,
+            Function<T, Resource> toResource, int chunkSize, int maxChunksInFlight) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be greater than zero");
+        }
+        if (maxChunksInFlight <= 0) {
+            throw new IllegalArgumentException("maxChunksInFlight must be greater than zero");
+        }
+
+        Map<Engine.Resource, Integer> uniqueIndex = new HashMap<>();
+        List<Engine.Resource> uniqueResources = new ArrayList<>();
+        int[] slots = new int[items.size()];
+        int i = 0;
+        for (T item : items) {
+            Engine.Resource resource = toResource.apply(item).toResource();
+            Integer existing = uniqueIndex.putIfAbsent(resource, uniqueResources.size());
+            if (existing == null) {
+                slots[i] = uniqueResources.size();
+                uniqueResources.add(resource);
+            } else {
+                slots[i] = existing;
+            }
+            i++;
+        }
+
+        Request.CheckResourcesRequest.Builder templateBuilder = Request.CheckResourcesRequest.newBuilder()
+                .setRequestId(options.requestIdGenerator().generate())
+                .setPrincipal(principal.toPrincipal())
+                .setAuxData(this.auxData.map(AuxData::toAuxData).orElseGet(Request.AuxData::getDefaultInstance));
+        requestAnnotations.ifPresent(a -> templateBuilder
+                .setRequestContext(Audit.RequestContext.newBuilder().putAllAnnotations(a).build()));
+        Request.CheckResourcesRequest template = templateBuilder.build();
+
+        int chunkCount = (uniqueResources.size() + chunkSize - 1) / chunkSize;
+        // Each chunk gets its own deadline from when it is sent, rather than one shared by the whole window
+        IntFunction<ListenableFuture<Response.CheckResourcesResponse>> send = c -> {
+            Request.CheckResourcesRequest.Builder request = template.toBuilder();
+            int end = Math.min((c + 1) * chunkSize, uniqueResources.size());
+            for (int j = c * chunkSize; j < end; j++) {
+                request.addResources(Request.CheckResourcesRequest.ResourceEntry.newBuilder()
+                        .setResource(uniqueResources.get(j))
+                        .addActions(action));
+            }
+            return withFutureClient().checkResources(request.build());
+        };
+
+        // Keep a bounded window of requests in flight, sending the next chunk as the oldest one completes
+        List<ListenableFuture<Response.CheckResourcesResponse>> chunks = new ArrayList<>(chunkCount);
+        for (int c = 0; c < Math.min(maxChunksInFlight, chunkCount); c++) {
+            chunks.add(send.apply(c));
+        }
+
+        BitSet uniqueAllowed = new BitSet(uniqueResources.size());
+        try {
+            for (int c = 0; c < chunkCount; c++) {
+                Response.CheckResourcesResponse response = chunks.get(c).get();
+                if (chunks.size() < chunkCount) {
+                    chunks.add(send.apply(chunks.size()));
+                }
+                int offset = c * chunkSize;
+                int expected = Math.min(chunkSize, uniqueResources.size() - offset);
+                if (response.getResultsCount() != expected) {
+                    throw options.exception(Status.INTERNAL.withDescription(
+                            "Expected " + expected + " results but received " + response.getResultsCount()), null);
+                }
+                for (int j = 0; j < expected; j++) {
+                    if (response.getResults(j).getActionsMap().get(action) == EffectOuterClass.Effect.EFFECT_ALLOW) {
+                        uniqueAllowed.set(offset + j);
+                    }
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw options.exception(Status.CANCELLED.withCause(ie), ie);
+        } catch (ExecutionException ee) {
+            Status status = Status.fromThrowable(ee.getCause());
+            throw options.exception(status, status.getCause());
+        } finally {
+            chunks.forEach(f -> f.cancel(false));
+        }
+
+        BitSet allowed = new BitSet(slots.length);
+        for (int k = 0; k < slots.length; k++) {
+            if (uniqueAllowed.get(slots[k])) {
+                allowed.set(k);
+            }
+        }
+        return allowed;
     }
 
     /**
@@ -246,7 +635,7 @@ public class CerbosBlockingClient {
         Request.AuxData ad = this.auxData.map(AuxData::toAuxData).orElseGet(Request.AuxData::getDefaultInstance);
 
         Request.PlanResourcesRequest request = Request.PlanResourcesRequest.newBuilder()
-                .setRequestId(RequestId.generate())
+                .setRequestId(options.requestIdGenerator().generate())
                 .setPrincipal(principal.toPrincipal())
                 .setResource(resource.toPlanResource())
                 .setAuxData(ad)
@@ -264,7 +653,7 @@ public class CerbosBlockingClient {
             Response.PlanResourcesResponse response = withClient().planResources(request);
             return new PlanResourcesResult(response);
         } catch (StatusRuntimeException sre) {
-            throw new CerbosException(sre.getStatus(), sre.getCause());
+            throw options.exception(sre.getStatus(), sre.getCause());
         }
     }
 
@@ -280,7 +669,7 @@ public class CerbosBlockingClient {
      * @throws CerbosException if the RPC fails.
      */
     public PlanResourcesResult plan(Principal principal, Resource resource, Iterable<String> actions) {
-        return plan(RequestId.generate(), principal, resource, actions);
+        return plan(options.requestIdGenerator().generate(), principal, resource, actions);
     }
 
     /**
@@ -297,28 +686,82 @@ public class CerbosBlockingClient {
      */
     public PlanResourcesResult plan(String requestId, Principal principal, Resource resource,
             Iterable<String> actions) {
-        Request.AuxData ad = this.auxData.map(AuxData::toAuxData).orElseGet(Request.AuxData::getDefaultInstance);
-
-        Request.PlanResourcesRequest request = Request.PlanResourcesRequest.newBuilder()
-                .setRequestId(requestId)
-                .setPrincipal(principal.toPrincipal())
+        Request.PlanResourcesRequest request = planRequestTemplate(requestId, principal).toBuilder()
                 .setResource(resource.toPlanResource())
-                .setAuxData(ad)
                 .addAllActions(actions)
                 .build();
 
-        if (requestAnnotations.isPresent()) {
-            request = request.toBuilder()
-                    .setRequestContext(
-                            Audit.RequestContext.newBuilder().putAllAnnotations(requestAnnotations.get()).build())
-                    .build();
-        }
-
         try {
             Response.PlanResourcesResponse response = withClient().planResources(request);
             return new PlanResourcesResult(response);
         } catch (StatusRuntimeException sre) {
-            throw new CerbosException(sre.getStatus(), sre.getCause());
+            throw options.exception(sre.getStatus(), sre.getCause());
+        }
+    }
+
+    /**
+     * Obtain query plans for several resource kinds at once.
+     * The plan requests are sent to the PDP concurrently, so the call takes roughly as long as the slowest of them.
+     * Requires Cerbos 0.44.0 and above.
+     *
+     * @param principal Principal performing the actions.
+     * @param resources Resource kinds mapped to the actions to generate plans for.
+     * @return Map of the given resources to their plans, in the iteration order of the given map.
+     * @throws CerbosException if any of the RPCs fail.
+     */
+    public Map<Resource, PlanResourcesResult> planAll(Principal principal,
+            Map<Resource, ? extends Iterable<String>> resources) {
+        return planAll(options.requestIdGenerator().generate(), principal, resources);
+    }
+
+    /**
+     * Obtain query plans for several resource kinds at once.
+     * The plan requests are sent to the PDP concurrently, so the call takes roughly as long as the slowest of them.
+     * Requires Cerbos 0.44.0 and above.
+     *
+     * @param requestId Request ID shared by all the plan requests
+     * @param principal Principal performing the actions.
+     * @param resources Resource kinds mapped to the actions to generate plans for.
+     * @return Map of the given resources to their plans, in the iteration order of the given map.
+     * @throws CerbosException if any of the RPCs fail.
+     */
+    public Map<Resource, PlanResourcesResult> planAll(String requestId, Principal principal,
+            Map<Resource, ? extends Iterable<String>> resources) {
+        Request.PlanResourcesRequest template = planRequestTemplate(requestId, principal);
+        CerbosServiceGrpc.CerbosServiceFutureStub stub = withFutureClient();
+        Map<Resource, ListenableFuture<Response.PlanResourcesResponse>> futures = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<Resource, ? extends Iterable<String>> entry : resources.entrySet()) {
+                Request.PlanResourcesRequest request = template.toBuilder()
+                        .setResource(entry.getKey().toPlanResource())
+                        .addAllActions(entry.getValue())
+                        .build();
+                futures.put(entry.getKey(), stub.planResources(request));
+            }
+
+            Map<Resource, PlanResourcesResult> results = new LinkedHashMap<>();
+            for (Map.Entry<Resource, ListenableFuture<Response.PlanResourcesResponse>> entry : futures.entrySet()) {
+                results.put(entry.getKey(), new PlanResourcesResult(entry.getValue().get()));
+            }
+            return results;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw options.exception(Status.CANCELLED.withCause(ie), ie);
+        } catch (ExecutionException ee) {
+            Status status = Status.fromThrowable(ee.getCause());
+            throw options.exception(status, status.getCause());
+        } finally {
+            futures.values().forEach(f -> f.cancel(false));
         }
     }
+
+    private Request.PlanResourcesRequest planRequestTemplate(String requestId, Principal principal) {
+        Request.PlanResourcesRequest.Builder request = Request.PlanResourcesRequest.newBuilder()
+                .setRequestId(requestId)
+                .setPrincipal(principal.toPrincipal())
+                .setAuxData(this.auxData.map(AuxData::toAuxData).orElseGet(Request.AuxData::getDefaultInstance));
+        requestAnnotations.ifPresent(a -> request
+                .setRequestContext(Audit.RequestContext.newBuilder().putAllAnnotations(a).build()));
+        return request.build();
+    }
 }
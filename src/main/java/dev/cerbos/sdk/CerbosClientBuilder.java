@@ -5,6 +5,9 @@
 
 package dev.cerbos.sdk;
 
+import dev.cerbos.sdk.cache.DecisionCache;
+import dev.cerbos.sdk.cache.DecisionKeyStrategy;
+import dev.cerbos.sdk.cache.ResourceActions;
 import io.grpc.*;
 import io.grpc.netty.shaded.io.netty.handler.ssl.util.InsecureTrustManagerFactory;
 
@@ -23,6 +26,16 @@ public class CerbosClientBuilder {
     private String playgroundInstance;
     private long timeoutMillis = 1000;
     private List<ClientInterceptor> clientInterceptors;
+    private RequestIdGenerator requestIdGenerator = RequestId.randomUUID();
+    private boolean stacklessExceptions;
+    private MetaSampler metaSampler = MetaSampler.never();
+    private MetaListener metaListener;
+    private LocalPolicyEvaluator localEvaluator;
+    private CheckCache checkCache;
+    private ResourceActions widenTo;
+    private Duration degradedMaxStaleness;
+    private boolean degradedDefaultAllowed;
+    private boolean singleFlight;
 
     public CerbosClientBuilder(String target) {
         this.target = target;
@@ -77,6 +90,132 @@ public class CerbosClientBuilder {
         return this;
     }
 
+    /**
+     * Set the strategy used to generate request IDs for requests that are not given an explicit ID.
+     * Defaults to {@link RequestId#randomUUID()}. Use {@link RequestId#timeOrderedUUID()} to avoid contention on the
+     * shared SecureRandom instance under high concurrency.
+     *
+     * @param requestIdGenerator {@link RequestIdGenerator}
+     * @return {@link CerbosClientBuilder}
+     */
+    public CerbosClientBuilder withRequestIdGenerator(RequestIdGenerator requestIdGenerator) {
+        this.requestIdGenerator = requestIdGenerator;
+        return this;
+    }
+
+    /**
+     * Create {@link CerbosException} instances without capturing stack traces.
+     * Reduces the cost of the failure path when the PDP is unavailable and many requests fail at once.
+     *
+     * @return {@link CerbosClientBuilder}
+     */
+    public CerbosClientBuilder withStacklessExceptions() {
+        this.stacklessExceptions = true;
+        return this;
+    }
+
+    /**
+     * Ask the PDP to include evaluation metadata in the responses to a sample of check requests and deliver the
+     * results of those requests to the given listener. Requests that explicitly ask for metadata using
+     * {@link CheckResourcesRequestBuilder#withIncludeMeta()} are not sampled.
+     *
+     * @param metaSampler  Decides which requests to sample, e.g. {@link MetaSampler#oneIn(int)}
+     * @param metaListener Receives the results of sampled requests
+     * @return {@link CerbosClientBuilder}
+     */
+    public CerbosClientBuilder withMetaSampling(MetaSampler metaSampler, MetaListener metaListener) {
+        this.metaSampler = metaSampler;
+        this.metaListener = metaListener;
+        return this;
+    }
+
+    /**
+     * Decide single resource checks locally when the outcome doesn't depend on conditions, derived roles or scopes.
+     * Actions that can't be decided locally are checked by the PDP as usual.
+     *
+     * @param localEvaluator {@link LocalPolicyEvaluator} loaded with the same policies as the PDP
+     * @return {@link CerbosClientBuilder}
+     */
+    public CerbosClientBuilder withLocalPolicyEvaluator(LocalPolicyEvaluator localEvaluator) {
+        this.localEvaluator = localEvaluator;
+        return this;
+    }
+
+    /**
+     * Serve single resource checks from the given cache while the decisions are younger than the TTL.
+     * Use a {@link dev.cerbos.sdk.cache.PolicyChangeWatcher} to invalidate the cache when policies change, which makes
+     * long TTLs safe.
+     *
+     * @param cache {@link DecisionCache}
+     * @param ttl   How long decisions are served from the cache
+     * @return {@link CerbosClientBuilder}
+     */
+    public CerbosClientBuilder withDecisionCache(DecisionCache cache, Duration ttl) {
+        return withDecisionCache(cache, ttl, DecisionKeyStrategy.allInputs());
+    }
+
+    /**
+     * Serve single resource checks from the given cache while the decisions are younger than the TTL, deriving cache
+     * keys with the given strategy, such as {@link dev.cerbos.sdk.cache.AttributeAwareKeyStrategy}.
+     *
+     * @param cache       {@link DecisionCache}
+     * @param ttl         How long decisions are served from the cache
+     * @param keyStrategy {@link DecisionKeyStrategy}
+     * @return {@link CerbosClientBuilder}
+     */
+    public CerbosClientBuilder withDecisionCache(DecisionCache cache, Duration ttl, DecisionKeyStrategy keyStrategy) {
+        this.checkCache = new CheckCache(cache, ttl, keyStrategy);
+        return this;
+    }
+
+    /**
+     * Ask the PDP for all registered actions of the resource kind whenever a single resource check misses the
+     * decision cache, so that checks for the other actions on the same resource are answered from the cache. Requires
+     * a decision cache (see {@link #withDecisionCache(DecisionCache, Duration)}). The results only contain the actions
+     * that were asked for, but the PDP audit log records the decisions for all the actions.
+     *
+     * @param resourceActions Actions registered for each resource kind, such as
+     *                        {@link ResourceActions#fromPolicies(CerbosBlockingAdminClient)}
+     * @return {@link CerbosClientBuilder}
+     */
+    public CerbosClientBuilder withActionWidening(ResourceActions resourceActions) {
+        this.widenTo = resourceActions;
+        return this;
+    }
+
+    /**
+     * Answer single resource checks without contacting the PDP while it is unreachable.
+     * A check is answered in degraded mode if its RPC fails with {@code UNAVAILABLE} or {@code DEADLINE_EXCEEDED},
+     * or if the channel is in {@code TRANSIENT_FAILURE}: from the time it fails to connect until it is
+     * {@code READY} again, checks are answered without sending an RPC instead of waiting for the deadline. Decisions
+     * in the decision cache (see {@link #withDecisionCache(DecisionCache, Duration)}) are served if they are younger
+     * than {@code maxStaleness}, and other actions get the default decision. Checks served this way are repeated in
+     * the background to refresh the cache when the channel is ready again or, if it never left {@code READY}, after
+     * the next check that gets a response from the PDP.
+     *
+     * @param maxStaleness   Maximum age of cached decisions served while the PDP is unreachable
+     * @param defaultAllowed Decision for actions without a cached decision
+     * @return {@link CerbosClientBuilder}
+     */
+    public CerbosClientBuilder withDegradedMode(Duration maxStaleness, boolean defaultAllowed) {
+        this.degradedMaxStaleness = maxStaleness;
+        this.degradedDefaultAllowed = defaultAllowed;
+        return this;
+    }
+
+    /**
+     * Let concurrent single resource checks with the same principal, resource, actions and auxiliary data share one
+     * in-flight RPC and its result. Protects the PDP from bursts of identical checks, for example when many users open
+     * the same shared resource at once. Each caller still gets its own request ID, but only the first request reaches
+     * the PDP and its audit log. Clients that attach headers or request annotations are not deduplicated.
+     *
+     * @return {@link CerbosClientBuilder}
+     */
+    public CerbosClientBuilder withSingleFlight() {
+        this.singleFlight = true;
+        return this;
+    }
+
     private ManagedChannel buildChannel() throws InvalidClientConfigurationException {
         if (isEmptyString(target)) {
             throw new InvalidClientConfigurationException("Invalid target [" + target + "]");
@@ -126,7 +265,29 @@ public class CerbosClientBuilder {
         if (!isEmptyString(playgroundInstance)) {
             pgCreds = new PlaygroundInstanceCredentials(playgroundInstance);
         }
-        return new CerbosBlockingClient(buildChannel(), timeoutMillis, pgCreds);
+        CheckCache cache = checkCache;
+        if (widenTo != null) {
+            if (cache == null) {
+                throw new InvalidClientConfigurationException("Action widening requires a decision cache");
+            }
+            cache = cache.withWidening(widenTo);
+        }
+        ManagedChannel channel = buildChannel();
+        ClientOptions options = ClientOptions.DEFAULT
+                .withRequestIdGenerator(requestIdGenerator)
+                .withStacklessExceptions(stacklessExceptions)
+                .withMetaSampling(metaSampler, metaListener)
+                .withLocalEvaluator(localEvaluator)
+                .withCheckCache(cache)
+                .withScopedMemo(new ScopedMemo());
+        if (singleFlight) {
+            options = options.withSingleFlight(new SingleFlight());
+        }
+        if (degradedMaxStaleness != null) {
+            options = options.withDegradedMode(
+                    new DegradedMode(degradedMaxStaleness, degradedDefaultAllowed).watch(channel));
+        }
+        return new CerbosBlockingClient(channel, timeoutMillis, pgCreds, options);
     }
 
     public CerbosBlockingAdminClient buildBlockingAdminClient() throws InvalidClientConfigurationException {
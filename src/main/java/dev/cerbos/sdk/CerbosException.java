@@ -10,11 +10,35 @@ import io.grpc.Status;
 public final class CerbosException extends RuntimeException {
     private final int statusCode;
     private final String statusDescription;
+    private final transient Status status;
 
     public CerbosException(Status status, Throwable cause) {
-        super(String.format("RPC exception [%s]", status.toString()), cause);
+        this(status, cause, false);
+    }
+
+    /**
+     * Create an exception for the given status.
+     * Stackless exceptions skip capturing the stack trace, which makes them cheap to create when many requests fail at
+     * once.
+     *
+     * @param status    RPC status
+     * @param cause     Cause of the exception
+     * @param stackless Whether to skip capturing the stack trace
+     */
+    CerbosException(Status status, Throwable cause, boolean stackless) {
+        super(null, cause, true, !stackless);
         this.statusCode = status.getCode().value();
         this.statusDescription = status.getDescription();
+        this.status = status;
+    }
+
+    @Override
+    public String getMessage() {
+        // Formatted on demand so that callers that never log the exception do not pay for it.
+        if (status == null) {
+            return "RPC exception [code=" + statusCode + ", description=" + statusDescription + "]";
+        }
+        return "RPC exception [" + status + "]";
     }
 
     public int getStatusCode() {
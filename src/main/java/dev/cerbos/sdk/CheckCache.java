@@ -0,0 +1,131 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+import dev.cerbos.api.v1.effect.EffectOuterClass;
+import dev.cerbos.api.v1.engine.Engine;
+import dev.cerbos.api.v1.request.Request;
+import dev.cerbos.api.v1.response.Response;
+import dev.cerbos.sdk.cache.CacheGenerations;
+import dev.cerbos.sdk.cache.CachedDecision;
+import dev.cerbos.sdk.cache.DecisionCache;
+import dev.cerbos.sdk.cache.DecisionKey;
+import dev.cerbos.sdk.cache.DecisionKeyStrategy;
+import dev.cerbos.sdk.cache.ResourceActions;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Serves checks from a {@link DecisionCache} while the decisions are younger than the TTL.
+ * <p>
+ * Decisions are only stored if their resource kind was not invalidated while they were being fetched (see
+ * {@link CacheGenerations}).
+ */
+final class CheckCache {
+    private final DecisionCache cache;
+    private final long ttlMillis;
+    private final DecisionKeyStrategy keyStrategy;
+    private final ResourceActions widenTo;
+
+    CheckCache(DecisionCache cache, Duration ttl, DecisionKeyStrategy keyStrategy) {
+        this(cache, ttl.toMillis(), keyStrategy, null);
+    }
+
+    private CheckCache(DecisionCache cache, long ttlMillis, DecisionKeyStrategy keyStrategy, ResourceActions widenTo) {
+        this.cache = cache;
+        this.ttlMillis = ttlMillis;
+        this.keyStrategy = keyStrategy;
+        this.widenTo = widenTo;
+    }
+
+    CheckCache withWidening(ResourceActions widenTo) {
+        return new CheckCache(cache, ttlMillis, keyStrategy, widenTo);
+    }
+
+    DecisionKey keyOf(Engine.Principal principal, Engine.Resource resource, Request.AuxData auxData) {
+        return keyStrategy.keyOf(principal, resource, auxData);
+    }
+
+    /**
+     * Returns the actions to ask the PDP for: the given actions plus, if widening is enabled, the other registered
+     * actions of the resource kind that are not already known.
+     */
+    Set<String> widen(String kind, Set<String> actions, Set<String> known) {
+        if (widenTo == null) {
+            return actions;
+        }
+        Set<String> widened = new LinkedHashSet<>(actions);
+        for (String action : widenTo.actionsOf(kind)) {
+            if (!known.contains(action)) {
+                widened.add(action);
+            }
+        }
+        return widened;
+    }
+
+    /**
+     * Returns the effects of the given actions that are cached and fresh.
+     */
+    Map<String, EffectOuterClass.Effect> lookup(DecisionKey key, Collection<String> actions) {
+        return lookup(key, actions, ttlMillis);
+    }
+
+    /**
+     * Returns the effects of the given actions that are cached and younger than the given age.
+     */
+    Map<String, EffectOuterClass.Effect> lookup(DecisionKey key, Collection<String> actions, long maxAgeMillis) {
+        Optional<CachedDecision> cached = youngerThan(key, maxAgeMillis);
+        if (cached.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, EffectOuterClass.Effect> effects = new LinkedHashMap<>();
+        Map<String, Boolean> decisions = cached.get().getActions();
+        for (String action : actions) {
+            Boolean allowed = decisions.get(action);
+            if (allowed != null) {
+                effects.put(action, allowed ? EffectOuterClass.Effect.EFFECT_ALLOW : EffectOuterClass.Effect.EFFECT_DENY);
+            }
+        }
+        return effects;
+    }
+
+    /**
+     * Returns the generation to pass to {@link #store} for decisions about the given kind that are about to be fetched.
+     */
+    long generation(String kind) {
+        return CacheGenerations.current(cache, kind);
+    }
+
+    /**
+     * Cache the effects in the given result unless the resource kind was invalidated since the given generation.
+     * Results with outputs or validation errors are not cached because only the effects are kept.
+     */
+    void store(DecisionKey key, Response.CheckResourcesResponse.ResultEntry entry, long generation) {
+        if (entry.getOutputsCount() > 0 || entry.getValidationErrorsCount() > 0) {
+            return;
+        }
+
+        Map<String, Boolean> decisions = new LinkedHashMap<>();
+        entry.getActionsMap().forEach((action, effect) -> decisions.put(action, effect == EffectOuterClass.Effect.EFFECT_ALLOW));
+        long now = System.currentTimeMillis();
+        CachedDecision decision = youngerThan(key, ttlMillis)
+                .map(cached -> cached.merge(decisions, now))
+                .orElseGet(() -> new CachedDecision(decisions, now));
+        CacheGenerations.putIfCurrent(cache, key, decision, generation);
+    }
+
+    private Optional<CachedDecision> youngerThan(DecisionKey key, long maxAgeMillis) {
+        long now = System.currentTimeMillis();
+        return cache.get(key).filter(d -> d.ageMillis(now) < maxAgeMillis);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+import io.grpc.Status;
+
+import java.util.Optional;
+
+/**
+ * Outcome of a check that does not throw on RPC failures.
+ * Either holds a {@link CheckResult} or the status of the failed RPC. Every action is considered denied when the RPC
+ * failed.
+ */
+public final class CheckOutcome {
+    private final CheckResult result;
+    private final Status status;
+
+    private CheckOutcome(CheckResult result, Status status) {
+        this.result = result;
+        this.status = status;
+    }
+
+    static CheckOutcome success(CheckResult result) {
+        return new CheckOutcome(result, Status.OK);
+    }
+
+    static CheckOutcome failure(Status status) {
+        return new CheckOutcome(null, status);
+    }
+
+    /**
+     * Returns true if the RPC succeeded.
+     *
+     * @return true if a result is available
+     */
+    public boolean isSuccess() {
+        return result != null;
+    }
+
+    /**
+     * Returns the result of the check if the RPC succeeded.
+     *
+     * @return Optional {@link CheckResult}
+     */
+    public Optional<CheckResult> getResult() {
+        return Optional.ofNullable(result);
+    }
+
+    /**
+     * Returns whether the given action is allowed. Always false if the RPC failed.
+     *
+     * @param action Action to check
+     * @return True if the RPC succeeded and the action is allowed
+     */
+    public boolean isAllowed(String action) {
+        return result != null && result.isAllowed(action);
+    }
+
+    /**
+     * Returns the gRPC status code of the RPC. 0 (OK) if the RPC succeeded.
+     *
+     * @return Status code
+     */
+    public int getStatusCode() {
+        return status.getCode().value();
+    }
+
+    /**
+     * Returns the description of the RPC status, if any.
+     *
+     * @return Status description
+     */
+    public String getStatusDescription() {
+        return status.getDescription();
+    }
+}
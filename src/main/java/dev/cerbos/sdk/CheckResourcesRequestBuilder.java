@@ -11,28 +11,39 @@ import dev.cerbos.api.v1.engine.Engine;
 import dev.cerbos.api.v1.request.Request;
 import dev.cerbos.api.v1.response.Response;
 import dev.cerbos.api.v1.svc.CerbosServiceGrpc;
+import dev.cerbos.sdk.builders.AttributeValue;
 import dev.cerbos.sdk.builders.AuxData;
+import dev.cerbos.sdk.builders.Principal;
 import dev.cerbos.sdk.builders.Resource;
 import dev.cerbos.sdk.builders.ResourceAction;
+import dev.cerbos.sdk.builders.ResourceTemplate;
 import io.grpc.StatusRuntimeException;
 
 import java.util.Arrays;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
+/**
+ * Builder for batch check requests.
+ * A builder can be reused for several batches by calling {@link #reset()} between them, which keeps the principal,
+ * auxiliary data and request context and only clears the resource entries. Builders are not thread-safe: keep one per
+ * thread when reusing them.
+ */
 public class CheckResourcesRequestBuilder {
     private final Supplier<CerbosServiceGrpc.CerbosServiceBlockingStub> clientStub;
+    private final ClientOptions options;
     private final Request.CheckResourcesRequest.Builder requestBuilder;
 
     CheckResourcesRequestBuilder(
             Supplier<CerbosServiceGrpc.CerbosServiceBlockingStub> clientStub,
+            ClientOptions options,
             String requestId,
             Request.AuxData auxData,
             Optional<Map<String, Value>> requestAnnotations,
             Engine.Principal principal) {
         this.clientStub = clientStub;
+        this.options = options;
         this.requestBuilder = Request.CheckResourcesRequest.newBuilder()
                 .setRequestId(requestId)
                 .setPrincipal(principal)
@@ -53,6 +64,17 @@ public class CheckResourcesRequestBuilder {
         return this;
     }
 
+    /**
+     * Set the principal for this batch. Useful when reusing a builder for batches belonging to different principals.
+     *
+     * @param principal Principal performing the actions on resources.
+     * @return {@link CheckResourcesRequestBuilder}
+     */
+    public CheckResourcesRequestBuilder withPrincipal(Principal principal) {
+        this.requestBuilder.setPrincipal(principal.toPrincipal());
+        return this;
+    }
+
     /**
      * Set auxData for this batch
      *
@@ -86,8 +108,62 @@ public class CheckResourcesRequestBuilder {
      * @return {@link CheckResourcesRequestBuilder}
      */
     public CheckResourcesRequestBuilder addResources(ResourceAction... resources) {
-        this.requestBuilder.addAllResources(
-                Arrays.stream(resources).map(ResourceAction::toResourceEntry).collect(Collectors.toList()));
+        for (ResourceAction resource : resources) {
+            this.requestBuilder.addResources(resource.toResourceEntry());
+        }
+        return this;
+    }
+
+    /**
+     * Add a set of resource and action pairs.
+     *
+     * @param resources Resource and actions to check
+     * @return {@link CheckResourcesRequestBuilder}
+     */
+    public CheckResourcesRequestBuilder addResources(Iterable<ResourceAction> resources) {
+        for (ResourceAction resource : resources) {
+            this.requestBuilder.addResources(resource.toResourceEntry());
+        }
+        return this;
+    }
+
+    /**
+     * Add a resource and action pair.
+     *
+     * @param resource Resource and actions to check
+     * @return {@link CheckResourcesRequestBuilder}
+     */
+    public CheckResourcesRequestBuilder addResource(ResourceAction resource) {
+        this.requestBuilder.addResources(resource.toResourceEntry());
+        return this;
+    }
+
+    /**
+     * Add a resource stamped out from the given template and a set of actions to check against that resource.
+     *
+     * @param template Template holding the attributes shared by the resources in the batch
+     * @param id       ID of the resource
+     * @param actions  Actions to check
+     * @return {@link CheckResourcesRequestBuilder}
+     */
+    public CheckResourcesRequestBuilder addResource(ResourceTemplate template, String id, String... actions) {
+        this.requestBuilder.addResources(template.toResourceEntry(id, actions));
+        return this;
+    }
+
+    /**
+     * Add a resource stamped out from the given template with additional attributes and a set of actions to check
+     * against that resource.
+     *
+     * @param template   Template holding the attributes shared by the resources in the batch
+     * @param id         ID of the resource
+     * @param attributes Attributes specific to this resource
+     * @param actions    Actions to check
+     * @return {@link CheckResourcesRequestBuilder}
+     */
+    public CheckResourcesRequestBuilder addResource(ResourceTemplate template, String id,
+            Map<String, AttributeValue> attributes, String... actions) {
+        this.requestBuilder.addResources(template.toResourceEntry(id, attributes, actions));
         return this;
     }
 
@@ -101,18 +177,52 @@ public class CheckResourcesRequestBuilder {
         return this;
     }
 
+    /**
+     * Clear the resource entries and assign a new request ID so that the builder can be reused for another batch.
+     * The principal, auxiliary data, request context and includeMeta setting are retained.
+     *
+     * @return {@link CheckResourcesRequestBuilder}
+     */
+    public CheckResourcesRequestBuilder reset() {
+        return reset(options.requestIdGenerator().generate());
+    }
+
+    /**
+     * Clear the resource entries and assign the given request ID so that the builder can be reused for another batch.
+     * The principal, auxiliary data, request context and includeMeta setting are retained.
+     *
+     * @param requestId Request ID for the next batch
+     * @return {@link CheckResourcesRequestBuilder}
+     */
+    public CheckResourcesRequestBuilder reset(String requestId) {
+        this.requestBuilder.clearResources().setRequestId(requestId);
+        return this;
+    }
+
     /**
      * Perform the check using the accumulated list of resources and actions.
+     * The builder is left unchanged and can be reused after calling {@link #reset()}.
      *
      * @return {@link CheckResourcesResult}
      * @throws CerbosException if a network exception is caught.
      */
     public CheckResourcesResult check() {
+        Request.CheckResourcesRequest request = requestBuilder.build();
+        String principalId = request.getPrincipal().getId();
+        boolean sampled = !request.getIncludeMeta() && options.sampleMeta(principalId);
+        if (sampled) {
+            request = request.toBuilder().setIncludeMeta(true).build();
+        }
+
         try {
-            Response.CheckResourcesResponse resp = clientStub.get().checkResources(requestBuilder.build());
-            return new CheckResourcesResult(resp);
+            Response.CheckResourcesResponse resp = clientStub.get().checkResources(request);
+            CheckResourcesResult result = new CheckResourcesResult(resp);
+            if (sampled) {
+                result.results().forEach(r -> options.publishMeta(principalId, r));
+            }
+            return result;
         } catch (StatusRuntimeException sre) {
-            throw new CerbosException(sre.getStatus(), sre.getCause());
+            throw options.exception(sre.getStatus(), sre.getCause());
         }
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+import dev.cerbos.api.v1.effect.EffectOuterClass;
+import dev.cerbos.api.v1.response.Response;
+import dev.cerbos.sdk.cache.DecisionKey;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Memoizes the decisions of the PDP for the duration of a unit of work, such as handling an inbound request.
+ * <p>
+ * While a scope is open, single resource checks made on the same thread through the client that opened it, or any
+ * client derived from it, reuse the decisions already made by the PDP within the scope for identical principal,
+ * resource and auxiliary data. Nothing is shared between scopes, so decisions are never stale beyond the lifetime of
+ * the scope. Nested scopes share the decisions of the outermost scope.
+ * <p>
+ * Scopes must be closed on the thread that opened them, in the reverse order of opening:
+ * <pre>{@code
+ * try (CheckScope scope = client.openScope()) {
+ *     chain.doFilter(request, response);
+ * }
+ * }</pre>
+ *
+ * @see CerbosBlockingClient#withScope(java.util.function.Supplier)
+ */
+public final class CheckScope implements AutoCloseable {
+    private final ScopedMemo owner;
+    private final CheckScope outer;
+    private final Map<DecisionKey, Map<String, Boolean>> decisions;
+    private boolean closed;
+
+    CheckScope(ScopedMemo owner, CheckScope outer) {
+        this.owner = owner;
+        this.outer = outer;
+        this.decisions = outer == null ? new HashMap<>() : outer.decisions;
+    }
+
+    CheckScope outer() {
+        return outer;
+    }
+
+    /**
+     * Returns the effects of the given actions decided within the scope.
+     */
+    Map<String, EffectOuterClass.Effect> lookup(DecisionKey key, Collection<String> actions) {
+        Map<String, Boolean> known = decisions.get(key);
+        if (known == null) {
+            return Map.of();
+        }
+
+        Map<String, EffectOuterClass.Effect> effects = new LinkedHashMap<>();
+        for (String action : actions) {
+            Boolean allowed = known.get(action);
+            if (allowed != null) {
+                effects.put(action, allowed ? EffectOuterClass.Effect.EFFECT_ALLOW : EffectOuterClass.Effect.EFFECT_DENY);
+            }
+        }
+        return effects;
+    }
+
+    /**
+     * Remember the effects in the given result. Results with outputs or validation errors are not remembered because
+     * only the effects are kept.
+     */
+    void store(DecisionKey key, Response.CheckResourcesResponse.ResultEntry entry) {
+        if (entry.getOutputsCount() > 0 || entry.getValidationErrorsCount() > 0) {
+            return;
+        }
+        Map<String, Boolean> known = decisions.computeIfAbsent(key, k -> new HashMap<>());
+        entry.getActionsMap().forEach((action, effect) -> known.put(action, effect == EffectOuterClass.Effect.EFFECT_ALLOW));
+    }
+
+    /**
+     * End the scope.
+     *
+     * @throws IllegalStateException if called on a different thread than the one that opened the scope or before the
+     *                               scopes nested in it are closed
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        owner.close(this);
+        closed = true;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+import io.grpc.Status;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Behavioural options of a {@link CerbosBlockingClient} that are carried over to the clients derived from it.
+ */
+record ClientOptions(RequestIdGenerator requestIdGenerator, boolean stacklessExceptions, MetaSampler metaSampler,
+                     MetaListener metaListener, LocalPolicyEvaluator localEvaluator,
+                     CheckCache checkCache, DegradedMode degradedMode, ScopedMemo scopedMemo,
+                     SingleFlight singleFlight) {
+    private static final Logger LOGGER = Logger.getLogger(ClientOptions.class.getName());
+
+    static final ClientOptions DEFAULT = new ClientOptions(RequestId.randomUUID(), false, MetaSampler.never(), null,
+            null, null, null, null, null);
+
+    ClientOptions withRequestIdGenerator(RequestIdGenerator requestIdGenerator) {
+        return new ClientOptions(requestIdGenerator, stacklessExceptions, metaSampler, metaListener,
+                localEvaluator, checkCache, degradedMode, scopedMemo, singleFlight);
+    }
+
+    ClientOptions withStacklessExceptions(boolean stacklessExceptions) {
+        return new ClientOptions(requestIdGenerator, stacklessExceptions, metaSampler, metaListener,
+                localEvaluator, checkCache, degradedMode, scopedMemo, singleFlight);
+    }
+
+    ClientOptions withMetaSampling(MetaSampler metaSampler, MetaListener metaListener) {
+        return new ClientOptions(requestIdGenerator, stacklessExceptions, metaSampler, metaListener,
+                localEvaluator, checkCache, degradedMode, scopedMemo, singleFlight);
+    }
+
+    ClientOptions withLocalEvaluator(LocalPolicyEvaluator localEvaluator) {
+        return new ClientOptions(requestIdGenerator, stacklessExceptions, metaSampler, metaListener,
+                localEvaluator, checkCache, degradedMode, scopedMemo, singleFlight);
+    }
+
+    ClientOptions withCheckCache(CheckCache checkCache) {
+        return new ClientOptions(requestIdGenerator, stacklessExceptions, metaSampler, metaListener,
+                localEvaluator, checkCache, degradedMode, scopedMemo, singleFlight);
+    }
+
+    ClientOptions withDegradedMode(DegradedMode degradedMode) {
+        return new ClientOptions(requestIdGenerator, stacklessExceptions, metaSampler, metaListener,
+                localEvaluator, checkCache, degradedMode, scopedMemo, singleFlight);
+    }
+
+    ClientOptions withScopedMemo(ScopedMemo scopedMemo) {
+        return new ClientOptions(requestIdGenerator, stacklessExceptions, metaSampler, metaListener,
+                localEvaluator, checkCache, degradedMode, scopedMemo, singleFlight);
+    }
+
+    ClientOptions withSingleFlight(SingleFlight singleFlight) {
+        return new ClientOptions(requestIdGenerator, stacklessExceptions, metaSampler, metaListener,
+                localEvaluator, checkCache, degradedMode, scopedMemo, singleFlight);
+    }
+
+    CerbosException exception(Status status, Throwable cause) {
+        return new CerbosException(status, cause, stacklessExceptions);
+    }
+
+    boolean sampleMeta(String principalId) {
+        return metaListener != null && metaSampler.sample(principalId);
+    }
+
+    void publishMeta(String principalId, CheckResult result) {
+        try {
+            metaListener.onMeta(principalId, result);
+        } catch (RuntimeException e) {
+            // A misbehaving listener must not fail the check
+            LOGGER.log(Level.WARNING, "Meta listener failed for principal " + principalId, e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+import dev.cerbos.sdk.cache.DecisionKey;
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tracks the connectivity of the channel to the PDP so that checks can be answered without waiting for the deadline
+ * while the PDP is unreachable, and refreshes the decisions served during the outage once it is reachable again:
+ * when the channel is ready after failing to connect, or when a check reaches the PDP after others failed while the
+ * channel stayed ready.
+ */
+final class DegradedMode {
+    private static final int MAX_PENDING_REFRESHES = 1000;
+
+    private final long maxStalenessMillis;
+    private final boolean defaultAllowed;
+    private final Map<DecisionKey, Runnable> pendingRefreshes = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "cerbos-degraded-mode-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile boolean unavailable;
+
+    DegradedMode(Duration maxStaleness, boolean defaultAllowed) {
+        this.maxStalenessMillis = maxStaleness.toMillis();
+        this.defaultAllowed = defaultAllowed;
+    }
+
+    /**
+     * Start following the state of the channel.
+     */
+    DegradedMode watch(ManagedChannel channel) {
+        // Ask an idle channel to reconnect while unavailable because no RPCs are sent to trigger it
+        ConnectivityState state = channel.getState(unavailable);
+        switch (state) {
+            case READY:
+                if (unavailable) {
+                    unavailable = false;
+                    refresh();
+                }
+                break;
+            case TRANSIENT_FAILURE:
+                unavailable = true;
+                break;
+            case SHUTDOWN:
+                unavailable = true;
+                refreshExecutor.shutdownNow();
+                return this;
+            default:
+                break;
+        }
+        channel.notifyWhenStateChanged(state, () -> watch(channel));
+        return this;
+    }
+
+    /**
+     * Returns true if the channel failed to connect and hasn't been ready since.
+     */
+    boolean isUnavailable() {
+        return unavailable;
+    }
+
+    /**
+     * Returns true if the status indicates that the PDP could not be reached in time.
+     */
+    boolean isOutage(Status status) {
+        return status.getCode() == Status.Code.UNAVAILABLE || status.getCode() == Status.Code.DEADLINE_EXCEEDED;
+    }
+
+    long maxStalenessMillis() {
+        return maxStalenessMillis;
+    }
+
+    boolean defaultAllowed() {
+        return defaultAllowed;
+    }
+
+    /**
+     * Remember to repeat a check answered in degraded mode once the PDP is reachable again.
+     */
+    void scheduleRefresh(DecisionKey key, Runnable refresh) {
+        if (pendingRefreshes.size() < MAX_PENDING_REFRESHES) {
+            pendingRefreshes.putIfAbsent(key, refresh);
+        }
+    }
+
+    /**
+     * Repeat the checks answered in degraded mode now that a check reached the PDP. Covers checks that failed with an
+     * outage status while the channel stayed ready, which {@link #watch(ManagedChannel)} doesn't see.
+     */
+    void reachable() {
+        if (!unavailable && !pendingRefreshes.isEmpty()) {
+            refresh();
+        }
+    }
+
+    private void refresh() {
+        Iterator<Runnable> it = pendingRefreshes.values().iterator();
+        while (it.hasNext()) {
+            Runnable refresh = it.next();
+            it.remove();
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh.run();
+                } catch (RuntimeException ignored) {
+                    // The decision is refreshed by the next check instead
+                }
+            });
+        }
+    }
+}
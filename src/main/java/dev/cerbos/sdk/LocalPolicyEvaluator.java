@@ -0,0 +1,338 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.util.JsonFormat;
+import dev.cerbos.api.v1.effect.EffectOuterClass.Effect;
+import dev.cerbos.api.v1.engine.Engine;
+import dev.cerbos.api.v1.policy.PolicyOuterClass;
+import dev.cerbos.api.v1.policy.PolicyOuterClass.ResourcePolicy;
+import dev.cerbos.api.v1.policy.PolicyOuterClass.ResourceRule;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Decides checks locally when the outcome provably depends only on the principal roles and the action.
+ * <p>
+ * A decision is made locally only if the request has no scope, the principal has no principal policy and none of its
+ * roles are defined or extended by a role policy, and the resource policy has no schemas. Within the resource policy,
+ * every rule that may match the action and principal must be free of conditions, derived roles, outputs and wildcard
+ * patterns other than {@code *}. Everything else is left to the PDP.
+ * <p>
+ * The evaluator only knows about the policies it was given, so it must be loaded with the same policies as the PDP and
+ * rebuilt when they change. Decisions made locally are not recorded in the PDP audit log.
+ */
+public final class LocalPolicyEvaluator {
+    private static final String DEFAULT_VERSION = "default";
+
+    private final Map<String, ResourcePolicy> resourcePolicies;
+    private final Set<String> principalsWithPolicies;
+    private final Set<String> rolesWithPolicies;
+    private final String defaultPolicyVersion;
+
+    private LocalPolicyEvaluator(Builder builder) {
+        this.resourcePolicies = Map.copyOf(builder.resourcePolicies);
+        this.principalsWithPolicies = Set.copyOf(builder.principalsWithPolicies);
+        this.rolesWithPolicies = Set.copyOf(builder.rolesWithPolicies);
+        this.defaultPolicyVersion = builder.defaultPolicyVersion;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Decide as many of the actions as possible locally.
+     *
+     * @param principal Principal performing the actions
+     * @param resource  Resource being accessed
+     * @param actions   Actions being performed
+     * @return Effects of the actions that could be decided locally. Actions missing from the map must be checked by
+     * the PDP.
+     */
+    public Map<String, Effect> evaluate(Engine.Principal principal, Engine.Resource resource, Collection<String> actions) {
+        if (!principal.getScope().isEmpty() || !resource.getScope().isEmpty()
+                || principalsWithPolicies.contains(principal.getId())) {
+            return Map.of();
+        }
+        for (String role : principal.getRolesList()) {
+            if (rolesWithPolicies.contains(role)) {
+                return Map.of();
+            }
+        }
+
+        String version = resource.getPolicyVersion().isEmpty() ? defaultPolicyVersion : resource.getPolicyVersion();
+        ResourcePolicy policy = resourcePolicies.get(key(resource.getKind(), version));
+        if (policy == null) {
+            return Map.of();
+        }
+
+        Set<String> roles = new HashSet<>(principal.getRolesList());
+        Map<String, Effect> effects = new LinkedHashMap<>();
+        for (String action : actions) {
+            decide(policy, roles, action).ifPresent(effect -> effects.put(action, effect));
+        }
+        return effects;
+    }
+
+    private static Optional<Effect> decide(ResourcePolicy policy, Set<String> roles, String action) {
+        boolean allowed = false;
+        boolean maybeAllowed = false;
+        boolean maybeDenied = false;
+        for (ResourceRule rule : policy.getRulesList()) {
+            Match actionMatch = matchAction(rule, action);
+            if (actionMatch == Match.NO) {
+                continue;
+            }
+            Match roleMatch = matchRoles(rule, roles);
+            if (roleMatch == Match.NO) {
+                continue;
+            }
+
+            boolean certain = actionMatch == Match.YES && roleMatch == Match.YES && !rule.hasCondition()
+                    && !rule.hasOutput();
+            if (rule.getEffect() == Effect.EFFECT_DENY) {
+                if (certain) {
+                    return Optional.of(Effect.EFFECT_DENY);
+                }
+                maybeDenied = true;
+            } else if (rule.getEffect() == Effect.EFFECT_ALLOW) {
+                allowed |= certain;
+                maybeAllowed |= !certain;
+            } else {
+                return Optional.empty();
+            }
+        }
+
+        if (maybeDenied) {
+            return Optional.empty();
+        }
+        if (allowed) {
+            return Optional.of(Effect.EFFECT_ALLOW);
+        }
+        return maybeAllowed ? Optional.empty() : Optional.of(Effect.EFFECT_DENY);
+    }
+
+    private static Match matchAction(ResourceRule rule, String action) {
+        Match match = Match.NO;
+        for (String pattern : rule.getActionsList()) {
+            if (pattern.equals("*") || pattern.equals(action)) {
+                return Match.YES;
+            }
+            if (isGlob(pattern)) {
+                match = Match.MAYBE;
+            }
+        }
+        return match;
+    }
+
+    private static Match matchRoles(ResourceRule rule, Set<String> roles) {
+        Match match = rule.getDerivedRolesCount() > 0 ? Match.MAYBE : Match.NO;
+        for (String role : rule.getRolesList()) {
+            if (role.equals("*") || roles.contains(role)) {
+                return Match.YES;
+            }
+            if (isGlob(role)) {
+                match = Match.MAYBE;
+            }
+        }
+        return match;
+    }
+
+    private static boolean isGlob(String pattern) {
+        return pattern.chars().anyMatch(c -> c == '*' || c == '?' || c == '[' || c == '{');
+    }
+
+    private static String key(String kind, String version) {
+        return kind + "\u0000" + version;
+    }
+
+    private enum Match {
+        YES,
+        NO,
+        MAYBE
+    }
+
+    public static final class Builder {
+        private final Map<String, ResourcePolicy> resourcePolicies = new HashMap<>();
+        private final Set<String> principalsWithPolicies = new HashSet<>();
+        private final Set<String> rolesWithPolicies = new HashSet<>();
+        private final Set<String> excludedResourcePolicies = new HashSet<>();
+        private String defaultPolicyVersion = DEFAULT_VERSION;
+
+        private Builder() {
+        }
+
+        /**
+         * Add policies. Disabled policies are ignored.
+         *
+         * @param policies Policies
+         * @return {@link Builder}
+         */
+        public Builder withPolicies(Iterable<PolicyOuterClass.Policy> policies) {
+            for (PolicyOuterClass.Policy policy : policies) {
+                if (policy.getDisabled()) {
+                    continue;
+                }
+                switch (policy.getPolicyTypeCase()) {
+                    case RESOURCE_POLICY: {
+                        ResourcePolicy rp = policy.getResourcePolicy();
+                        // Scoped policies are never consulted because requests with a scope are left to the PDP
+                        if (rp.getScope().isEmpty() && !rp.hasSchemas()) {
+                            String key = key(rp.getResource(), rp.getVersion());
+                            if (!excludedResourcePolicies.contains(key)) {
+                                resourcePolicies.put(key, rp);
+                            }
+                        } else if (rp.getScope().isEmpty()) {
+                            exclude(rp);
+                        }
+                        break;
+                    }
+                    case PRINCIPAL_POLICY:
+                        principalsWithPolicies.add(policy.getPrincipalPolicy().getPrincipal());
+                        break;
+                    case ROLE_POLICY:
+                        rolesWithPolicies.add(policy.getRolePolicy().getRole());
+                        rolesWithPolicies.addAll(policy.getRolePolicy().getParentRolesList());
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Add all active policies of the PDP.
+         *
+         * @param adminClient Admin client of the PDP
+         * @return {@link Builder}
+         * @throws CerbosException if an RPC error occurs
+         */
+        public Builder withPoliciesFrom(CerbosBlockingAdminClient adminClient) {
+            List<String> ids = adminClient.listActivePolicies(Optional.empty(), Optional.empty(), Optional.empty());
+            if (ids.isEmpty()) {
+                return this;
+            }
+            return withPolicies(adminClient.getPolicies(ids));
+        }
+
+        private void exclude(ResourcePolicy rp) {
+            String key = key(rp.getResource(), rp.getVersion());
+            excludedResourcePolicies.add(key);
+            resourcePolicies.remove(key);
+        }
+
+        /**
+         * Add the policies stored as JSON files in the given directory and its subdirectories. Files and directories
+         * whose names start with {@code _} or {@code .} are skipped, as are JSON files that don't contain a policy,
+         * such as policy tests.
+         * <p>
+         * Resource policies with fields unknown to this version of the SDK are left to the PDP, because the evaluator
+         * can't tell whether those fields affect the outcome. YAML policies are not supported and cause an exception
+         * rather than being skipped, because deciding locally without knowing all principal and role policies could
+         * contradict the PDP.
+         *
+         * @param directory Policy directory
+         * @return {@link Builder}
+         * @throws IOException if a file can't be read or parsed, the directory contains YAML policies or it doesn't
+         *                     contain any policies
+         */
+        public Builder withPolicyDirectory(Path directory) throws IOException {
+            List<Path> files;
+            try (Stream<Path> paths = Files.walk(directory)) {
+                files = paths.filter(Files::isRegularFile)
+                        .filter(path -> !isHidden(directory.relativize(path)))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+
+            List<PolicyOuterClass.Policy> policies = new ArrayList<>(files.size());
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".yaml") || name.endsWith(".yml")) {
+                    throw new IOException("YAML policies are not supported, convert " + file + " to JSON");
+                }
+                if (name.endsWith(".json")) {
+                    PolicyOuterClass.Policy policy = parse(file);
+                    if (policy.getPolicyTypeCase() != PolicyOuterClass.Policy.PolicyTypeCase.POLICYTYPE_NOT_SET) {
+                        policies.add(policy);
+                    }
+                }
+            }
+            if (policies.isEmpty()) {
+                throw new IOException("No policies found in " + directory);
+            }
+            return withPolicies(policies);
+        }
+
+        private static boolean isHidden(Path relative) {
+            for (Path name : relative) {
+                if (name.toString().startsWith("_") || name.toString().startsWith(".")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Parse a policy file strictly. A resource policy with unknown fields is excluded from local evaluation.
+         * Other policies with unknown fields are still used, because only their principal and roles are considered.
+         */
+        private PolicyOuterClass.Policy parse(Path file) throws IOException {
+            String json = Files.readString(file, StandardCharsets.UTF_8);
+            PolicyOuterClass.Policy.Builder policy = PolicyOuterClass.Policy.newBuilder();
+            try {
+                JsonFormat.parser().merge(json, policy);
+                return policy.build();
+            } catch (InvalidProtocolBufferException strict) {
+                policy.clear();
+                try {
+                    JsonFormat.parser().ignoringUnknownFields().merge(json, policy);
+                } catch (InvalidProtocolBufferException e) {
+                    throw new IOException("Failed to parse policy " + file, e);
+                }
+            }
+
+            ResourcePolicy rp = policy.getResourcePolicy();
+            if (policy.hasResourcePolicy() && !policy.getDisabled() && rp.getScope().isEmpty()) {
+                exclude(rp);
+            }
+            return policy.build();
+        }
+
+        /**
+         * Set the policy version used for resources without one. Must match the PDP configuration. Defaults to
+         * {@code default}.
+         *
+         * @param defaultPolicyVersion Default policy version
+         * @return {@link Builder}
+         */
+        public Builder withDefaultPolicyVersion(String defaultPolicyVersion) {
+            this.defaultPolicyVersion = defaultPolicyVersion;
+            return this;
+        }
+
+        public LocalPolicyEvaluator build() {
+            return new LocalPolicyEvaluator(this);
+        }
+    }
+}
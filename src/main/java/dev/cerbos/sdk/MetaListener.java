@@ -0,0 +1,21 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+/**
+ * Receives the results of check requests that were selected by a {@link MetaSampler}.
+ */
+@FunctionalInterface
+public interface MetaListener {
+    /**
+     * Called once for each resource in a sampled request, on the thread that made the request.
+     * Exceptions thrown by the listener are logged and do not fail the request.
+     *
+     * @param principalId ID of the principal of the request
+     * @param result      Result including {@link CheckResult#getMeta()}
+     */
+    void onMeta(String principalId, CheckResult result);
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which check requests should ask the PDP to include evaluation metadata (effective derived roles and matched
+ * policies) in the response. Sampled metadata is delivered to a {@link MetaListener}.
+ * Including metadata increases the size of the response, so sampling a small fraction of requests provides
+ * explanations for debugging without paying that cost on every call.
+ */
+@FunctionalInterface
+public interface MetaSampler {
+    /**
+     * Decide whether to include metadata for a request. Called concurrently from any thread making requests.
+     *
+     * @param principalId ID of the principal of the request
+     * @return True to include metadata
+     */
+    boolean sample(String principalId);
+
+    /**
+     * Never include metadata.
+     *
+     * @return {@link MetaSampler}
+     */
+    static MetaSampler never() {
+        return principalId -> false;
+    }
+
+    /**
+     * Include metadata in every request.
+     *
+     * @return {@link MetaSampler}
+     */
+    static MetaSampler always() {
+        return principalId -> true;
+    }
+
+    /**
+     * Include metadata in one out of every {@code n} requests on average, chosen at random.
+     *
+     * @param n Sampling interval
+     * @return {@link MetaSampler}
+     */
+    static MetaSampler oneIn(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be greater than zero");
+        }
+        return principalId -> ThreadLocalRandom.current().nextInt(n) == 0;
+    }
+
+    /**
+     * Include metadata in all requests of one out of every {@code n} principals, chosen by the hash of the principal
+     * ID. The same principals are sampled across requests and client instances.
+     *
+     * @param n Sampling interval
+     * @return {@link MetaSampler}
+     */
+    static MetaSampler principalsOneIn(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be greater than zero");
+        }
+        return principalId -> Math.floorMod(principalId.hashCode() * 0x9E3779B9, n) == 0;
+    }
+
+    /**
+     * Include metadata in all requests of the given principals.
+     *
+     * @param principalIds IDs of the principals to sample
+     * @return {@link MetaSampler}
+     */
+    static MetaSampler principals(Set<String> principalIds) {
+        Set<String> ids = Set.copyOf(principalIds);
+        return ids::contains;
+    }
+}
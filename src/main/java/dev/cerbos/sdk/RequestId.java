@@ -6,10 +6,47 @@
 package dev.cerbos.sdk;
 
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 public final class RequestId {
+    private static final RequestIdGenerator RANDOM_UUID = RequestId::generate;
+    private static final RequestIdGenerator TIME_ORDERED_UUID = RequestId::generateTimeOrdered;
+
     public static String generate() {
         UUID id = UUID.randomUUID();
         return id.toString();
     }
+
+    /**
+     * Generate a time-ordered UUID (version 7) using {@link ThreadLocalRandom} for the random bits.
+     * Unlike {@link #generate()}, this does not go through the shared {@link java.security.SecureRandom} instance and
+     * does not contend across threads or block waiting for entropy.
+     *
+     * @return UUIDv7 string
+     */
+    public static String generateTimeOrdered() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (System.currentTimeMillis() << 16) | 0x7000L | (random.nextLong() & 0x0FFFL);
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb).toString();
+    }
+
+    /**
+     * Generator producing random (version 4) UUIDs. This is the default.
+     *
+     * @return {@link RequestIdGenerator}
+     */
+    public static RequestIdGenerator randomUUID() {
+        return RANDOM_UUID;
+    }
+
+    /**
+     * Generator producing time-ordered (version 7) UUIDs without thread contention.
+     *
+     * @return {@link RequestIdGenerator}
+     * @see #generateTimeOrdered()
+     */
+    public static RequestIdGenerator timeOrderedUUID() {
+        return TIME_ORDERED_UUID;
+    }
 }
@@ -0,0 +1,20 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+/**
+ * Strategy for generating the request IDs attached to Cerbos requests when the caller does not provide one.
+ * See {@link RequestId} for the built-in implementations.
+ */
+@FunctionalInterface
+public interface RequestIdGenerator {
+    /**
+     * Generate a new request ID. Called concurrently from any thread making requests.
+     *
+     * @return Request ID
+     */
+    String generate();
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+/**
+ * Tracks the {@link CheckScope} open on each thread for a client and the clients derived from it.
+ */
+final class ScopedMemo {
+    private final ThreadLocal<CheckScope> current = new ThreadLocal<>();
+
+    CheckScope open() {
+        CheckScope scope = new CheckScope(this, current.get());
+        current.set(scope);
+        return scope;
+    }
+
+    /**
+     * Returns the innermost scope open on the calling thread or null.
+     */
+    CheckScope current() {
+        return current.get();
+    }
+
+    void close(CheckScope scope) {
+        if (current.get() != scope) {
+            throw new IllegalStateException("Scopes must be closed on the thread that opened them, innermost first");
+        }
+        if (scope.outer() == null) {
+            current.remove();
+        } else {
+            current.set(scope.outer());
+        }
+    }
+}
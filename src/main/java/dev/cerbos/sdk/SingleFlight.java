@@ -0,0 +1,89 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+import dev.cerbos.api.v1.response.Response;
+import dev.cerbos.sdk.cache.DecisionKey;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent identical checks share a single in-flight RPC.
+ * <p>
+ * The first caller for a key sends the request and the callers that arrive while it is in flight wait for its
+ * response or failure instead of sending their own.
+ */
+final class SingleFlight {
+    private final Map<Key, CompletableFuture<Response.CheckResourcesResponse>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Identifies checks that are answered by the same response: the principal, resource and auxiliary data, the set
+     * of actions and the cache generation of the resource kind, so that checks started after an invalidation don't
+     * share a response fetched before it.
+     */
+    record Key(DecisionKey input, Set<String> actions, long generation) {
+        static Key of(DecisionKey input, Set<String> actions, long generation) {
+            return new Key(input, Set.copyOf(actions), generation);
+        }
+    }
+
+    /**
+     * Run the call unless an identical one is in flight, in which case its response is returned with the given
+     * request ID.
+     */
+    Response.CheckResourcesResponse execute(Key key, String requestId,
+            Supplier<Response.CheckResourcesResponse> call) {
+        CompletableFuture<Response.CheckResourcesResponse> flight = new CompletableFuture<>();
+        CompletableFuture<Response.CheckResourcesResponse> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            return await(leader).toBuilder().setRequestId(requestId).build();
+        }
+
+        try {
+            Response.CheckResourcesResponse response = call.get();
+            flight.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private static Response.CheckResourcesResponse await(CompletableFuture<Response.CheckResourcesResponse> leader) {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Status.CANCELLED.withDescription("Interrupted while waiting for an identical check")
+                    .withCause(e)
+                    .asRuntimeException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof StatusRuntimeException) {
+                // Give each waiter its own exception rather than sharing the leader's instance
+                StatusRuntimeException sre = (StatusRuntimeException) cause;
+                throw sre.getStatus().asRuntimeException(sre.getTrailers());
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw Status.INTERNAL.withCause(cause).asRuntimeException();
+        }
+    }
+}
@@ -16,6 +16,10 @@ public class Resource {
         this.resource = Engine.Resource.newBuilder().setKind(kind).setId(id);
     }
 
+    Resource(Engine.Resource.Builder resource) {
+        this.resource = resource;
+    }
+
     public static Resource newInstance(String kind) {
         return new Resource(kind, "_NEW_");
     }
@@ -21,6 +21,10 @@ public class ResourceAction {
         this.resource = Engine.Resource.newBuilder().setKind(kind).setId(id);
     }
 
+    ResourceAction(Engine.Resource.Builder resource) {
+        this.resource = resource;
+    }
+
     public static ResourceAction newInstance(String kind) {
         return new ResourceAction(kind, "_NEW_");
     }
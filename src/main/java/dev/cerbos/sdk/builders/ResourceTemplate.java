@@ -0,0 +1,119 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.builders;
+
+import dev.cerbos.api.v1.engine.Engine;
+import dev.cerbos.api.v1.request.Request;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * ResourceTemplate holds the parts of a resource that are shared by many resources in a batch (kind, policy version,
+ * scope and common attributes) and stamps out individual resources that only differ by ID and a few attributes.
+ * The shared part is built once and copied for each resource instead of being rebuilt from scratch.
+ * Configure the template before sharing it between threads; stamping out resources is thread-safe.
+ */
+public final class ResourceTemplate {
+    private final Engine.Resource.Builder resource;
+    private volatile Engine.Resource prototype;
+
+    private ResourceTemplate(String kind) {
+        this.resource = Engine.Resource.newBuilder().setKind(kind);
+    }
+
+    public static ResourceTemplate newInstance(String kind) {
+        return new ResourceTemplate(kind);
+    }
+
+    public ResourceTemplate withPolicyVersion(String version) {
+        this.resource.setPolicyVersion(version);
+        this.prototype = null;
+        return this;
+    }
+
+    public ResourceTemplate withScope(String scope) {
+        this.resource.setScope(scope);
+        this.prototype = null;
+        return this;
+    }
+
+    public ResourceTemplate withAttribute(String key, AttributeValue value) {
+        this.resource.putAttr(key, value.toValue());
+        this.prototype = null;
+        return this;
+    }
+
+    public ResourceTemplate withAttributes(Map<String, AttributeValue> attributes) {
+        attributes.forEach(this::withAttribute);
+        return this;
+    }
+
+    private Engine.Resource prototype() {
+        Engine.Resource p = this.prototype;
+        if (p == null) {
+            p = this.resource.build();
+            this.prototype = p;
+        }
+        return p;
+    }
+
+    /**
+     * Create a new resource with the given ID from this template.
+     * Attributes added to the returned resource are merged with the template attributes.
+     *
+     * @param id Resource ID
+     * @return {@link Resource}
+     */
+    public Resource newResource(String id) {
+        return new Resource(prototype().toBuilder().setId(id));
+    }
+
+    /**
+     * Create a new resource with the given ID from this template for use in a batch request.
+     * Attributes added to the returned resource are merged with the template attributes.
+     *
+     * @param id Resource ID
+     * @return {@link ResourceAction}
+     */
+    public ResourceAction newResourceAction(String id) {
+        return new ResourceAction(prototype().toBuilder().setId(id));
+    }
+
+    /**
+     * Build a resource entry with the given ID and actions directly from this template.
+     *
+     * @param id      Resource ID
+     * @param actions Actions to check
+     * @return Resource entry for a CheckResources request
+     */
+    public Request.CheckResourcesRequest.ResourceEntry toResourceEntry(String id, String... actions) {
+        return Request.CheckResourcesRequest.ResourceEntry.newBuilder()
+                .setResource(prototype().toBuilder().setId(id))
+                .addAllActions(Arrays.asList(actions))
+                .build();
+    }
+
+    /**
+     * Build a resource entry with the given ID and actions directly from this template.
+     * The given attributes are merged with the template attributes, overriding any template attributes with the same
+     * key.
+     *
+     * @param id         Resource ID
+     * @param attributes Attributes specific to this resource
+     * @param actions    Actions to check
+     * @return Resource entry for a CheckResources request
+     */
+    public Request.CheckResourcesRequest.ResourceEntry toResourceEntry(String id, Map<String, AttributeValue> attributes,
+            String... actions) {
+        Engine.Resource.Builder builder = prototype().toBuilder().setId(id);
+        attributes.forEach((key, value) -> builder.putAttr(key, value.toValue()));
+        return Request.CheckResourcesRequest.ResourceEntry.newBuilder()
+                .setResource(builder)
+                .addAllActions(Arrays.asList(actions))
+                .build();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.cache;
+
+import com.google.protobuf.Value;
+import dev.cerbos.api.v1.engine.Engine;
+import dev.cerbos.api.v1.policy.PolicyOuterClass;
+import dev.cerbos.api.v1.request.Request;
+import dev.cerbos.api.v1.response.Response.InspectPoliciesResponse;
+import dev.cerbos.sdk.CerbosBlockingAdminClient;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Derives keys only from the attributes that the policies reference, so that checks differing only in attributes
+ * that can't affect the decision, such as timestamps or display names, share a cache entry.
+ * <p>
+ * The referenced attributes are found with the Admin API. Attributes referenced by resource policies only count for
+ * their resource kind, while attributes referenced by any other policy, such as derived roles or principal policies,
+ * count for every kind. All attributes are kept for resource kinds without a resource policy, for kinds whose
+ * policies use variables that could not be resolved and for kinds with a resource policy that declares schemas,
+ * because schema validation looks at every attribute.
+ * <p>
+ * The principal ID, roles, policy version and scope, the resource ID, kind, policy version and scope and the
+ * auxiliary data are always part of the key. Call {@link #refresh()} when policies change, for example by passing
+ * the strategy to {@link PolicyChangeWatcher.Builder#withKeyStrategy(AttributeAwareKeyStrategy)}.
+ */
+public final class AttributeAwareKeyStrategy implements DecisionKeyStrategy {
+    private final CerbosBlockingAdminClient adminClient;
+    private volatile Map<String, Attributes> attributesByKind = Map.of();
+
+    private AttributeAwareKeyStrategy(CerbosBlockingAdminClient adminClient) {
+        this.adminClient = adminClient;
+    }
+
+    /**
+     * Create a strategy from the policies of the PDP.
+     *
+     * @param adminClient Admin client of the PDP
+     * @return {@link AttributeAwareKeyStrategy}
+     * @throws dev.cerbos.sdk.CerbosException if an RPC error occurs
+     */
+    public static AttributeAwareKeyStrategy fromPolicies(CerbosBlockingAdminClient adminClient) {
+        AttributeAwareKeyStrategy strategy = new AttributeAwareKeyStrategy(adminClient);
+        strategy.refresh();
+        return strategy;
+    }
+
+    @Override
+    public DecisionKey keyOf(Engine.Principal principal, Engine.Resource resource, Request.AuxData auxData) {
+        Attributes attributes = attributesByKind.get(resource.getKind());
+        if (attributes == null || attributes.all) {
+            return DecisionKey.of(principal, resource, auxData);
+        }
+        return DecisionKey.of(
+                principal.toBuilder().clearAttr().putAllAttr(retain(principal.getAttrMap(), attributes.principal)).build(),
+                resource.toBuilder().clearAttr().putAllAttr(retain(resource.getAttrMap(), attributes.resource)).build(),
+                auxData);
+    }
+
+    /**
+     * Inspect the policies again.
+     *
+     * @throws dev.cerbos.sdk.CerbosException if an RPC error occurs
+     */
+    public void refresh() {
+        Map<String, InspectPoliciesResponse.Result> results =
+                adminClient.inspectPolicies(Optional.empty(), Optional.empty(), Optional.empty());
+
+        Map<String, String> kindsByPolicyId = new HashMap<>();
+        Set<String> kindsWithSchemas = new HashSet<>();
+        for (PolicyOuterClass.Policy policy : adminClient.getPolicies(new ArrayList<>(results.keySet()))) {
+            if (policy.hasResourcePolicy()) {
+                String kind = policy.getResourcePolicy().getResource();
+                kindsByPolicyId.put(policy.getMetadata().getStoreIdentifier(), kind);
+                if (policy.getResourcePolicy().hasSchemas()) {
+                    kindsWithSchemas.add(kind);
+                }
+            }
+        }
+
+        // Attributes of policies that are not known to be resource policies apply to every kind
+        Attributes global = new Attributes();
+        Map<String, Attributes> byKind = new HashMap<>();
+        results.forEach((id, result) -> {
+            String kind = kindsByPolicyId.get(id);
+            if (kind == null) {
+                global.add(result);
+            } else {
+                byKind.computeIfAbsent(kind, k -> new Attributes()).add(result);
+            }
+        });
+        byKind.values().forEach(attributes -> attributes.addAll(global));
+        for (String kind : kindsWithSchemas) {
+            byKind.computeIfAbsent(kind, k -> new Attributes()).all = true;
+        }
+        this.attributesByKind = Map.copyOf(byKind);
+    }
+
+    private static Map<String, Value> retain(Map<String, Value> attr, Set<String> names) {
+        Map<String, Value> retained = new HashMap<>();
+        for (String name : names) {
+            Value value = attr.get(name);
+            if (value != null) {
+                retained.put(name, value);
+            }
+        }
+        return retained;
+    }
+
+    private static final class Attributes {
+        private final Set<String> principal = new HashSet<>();
+        private final Set<String> resource = new HashSet<>();
+        private boolean all;
+
+        void add(InspectPoliciesResponse.Result result) {
+            for (InspectPoliciesResponse.Attribute attribute : result.getAttributesList()) {
+                switch (attribute.getKind()) {
+                    case KIND_PRINCIPAL_ATTRIBUTE:
+                        principal.add(attribute.getName());
+                        break;
+                    case KIND_RESOURCE_ATTRIBUTE:
+                        resource.add(attribute.getName());
+                        break;
+                    default:
+                        all = true;
+                }
+            }
+            for (InspectPoliciesResponse.Variable variable : result.getVariablesList()) {
+                if (variable.getKind() == InspectPoliciesResponse.Variable.Kind.KIND_UNKNOWN
+                        || variable.getKind() == InspectPoliciesResponse.Variable.Kind.KIND_UNDEFINED) {
+                    all = true;
+                }
+            }
+        }
+
+        void addAll(Attributes other) {
+            principal.addAll(other.principal);
+            resource.addAll(other.resource);
+            all |= other.all;
+        }
+    }
+}
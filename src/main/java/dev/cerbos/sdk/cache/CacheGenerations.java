@@ -0,0 +1,112 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.cache;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Counts the invalidations of each {@link DecisionCache} per resource kind, so that a decision fetched from the PDP
+ * before an invalidation is not stored after it.
+ * <p>
+ * The client reads the generation of the resource kind before sending a check and only stores the decision if the
+ * generation is unchanged. {@link PolicyChangeWatcher} invalidates through this class, which makes the check and the
+ * invalidation mutually exclusive.
+ */
+public final class CacheGenerations {
+    private static final LoadingCache<DecisionCache, CacheGenerations> BY_CACHE = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(CacheLoader.from(CacheGenerations::new));
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Long> byKind = new ConcurrentHashMap<>();
+    private volatile long all;
+
+    private CacheGenerations() {
+    }
+
+    /**
+     * Returns the current generation of the resource kind in the given cache.
+     *
+     * @param cache        {@link DecisionCache}
+     * @param resourceKind Resource kind
+     * @return Generation, which changes whenever decisions about the kind are invalidated
+     */
+    public static long current(DecisionCache cache, String resourceKind) {
+        return BY_CACHE.getUnchecked(cache).current(resourceKind);
+    }
+
+    /**
+     * Store a decision unless decisions about its resource kind were invalidated since the given generation.
+     *
+     * @param cache      {@link DecisionCache}
+     * @param key        {@link DecisionKey}
+     * @param decision   {@link CachedDecision}
+     * @param generation Generation read before the decision was fetched
+     * @return Whether the decision was stored
+     */
+    public static boolean putIfCurrent(DecisionCache cache, DecisionKey key, CachedDecision decision, long generation) {
+        CacheGenerations generations = BY_CACHE.getUnchecked(cache);
+        Lock read = generations.lock.readLock();
+        read.lock();
+        try {
+            if (generations.current(key.getResourceKind()) != generation) {
+                return false;
+            }
+            cache.put(key, decision);
+            return true;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /**
+     * Remove all decisions about the given resource kind and start a new generation of the kind.
+     *
+     * @param cache        {@link DecisionCache}
+     * @param resourceKind Resource kind
+     */
+    public static void invalidate(DecisionCache cache, String resourceKind) {
+        CacheGenerations generations = BY_CACHE.getUnchecked(cache);
+        Lock write = generations.lock.writeLock();
+        write.lock();
+        try {
+            generations.byKind.merge(resourceKind, 1L, Long::sum);
+            cache.invalidate(resourceKind);
+        } finally {
+            write.unlock();
+        }
+    }
+
+    /**
+     * Remove all decisions and start a new generation of every kind.
+     *
+     * @param cache {@link DecisionCache}
+     */
+    public static void invalidateAll(DecisionCache cache) {
+        CacheGenerations generations = BY_CACHE.getUnchecked(cache);
+        Lock write = generations.lock.writeLock();
+        write.lock();
+        try {
+            generations.all++;
+            cache.invalidateAll();
+        } finally {
+            write.unlock();
+        }
+    }
+
+    private long current(String resourceKind) {
+        // Both counters only grow, so the sum changes whenever either of them does
+        return all + byKind.getOrDefault(resourceKind, 0L);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.cache;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Effects of the actions checked for a {@link DecisionKey} and the time they were obtained from the PDP.
+ */
+public final class CachedDecision {
+    private final Map<String, Boolean> actions;
+    private final long createdAtMillis;
+
+    /**
+     * @param actions         Whether each action is allowed
+     * @param createdAtMillis Time the decision was made in milliseconds since the epoch
+     */
+    public CachedDecision(Map<String, Boolean> actions, long createdAtMillis) {
+        this.actions = Map.copyOf(actions);
+        this.createdAtMillis = createdAtMillis;
+    }
+
+    /**
+     * Returns whether each action is allowed.
+     *
+     * @return Unmodifiable map of action to decision
+     */
+    public Map<String, Boolean> getActions() {
+        return actions;
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    /**
+     * Returns the age of the decision.
+     *
+     * @param nowMillis Current time in milliseconds since the epoch
+     * @return Age in milliseconds
+     */
+    public long ageMillis(long nowMillis) {
+        return nowMillis - createdAtMillis;
+    }
+
+    /**
+     * Returns true if the decision includes all the given actions.
+     *
+     * @param actions Actions
+     * @return True if all actions are included
+     */
+    public boolean covers(Collection<String> actions) {
+        return this.actions.keySet().containsAll(actions);
+    }
+
+    /**
+     * Combine with newer results for some actions. The combined decision keeps the older timestamp so that it
+     * doesn't outlive the oldest of its parts.
+     *
+     * @param actions   Newer results
+     * @param nowMillis Time the newer results were obtained
+     * @return {@link CachedDecision}
+     */
+    public CachedDecision merge(Map<String, Boolean> actions, long nowMillis) {
+        Map<String, Boolean> merged = new LinkedHashMap<>(this.actions);
+        merged.putAll(actions);
+        return new CachedDecision(merged, Math.min(createdAtMillis, nowMillis));
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.cache;
+
+import java.util.Optional;
+
+/**
+ * Storage for decisions obtained from the PDP. Implementations must be safe for concurrent use.
+ * <p>
+ * Freshness is decided by the client using {@link CachedDecision#getCreatedAtMillis()}, so implementations may
+ * return entries of any age.
+ */
+public interface DecisionCache {
+    /**
+     * Look up a decision.
+     *
+     * @param key {@link DecisionKey}
+     * @return Cached decision or empty
+     */
+    Optional<CachedDecision> get(DecisionKey key);
+
+    /**
+     * Store a decision, replacing any previous decision for the key.
+     *
+     * @param key      {@link DecisionKey}
+     * @param decision {@link CachedDecision}
+     */
+    void put(DecisionKey key, CachedDecision decision);
+
+    /**
+     * Remove all decisions about the given resource kind.
+     *
+     * @param resourceKind Resource kind
+     */
+    void invalidate(String resourceKind);
+
+    /**
+     * Remove all decisions.
+     */
+    void invalidateAll();
+}
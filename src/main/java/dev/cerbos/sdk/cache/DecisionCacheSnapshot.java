@@ -0,0 +1,189 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Saves decision caches to a file and loads them back, so that a restarted application doesn't start with an empty
+ * cache.
+ * <p>
+ * A snapshot records the fingerprint of the policies that the decisions were based on (see
+ * {@link PolicyChangeWatcher#getFingerprint()}). Loading a snapshot taken with different policies discards it. Entries
+ * keep their original timestamps, so the TTL applies as if the application had not been restarted.
+ * <p>
+ * Resource kinds and actions are stored once in a dictionary and entries refer to them by index, which keeps
+ * snapshots small when there are many entries for the same kinds.
+ */
+public final class DecisionCacheSnapshot {
+    private static final int MAGIC = 0x43444353;
+    private static final int VERSION = 1;
+
+    private DecisionCacheSnapshot() {
+    }
+
+    /**
+     * Write the entries of the cache to the given file, replacing it atomically.
+     *
+     * @param cache       Cache to save
+     * @param file        Snapshot file
+     * @param fingerprint Fingerprint of the policies the decisions are based on
+     * @return Number of entries written
+     * @throws IOException if the file can't be written
+     */
+    public static int save(InMemoryDecisionCache cache, Path file, String fingerprint) throws IOException {
+        Map<DecisionKey, CachedDecision> entries = new LinkedHashMap<>();
+        cache.forEach(entries::put);
+
+        Dictionary kinds = new Dictionary();
+        Dictionary actions = new Dictionary();
+        for (Map.Entry<DecisionKey, CachedDecision> entry : entries.entrySet()) {
+            kinds.add(entry.getKey().getResourceKind());
+            entry.getValue().getActions().keySet().forEach(actions::add);
+        }
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp)), crc))) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeUTF(fingerprint);
+                kinds.write(out);
+                actions.write(out);
+                out.writeInt(entries.size());
+                for (Map.Entry<DecisionKey, CachedDecision> entry : entries.entrySet()) {
+                    DecisionKey key = entry.getKey();
+                    CachedDecision decision = entry.getValue();
+                    out.writeInt(kinds.indexOf(key.getResourceKind()));
+                    out.writeLong(key.getHigh());
+                    out.writeLong(key.getLow());
+                    out.writeLong(decision.getCreatedAtMillis());
+                    out.writeShort(decision.getActions().size());
+                    for (Map.Entry<String, Boolean> action : decision.getActions().entrySet()) {
+                        out.writeInt(actions.indexOf(action.getKey()));
+                        out.writeBoolean(action.getValue());
+                    }
+                }
+                out.flush();
+                // The checksum of everything before it, excluded from the checksum itself
+                out.writeLong(crc.getValue());
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return entries.size();
+    }
+
+    /**
+     * Load the entries of a snapshot into the cache if the snapshot was taken with the same policies.
+     *
+     * @param cache       Cache to load the entries into
+     * @param file        Snapshot file
+     * @param fingerprint Fingerprint of the current policies
+     * @return Number of entries loaded. Zero if the file doesn't exist or the fingerprint doesn't match.
+     * @throws IOException if the file can't be read or is corrupt
+     */
+    public static int load(DecisionCache cache, Path file, String fingerprint) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return 0;
+        }
+
+        Map<DecisionKey, CachedDecision> entries = new LinkedHashMap<>();
+        CRC32 crc = new CRC32();
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file));
+             DataInputStream in = new DataInputStream(new CheckedInputStream(raw, crc))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+                throw new IOException("Not a decision cache snapshot: " + file);
+            }
+            if (!in.readUTF().equals(fingerprint)) {
+                return 0;
+            }
+
+            List<String> kinds = Dictionary.read(in);
+            List<String> actions = Dictionary.read(in);
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String kind = lookup(kinds, in.readInt());
+                DecisionKey key = DecisionKey.of(kind, in.readLong(), in.readLong());
+                long createdAt = in.readLong();
+                int actionCount = in.readUnsignedShort();
+                Map<String, Boolean> decisions = new HashMap<>(actionCount * 2);
+                for (int j = 0; j < actionCount; j++) {
+                    String action = lookup(actions, in.readInt());
+                    decisions.put(action, in.readBoolean());
+                }
+                entries.put(key, new CachedDecision(decisions, createdAt));
+            }
+
+            long expected = crc.getValue();
+            if (new DataInputStream(raw).readLong() != expected) {
+                throw new IOException("Corrupt decision cache snapshot: " + file);
+            }
+        }
+
+        entries.forEach(cache::put);
+        return entries.size();
+    }
+
+    private static String lookup(List<String> dictionary, int index) throws IOException {
+        if (index < 0 || index >= dictionary.size()) {
+            throw new IOException("Corrupt decision cache snapshot");
+        }
+        return dictionary.get(index);
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> indexes = new LinkedHashMap<>();
+
+        void add(String value) {
+            indexes.putIfAbsent(value, indexes.size());
+        }
+
+        int indexOf(String value) {
+            return indexes.get(value);
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(indexes.size());
+            for (String value : indexes.keySet()) {
+                out.writeUTF(value);
+            }
+        }
+
+        static List<String> read(DataInputStream in) throws IOException {
+            int size = in.readInt();
+            if (size < 0) {
+                throw new IOException("Corrupt decision cache snapshot");
+            }
+            List<String> values = new ArrayList<>(Math.min(size, 1024));
+            for (int i = 0; i < size; i++) {
+                values.add(in.readUTF());
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.cache;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import dev.cerbos.api.v1.engine.Engine;
+import dev.cerbos.api.v1.request.Request;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Identifies the inputs of a decision: the principal, the resource and the auxiliary data.
+ * The inputs are reduced to a 128-bit hash, so keys have a fixed size regardless of the number of attributes.
+ * The resource kind is kept to allow invalidating all decisions about a kind when its policies change.
+ */
+public final class DecisionKey {
+    private final String resourceKind;
+    private final long high;
+    private final long low;
+
+    private DecisionKey(String resourceKind, long high, long low) {
+        this.resourceKind = resourceKind;
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * Create the key of a decision.
+     *
+     * @param principal Principal
+     * @param resource  Resource
+     * @param auxData   Auxiliary data
+     * @return {@link DecisionKey}
+     */
+    public static DecisionKey of(Engine.Principal principal, Engine.Resource resource, Request.AuxData auxData) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        putMessage(hasher, principal);
+        putMessage(hasher, resource);
+        putMessage(hasher, auxData);
+        return of(resource.getKind(), hasher.hash());
+    }
+
+    /**
+     * Create a key from a previously computed hash.
+     *
+     * @param resourceKind Resource kind
+     * @param high         High 64 bits of the hash
+     * @param low          Low 64 bits of the hash
+     * @return {@link DecisionKey}
+     */
+    public static DecisionKey of(String resourceKind, long high, long low) {
+        return new DecisionKey(resourceKind, high, low);
+    }
+
+    static DecisionKey of(String resourceKind, HashCode hash) {
+        ByteBuffer bytes = ByteBuffer.wrap(hash.asBytes());
+        return new DecisionKey(resourceKind, bytes.getLong(), bytes.getLong());
+    }
+
+    static void putMessage(Hasher hasher, MessageLite message) {
+        byte[] bytes = new byte[message.getSerializedSize()];
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        // Map entries must be written in a stable order for equal messages to hash the same
+        out.useDeterministicSerialization();
+        try {
+            message.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        hasher.putInt(bytes.length).putBytes(bytes);
+    }
+
+    public String getResourceKind() {
+        return resourceKind;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DecisionKey)) {
+            return false;
+        }
+        DecisionKey that = (DecisionKey) o;
+        return high == that.high && low == that.low && resourceKind.equals(that.resourceKind);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(resourceKind, high, low);
+    }
+
+    @Override
+    public String toString() {
+        return resourceKind + "/" + Long.toHexString(high) + Long.toHexString(low);
+    }
+}
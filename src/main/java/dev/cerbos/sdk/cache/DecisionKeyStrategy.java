@@ -0,0 +1,35 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.cache;
+
+import dev.cerbos.api.v1.engine.Engine;
+import dev.cerbos.api.v1.request.Request;
+
+/**
+ * Derives the {@link DecisionKey} of a check. Inputs that produce the same key must be guaranteed to produce the same
+ * decision.
+ */
+@FunctionalInterface
+public interface DecisionKeyStrategy {
+    /**
+     * Derive the key of a decision.
+     *
+     * @param principal Principal
+     * @param resource  Resource
+     * @param auxData   Auxiliary data
+     * @return {@link DecisionKey}
+     */
+    DecisionKey keyOf(Engine.Principal principal, Engine.Resource resource, Request.AuxData auxData);
+
+    /**
+     * Key on all inputs.
+     *
+     * @return {@link DecisionKeyStrategy}
+     */
+    static DecisionKeyStrategy allInputs() {
+        return DecisionKey::of;
+    }
+}
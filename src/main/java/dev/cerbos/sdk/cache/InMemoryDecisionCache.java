@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link DecisionCache} on the Java heap with a bounded number of entries.
+ */
+public final class InMemoryDecisionCache implements DecisionCache {
+    private final Cache<DecisionKey, CachedDecision> cache;
+
+    private InMemoryDecisionCache(Builder builder) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(builder.maxSize)
+                .expireAfterWrite(builder.retention)
+                .build();
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    @Override
+    public Optional<CachedDecision> get(DecisionKey key) {
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    @Override
+    public void put(DecisionKey key, CachedDecision decision) {
+        cache.put(key, decision);
+    }
+
+    @Override
+    public void invalidate(String resourceKind) {
+        cache.asMap().keySet().removeIf(key -> key.getResourceKind().equals(resourceKind));
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Call the consumer for each entry, for example to save a snapshot with {@link DecisionCacheSnapshot}.
+     *
+     * @param consumer Consumer of the entries
+     */
+    public void forEach(BiConsumer<DecisionKey, CachedDecision> consumer) {
+        cache.asMap().forEach(consumer);
+    }
+
+    /**
+     * Returns the approximate number of entries.
+     *
+     * @return Number of entries
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    public static final class Builder {
+        private long maxSize = 10_000;
+        private Duration retention = Duration.ofHours(1);
+
+        private Builder() {
+        }
+
+        /**
+         * Set the maximum number of entries. Defaults to 10000.
+         *
+         * @param maxSize Maximum number of entries
+         * @return {@link Builder}
+         */
+        public Builder withMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Set how long entries are kept. The TTL configured on the client decides when decisions are refreshed, so this
+         * only needs to be longer than the TTL and the staleness bound of degraded mode. Defaults to 1 hour.
+         *
+         * @param retention Retention period
+         * @return {@link Builder}
+         */
+        public Builder withRetention(Duration retention) {
+            this.retention = retention;
+            return this;
+        }
+
+        public InMemoryDecisionCache build() {
+            return new InMemoryDecisionCache(this);
+        }
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.cache;
+
+import com.google.common.hash.Hashing;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link DecisionCache} stored outside the Java heap in a memory-mapped file, which several processes on the same
+ * host can share by opening the same file.
+ * <p>
+ * The file holds a fixed number of 64 byte slots in an open-addressing table. Each slot holds the key, the time of
+ * the decision and two bitmaps recording which actions are known and which are allowed. Bit positions refer to a
+ * dictionary of up to 64 action names at the start of the file, so actions beyond that are not cached. Slots are
+ * updated without locks using a sequence number per slot: writers make it odd while updating, and readers retry if it
+ * changed while they were reading. A writer that finds a slot being updated skips the write, since caching is best
+ * effort.
+ * <p>
+ * The file must be deleted to change the number of slots.
+ */
+public final class MappedDecisionCache implements DecisionCache {
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private static final int MAGIC = 0x43444d43;
+    private static final int VERSION = 1;
+
+    // Header
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int SLOT_COUNT_OFFSET = 8;
+    private static final int GENERATION_OFFSET = 12;
+    private static final int ACTION_COUNT_OFFSET = 16;
+    private static final int HEADER_SIZE = 64;
+
+    // Action dictionary
+    private static final int MAX_ACTIONS = 64;
+    private static final int ACTION_ENTRY_SIZE = 64;
+    private static final int MAX_ACTION_BYTES = ACTION_ENTRY_SIZE - 4;
+    private static final int ACTIONS_OFFSET = HEADER_SIZE;
+    private static final int SLOTS_OFFSET = ACTIONS_OFFSET + MAX_ACTIONS * ACTION_ENTRY_SIZE;
+
+    // Slot layout
+    private static final int SLOT_SIZE = 64;
+    private static final int SEQ = 0;
+    private static final int KEY_HIGH = 8;
+    private static final int KEY_LOW = 16;
+    private static final int CREATED_AT = 24;
+    private static final int KNOWN = 32;
+    private static final int ALLOWED = 40;
+    private static final int KIND_HASH = 48;
+    private static final int GENERATION = 52;
+
+    private static final int PROBES = 8;
+    private static final int READ_ATTEMPTS = 4;
+
+    private final MappedByteBuffer buffer;
+    private final int mask;
+    private final long retentionMillis;
+    private final Map<String, Integer> actionIndexes = new ConcurrentHashMap<>();
+    private final String[] actionNames = new String[MAX_ACTIONS];
+
+    private MappedDecisionCache(MappedByteBuffer buffer, int slotCount, long retentionMillis) {
+        this.buffer = buffer;
+        this.mask = slotCount - 1;
+        this.retentionMillis = retentionMillis;
+    }
+
+    /**
+     * Create a builder for a cache backed by the given file. The file is created if it doesn't exist.
+     *
+     * @param file Cache file
+     * @return {@link Builder}
+     */
+    public static Builder newBuilder(Path file) {
+        return new Builder(file);
+    }
+
+    private static MappedDecisionCache open(Builder builder) throws IOException {
+        int slotCount = Integer.highestOneBit(Math.max(builder.slots - 1, 1)) << 1;
+        try (FileChannel ch = FileChannel.open(builder.file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long size = SLOTS_OFFSET + (long) slotCount * SLOT_SIZE;
+            MappedByteBuffer buffer;
+            // Only one process may initialize the file
+            try (FileLock ignored = ch.lock()) {
+                boolean fresh = ch.size() == 0;
+                if (!fresh && ch.size() != size) {
+                    throw new IOException("Decision cache file " + builder.file + " was created with a different "
+                            + "number of slots");
+                }
+                // Mapping beyond the end of the file extends it with zeros
+                buffer = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.order(ByteOrder.nativeOrder());
+                if (fresh) {
+                    buffer.putInt(VERSION_OFFSET, VERSION);
+                    buffer.putInt(SLOT_COUNT_OFFSET, slotCount);
+                    INTS.setRelease(buffer, MAGIC_OFFSET, MAGIC);
+                    buffer.force();
+                } else if ((int) INTS.getAcquire(buffer, MAGIC_OFFSET) != MAGIC
+                        || buffer.getInt(VERSION_OFFSET) != VERSION
+                        || buffer.getInt(SLOT_COUNT_OFFSET) != slotCount) {
+                    throw new IOException("Not a decision cache file: " + builder.file);
+                }
+            }
+            return new MappedDecisionCache(buffer, slotCount, builder.retention.toMillis());
+        }
+    }
+
+    @Override
+    public Optional<CachedDecision> get(DecisionKey key) {
+        int generation = (int) INTS.getVolatile(buffer, GENERATION_OFFSET);
+        int kindHash = kindHash(key.getResourceKind());
+        long now = System.currentTimeMillis();
+        int base = index(key);
+        for (int probe = 0; probe < PROBES; probe++) {
+            int slot = slotOffset((base + probe) & mask);
+            for (int attempt = 0; attempt < READ_ATTEMPTS; attempt++) {
+                long seq = (long) LONGS.getAcquire(buffer, slot + SEQ);
+                if ((seq & 1) != 0) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                long high = buffer.getLong(slot + KEY_HIGH);
+                long low = buffer.getLong(slot + KEY_LOW);
+                long createdAt = buffer.getLong(slot + CREATED_AT);
+                long known = buffer.getLong(slot + KNOWN);
+                long allowed = buffer.getLong(slot + ALLOWED);
+                int slotKind = buffer.getInt(slot + KIND_HASH);
+                int slotGeneration = buffer.getInt(slot + GENERATION);
+                VarHandle.acquireFence();
+                if ((long) LONGS.getVolatile(buffer, slot + SEQ) != seq) {
+                    continue;
+                }
+
+                if (high == key.getHigh() && low == key.getLow() && slotKind == kindHash
+                        && isLive(createdAt, slotGeneration, generation, now)) {
+                    return Optional.of(decode(known, allowed, createdAt));
+                }
+                break;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(DecisionKey key, CachedDecision decision) {
+        long known = 0;
+        long allowed = 0;
+        for (Map.Entry<String, Boolean> action : decision.getActions().entrySet()) {
+            int index = actionIndex(action.getKey());
+            if (index < 0) {
+                continue;
+            }
+            known |= 1L << index;
+            if (action.getValue()) {
+                allowed |= 1L << index;
+            }
+        }
+        if (known == 0) {
+            return;
+        }
+
+        int generation = (int) INTS.getVolatile(buffer, GENERATION_OFFSET);
+        int kindHash = kindHash(key.getResourceKind());
+        long now = System.currentTimeMillis();
+        int base = index(key);
+        int target = -1;
+        long oldest = Long.MAX_VALUE;
+        for (int probe = 0; probe < PROBES; probe++) {
+            int slot = slotOffset((base + probe) & mask);
+            long createdAt = buffer.getLong(slot + CREATED_AT);
+            boolean live = isLive(createdAt, buffer.getInt(slot + GENERATION), generation, now);
+            if (!live || (buffer.getLong(slot + KEY_HIGH) == key.getHigh()
+                    && buffer.getLong(slot + KEY_LOW) == key.getLow())) {
+                target = slot;
+                break;
+            }
+            // Evict the oldest entry if the probe sequence is full
+            if (createdAt < oldest) {
+                oldest = createdAt;
+                target = slot;
+            }
+        }
+
+        long seq = (long) LONGS.getVolatile(buffer, target + SEQ);
+        if ((seq & 1) != 0 || !LONGS.compareAndSet(buffer, target + SEQ, seq, seq + 1)) {
+            return;
+        }
+        buffer.putLong(target + KEY_HIGH, key.getHigh());
+        buffer.putLong(target + KEY_LOW, key.getLow());
+        buffer.putLong(target + CREATED_AT, decision.getCreatedAtMillis());
+        buffer.putLong(target + KNOWN, known);
+        buffer.putLong(target + ALLOWED, allowed);
+        buffer.putInt(target + KIND_HASH, kindHash);
+        buffer.putInt(target + GENERATION, generation);
+        LONGS.setRelease(buffer, target + SEQ, seq + 2);
+    }
+
+    @Override
+    public void invalidate(String resourceKind) {
+        int kindHash = kindHash(resourceKind);
+        for (int i = 0; i <= mask; i++) {
+            int slot = slotOffset(i);
+            if (buffer.getInt(slot + KIND_HASH) != kindHash || buffer.getLong(slot + CREATED_AT) == 0) {
+                continue;
+            }
+            if (!clear(slot, kindHash)) {
+                // A skipped invalidation would leave a wrong decision behind, so drop everything instead
+                invalidateAll();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Remove all decisions for all processes sharing the file by advancing the generation recorded in the header.
+     */
+    @Override
+    public void invalidateAll() {
+        INTS.getAndAdd(buffer, GENERATION_OFFSET, 1);
+    }
+
+    private boolean clear(int slot, int kindHash) {
+        for (int attempt = 0; attempt < 1000; attempt++) {
+            long seq = (long) LONGS.getVolatile(buffer, slot + SEQ);
+            if ((seq & 1) == 0 && LONGS.compareAndSet(buffer, slot + SEQ, seq, seq + 1)) {
+                if (buffer.getInt(slot + KIND_HASH) == kindHash) {
+                    buffer.putLong(slot + CREATED_AT, 0);
+                }
+                LONGS.setRelease(buffer, slot + SEQ, seq + 2);
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+        return false;
+    }
+
+    private boolean isLive(long createdAt, int slotGeneration, int generation, long now) {
+        return createdAt != 0 && slotGeneration == generation && now - createdAt < retentionMillis;
+    }
+
+    private CachedDecision decode(long known, long allowed, long createdAt) {
+        Map<String, Boolean> actions = new HashMap<>(Long.bitCount(known) * 2);
+        for (long bits = known; bits != 0; bits &= bits - 1) {
+            int index = Long.numberOfTrailingZeros(bits);
+            String name = actionName(index);
+            if (name != null) {
+                actions.put(name, (allowed & (1L << index)) != 0);
+            }
+        }
+        return new CachedDecision(actions, createdAt);
+    }
+
+    /**
+     * Returns the dictionary index of the action, adding it if necessary, or -1 if the dictionary is full or the name
+     * is too long. Processes adding the same action concurrently may add it twice, which only lowers the hit rate.
+     */
+    private int actionIndex(String action) {
+        Integer index = actionIndexes.get(action);
+        if (index != null) {
+            return index;
+        }
+        loadActions();
+        index = actionIndexes.get(action);
+        if (index != null) {
+            return index;
+        }
+
+        byte[] bytes = action.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length == 0 || bytes.length > MAX_ACTION_BYTES) {
+            return -1;
+        }
+        while (true) {
+            int count = (int) INTS.getVolatile(buffer, ACTION_COUNT_OFFSET);
+            if (count >= MAX_ACTIONS) {
+                return -1;
+            }
+            if (INTS.compareAndSet(buffer, ACTION_COUNT_OFFSET, count, count + 1)) {
+                int entry = ACTIONS_OFFSET + count * ACTION_ENTRY_SIZE;
+                for (int i = 0; i < bytes.length; i++) {
+                    buffer.put(entry + 4 + i, bytes[i]);
+                }
+                // Publishing the length makes the entry visible to other processes
+                INTS.setRelease(buffer, entry, bytes.length);
+                synchronized (actionNames) {
+                    actionNames[count] = action;
+                }
+                actionIndexes.putIfAbsent(action, count);
+                return actionIndexes.get(action);
+            }
+        }
+    }
+
+    private String actionName(int index) {
+        synchronized (actionNames) {
+            if (actionNames[index] == null) {
+                loadActions();
+            }
+            return actionNames[index];
+        }
+    }
+
+    /**
+     * Read the entries published by other processes into the local dictionary.
+     */
+    private void loadActions() {
+        synchronized (actionNames) {
+            int count = Math.min((int) INTS.getVolatile(buffer, ACTION_COUNT_OFFSET), MAX_ACTIONS);
+            for (int i = 0; i < count; i++) {
+                if (actionNames[i] != null) {
+                    continue;
+                }
+                int entry = ACTIONS_OFFSET + i * ACTION_ENTRY_SIZE;
+                int length = (int) INTS.getAcquire(buffer, entry);
+                if (length <= 0 || length > MAX_ACTION_BYTES) {
+                    // Reserved but not yet published
+                    break;
+                }
+                byte[] bytes = new byte[length];
+                for (int j = 0; j < length; j++) {
+                    bytes[j] = buffer.get(entry + 4 + j);
+                }
+                String name = new String(bytes, StandardCharsets.UTF_8);
+                actionNames[i] = name;
+                actionIndexes.putIfAbsent(name, i);
+            }
+        }
+    }
+
+    private int index(DecisionKey key) {
+        long h = key.getLow() ^ (key.getHigh() >>> 29);
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static int slotOffset(int index) {
+        return SLOTS_OFFSET + index * SLOT_SIZE;
+    }
+
+    private static int kindHash(String kind) {
+        return Hashing.murmur3_32_fixed().hashString(kind, StandardCharsets.UTF_8).asInt();
+    }
+
+    public static final class Builder {
+        private final Path file;
+        private int slots = 65536;
+        private Duration retention = Duration.ofHours(1);
+
+        private Builder(Path file) {
+            this.file = file;
+        }
+
+        /**
+         * Set the number of slots, rounded up to a power of two. Each slot takes 64 bytes. Defaults to 65536. All
+         * processes sharing the file must use the same number of slots.
+         *
+         * @param slots Number of slots
+         * @return {@link Builder}
+         */
+        public Builder withSlots(int slots) {
+            this.slots = slots;
+            return this;
+        }
+
+        /**
+         * Set how long entries are kept. Defaults to 1 hour.
+         *
+         * @param retention Retention period
+         * @return {@link Builder}
+         */
+        public Builder withRetention(Duration retention) {
+            this.retention = retention;
+            return this;
+        }
+
+        /**
+         * Open the cache file, creating and initializing it if necessary.
+         *
+         * @return {@link MappedDecisionCache}
+         * @throws IOException if the file can't be opened or was created with a different number of slots
+         */
+        public MappedDecisionCache build() throws IOException {
+            if (slots <= 0 || slots > (1 << 24)) {
+                throw new IllegalArgumentException("slots must be between 1 and 16777216");
+            }
+            return open(this);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.cache;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import dev.cerbos.api.v1.policy.PolicyOuterClass;
+import dev.cerbos.sdk.CerbosBlockingAdminClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invalidates cached decisions when the policies of the PDP change.
+ * <p>
+ * The active policies are fetched through the Admin API and hashed per resource kind. When the policies of a resource
+ * kind change, the decisions about that kind are invalidated. A change to any other kind of policy, such as derived
+ * roles or principal policies, invalidates all decisions.
+ * <p>
+ * Call {@link #poll()} after reloading the store (see {@link CerbosBlockingAdminClient#storeReload(boolean)}) to
+ * invalidate immediately instead of waiting for the next scheduled poll.
+ */
+public final class PolicyChangeWatcher implements AutoCloseable {
+    private static final String ALL_KINDS = "";
+
+    private final CerbosBlockingAdminClient adminClient;
+    private final List<DecisionCache> caches;
+    private final List<Runnable> refreshes;
+    private final Duration pollInterval;
+    private ScheduledExecutorService executor;
+    private Map<String, String> digests;
+    private volatile String fingerprint;
+
+    private PolicyChangeWatcher(Builder builder) {
+        this.adminClient = builder.adminClient;
+        this.caches = new CopyOnWriteArrayList<>(builder.caches);
+        this.refreshes = List.copyOf(builder.refreshes);
+        this.pollInterval = builder.pollInterval;
+    }
+
+    public static Builder newBuilder(CerbosBlockingAdminClient adminClient) {
+        return new Builder(adminClient);
+    }
+
+    /**
+     * Poll once and then periodically in a background thread. Errors while polling are ignored and the cached
+     * decisions are kept until a poll succeeds.
+     *
+     * @return {@link PolicyChangeWatcher}
+     * @throws dev.cerbos.sdk.CerbosException if the initial poll fails
+     */
+    public synchronized PolicyChangeWatcher start() {
+        if (executor != null) {
+            return this;
+        }
+        poll();
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cerbos-policy-change-watcher");
+            t.setDaemon(true);
+            return t;
+        });
+        long millis = pollInterval.toMillis();
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                poll();
+            } catch (RuntimeException ignored) {
+                // Try again at the next interval
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * Fetch the active policies and invalidate the decisions affected by changes since the previous poll.
+     * The first poll only records the current state. If refreshing the key strategy or resource actions fails, the
+     * affected decisions are still invalidated and the change is handled again by the next poll.
+     *
+     * @return Resource kinds whose decisions were invalidated. Contains the empty string if all were invalidated.
+     * @throws dev.cerbos.sdk.CerbosException if an RPC error occurs
+     */
+    public synchronized Set<String> poll() {
+        Map<String, String> current = fetchDigests();
+        Map<String, String> previous = digests;
+        if (previous == null) {
+            commit(current);
+            return Set.of();
+        }
+
+        Set<String> changed = new HashSet<>();
+        Set<String> kinds = new HashSet<>(previous.keySet());
+        kinds.addAll(current.keySet());
+        for (String kind : kinds) {
+            if (!Optional.ofNullable(previous.get(kind)).equals(Optional.ofNullable(current.get(kind)))) {
+                changed.add(kind);
+            }
+        }
+
+        if (changed.isEmpty()) {
+            return changed;
+        }
+        // Keys and widened actions derived before invalidating must already reflect the new policies
+        try {
+            refreshes.forEach(Runnable::run);
+        } catch (RuntimeException e) {
+            // Drop the decisions made under the old policies anyway. The change is not recorded, so the next poll
+            // retries the refresh and invalidates again.
+            invalidate(changed);
+            throw e;
+        }
+        Set<String> invalidated = invalidate(changed);
+        commit(current);
+        return invalidated;
+    }
+
+    private void commit(Map<String, String> current) {
+        digests = current;
+        fingerprint = fingerprint(current);
+    }
+
+    private Set<String> invalidate(Set<String> changed) {
+        if (changed.contains(ALL_KINDS)) {
+            caches.forEach(CacheGenerations::invalidateAll);
+            return Set.of(ALL_KINDS);
+        }
+        for (String kind : changed) {
+            caches.forEach(cache -> CacheGenerations.invalidate(cache, kind));
+        }
+        return changed;
+    }
+
+    /**
+     * Returns a hash of all active policies as of the last poll, which can be used to tell whether decisions made at
+     * different times were based on the same policies.
+     *
+     * @return Fingerprint or empty if no poll has completed
+     */
+    public Optional<String> getFingerprint() {
+        return Optional.ofNullable(fingerprint);
+    }
+
+    /**
+     * Start invalidating the given cache as well.
+     *
+     * @param cache {@link DecisionCache}
+     */
+    public void addCache(DecisionCache cache) {
+        caches.add(cache);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private Map<String, String> fetchDigests() {
+        List<String> ids = adminClient.listActivePolicies(Optional.empty(), Optional.empty(), Optional.empty());
+        Map<String, List<String>> policyHashes = new HashMap<>();
+        for (PolicyOuterClass.Policy policy : adminClient.getPolicies(ids)) {
+            String kind = policy.hasResourcePolicy() ? policy.getResourcePolicy().getResource() : ALL_KINDS;
+            policyHashes.computeIfAbsent(kind, k -> new ArrayList<>()).add(policyHash(policy));
+        }
+
+        Map<String, String> digests = new TreeMap<>();
+        policyHashes.forEach((kind, hashes) -> {
+            hashes.sort(null);
+            digests.put(kind,
+                    Hashing.murmur3_128().hashString(String.join(",", hashes), StandardCharsets.UTF_8).toString());
+        });
+        return digests;
+    }
+
+    private static String policyHash(PolicyOuterClass.Policy policy) {
+        if (policy.getMetadata().hasHash()) {
+            return Long.toUnsignedString(policy.getMetadata().getHash().getValue(), 16);
+        }
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        DecisionKey.putMessage(hasher, policy.toBuilder().clearMetadata().build());
+        return hasher.hash().toString();
+    }
+
+    private static String fingerprint(Map<String, String> digests) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        digests.forEach((kind, digest) -> hasher.putString(kind, StandardCharsets.UTF_8).putChar('\n')
+                .putString(digest, StandardCharsets.UTF_8).putChar('\n'));
+        return hasher.hash().toString();
+    }
+
+    public static final class Builder {
+        private final CerbosBlockingAdminClient adminClient;
+        private final List<DecisionCache> caches = new ArrayList<>();
+        private final List<Runnable> refreshes = new ArrayList<>();
+        private Duration pollInterval = Duration.ofSeconds(30);
+
+        private Builder(CerbosBlockingAdminClient adminClient) {
+            this.adminClient = adminClient;
+        }
+
+        /**
+         * Add a cache to invalidate.
+         *
+         * @param cache {@link DecisionCache}
+         * @return {@link Builder}
+         */
+        public Builder withCache(DecisionCache cache) {
+            this.caches.add(cache);
+            return this;
+        }
+
+        /**
+         * Refresh the given key strategy when policies change, before invalidating the caches.
+         *
+         * @param keyStrategy {@link AttributeAwareKeyStrategy}
+         * @return {@link Builder}
+         */
+        public Builder withKeyStrategy(AttributeAwareKeyStrategy keyStrategy) {
+            this.refreshes.add(keyStrategy::refresh);
+            return this;
+        }
+
+        /**
+         * Refresh the given resource actions when policies change, before invalidating the caches.
+         *
+         * @param resourceActions {@link ResourceActions}
+         * @return {@link Builder}
+         */
+        public Builder withResourceActions(ResourceActions resourceActions) {
+            this.refreshes.add(resourceActions::refresh);
+            return this;
+        }
+
+        /**
+         * Set the interval between polls. Defaults to 30 seconds.
+         *
+         * @param pollInterval Poll interval
+         * @return {@link Builder}
+         */
+        public Builder withPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+            return this;
+        }
+
+        public PolicyChangeWatcher build() {
+            return new PolicyChangeWatcher(this);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.cache;
+
+import dev.cerbos.api.v1.policy.PolicyOuterClass;
+import dev.cerbos.sdk.CerbosBlockingAdminClient;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The actions registered for each resource kind, used to widen checks to every action of the kind so that checks for
+ * other actions on the same resource can be answered from the decision cache.
+ * <p>
+ * When derived from policies, the registered actions of a kind are the literal actions named by the resource policies
+ * of the kind and by the principal and role policy rules for the kind. Wildcard actions and resource patterns are
+ * skipped. Kinds whose rules produce outputs are not registered, because outputs can't be attributed to the actions
+ * that were asked for. No kinds are registered if a rule for a resource pattern produces outputs.
+ */
+public final class ResourceActions {
+    private final CerbosBlockingAdminClient adminClient;
+    private volatile Map<String, Set<String>> actionsByKind;
+
+    private ResourceActions(CerbosBlockingAdminClient adminClient, Map<String, Set<String>> actionsByKind) {
+        this.adminClient = adminClient;
+        this.actionsByKind = actionsByKind;
+    }
+
+    /**
+     * Create a fixed set of actions per resource kind.
+     *
+     * @param actionsByKind Actions keyed by resource kind
+     * @return {@link ResourceActions}
+     */
+    public static ResourceActions of(Map<String, ? extends Collection<String>> actionsByKind) {
+        Map<String, Set<String>> copy = new HashMap<>();
+        actionsByKind.forEach((kind, actions) -> copy.put(kind, Set.copyOf(actions)));
+        return new ResourceActions(null, Map.copyOf(copy));
+    }
+
+    /**
+     * Derive the actions from the given policies. Disabled policies are ignored.
+     *
+     * @param policies Policies
+     * @return {@link ResourceActions}
+     */
+    public static ResourceActions fromPolicies(Iterable<PolicyOuterClass.Policy> policies) {
+        return new ResourceActions(null, collect(policies));
+    }
+
+    /**
+     * Derive the actions from the active policies of the PDP.
+     *
+     * @param adminClient Admin client of the PDP
+     * @return {@link ResourceActions}
+     * @throws dev.cerbos.sdk.CerbosException if an RPC error occurs
+     */
+    public static ResourceActions fromPolicies(CerbosBlockingAdminClient adminClient) {
+        ResourceActions actions = new ResourceActions(adminClient, Map.of());
+        actions.refresh();
+        return actions;
+    }
+
+    /**
+     * Returns the actions registered for the given resource kind.
+     *
+     * @param kind Resource kind
+     * @return Actions or an empty set if the kind is not registered
+     */
+    public Set<String> actionsOf(String kind) {
+        return actionsByKind.getOrDefault(kind, Set.of());
+    }
+
+    /**
+     * Fetch the active policies again. Does nothing if the actions were not derived from the policies of a PDP.
+     *
+     * @throws dev.cerbos.sdk.CerbosException if an RPC error occurs
+     */
+    public void refresh() {
+        if (adminClient == null) {
+            return;
+        }
+        List<String> ids = adminClient.listActivePolicies(Optional.empty(), Optional.empty(), Optional.empty());
+        this.actionsByKind = collect(adminClient.getPolicies(ids));
+    }
+
+    private static Map<String, Set<String>> collect(Iterable<PolicyOuterClass.Policy> policies) {
+        Map<String, Set<String>> actions = new HashMap<>();
+        Set<String> withOutputs = new HashSet<>();
+        for (PolicyOuterClass.Policy policy : policies) {
+            if (policy.getDisabled()) {
+                continue;
+            }
+            switch (policy.getPolicyTypeCase()) {
+                case RESOURCE_POLICY: {
+                    String kind = policy.getResourcePolicy().getResource();
+                    for (PolicyOuterClass.ResourceRule rule : policy.getResourcePolicy().getRulesList()) {
+                        add(actions, kind, rule.getActionsList());
+                        if (rule.hasOutput()) {
+                            withOutputs.add(kind);
+                        }
+                    }
+                    break;
+                }
+                case PRINCIPAL_POLICY:
+                    for (PolicyOuterClass.PrincipalRule rule : policy.getPrincipalPolicy().getRulesList()) {
+                        for (PolicyOuterClass.PrincipalRule.Action action : rule.getActionsList()) {
+                            add(actions, rule.getResource(), List.of(action.getAction()));
+                            if (action.hasOutput()) {
+                                withOutputs.add(rule.getResource());
+                            }
+                        }
+                    }
+                    break;
+                case ROLE_POLICY:
+                    for (PolicyOuterClass.RoleRule rule : policy.getRolePolicy().getRulesList()) {
+                        add(actions, rule.getResource(), rule.getAllowActionsList());
+                        if (rule.hasOutput()) {
+                            withOutputs.add(rule.getResource());
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // Outputs of rules for a resource pattern may apply to any kind
+        if (withOutputs.stream().anyMatch(ResourceActions::isPattern)) {
+            return Map.of();
+        }
+        Map<String, Set<String>> registered = new HashMap<>();
+        actions.forEach((kind, names) -> {
+            if (!withOutputs.contains(kind) && !names.isEmpty()) {
+                registered.put(kind, Set.copyOf(names));
+            }
+        });
+        return Map.copyOf(registered);
+    }
+
+    private static void add(Map<String, Set<String>> actions, String kind, Collection<String> names) {
+        if (isPattern(kind)) {
+            return;
+        }
+        Set<String> kindActions = actions.computeIfAbsent(kind, k -> new HashSet<>());
+        for (String name : names) {
+            if (!isPattern(name)) {
+                kindActions.add(name);
+            }
+        }
+    }
+
+    private static boolean isPattern(String name) {
+        return name.chars().anyMatch(c -> c == '*' || c == '?' || c == '[' || c == '{');
+    }
+}
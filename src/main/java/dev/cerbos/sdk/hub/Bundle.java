@@ -0,0 +1,76 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.hub;
+
+import dev.cerbos.api.cloud.v2.epdp.Epdp;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * A policy bundle for an embedded PDP, backed by a memory-mapped file in the local cache directory.
+ */
+public final class Bundle {
+    private final String bundleId;
+    private final long ruleRevision;
+    private final Path path;
+    private final ByteBuffer contents;
+
+    Bundle(String bundleId, long ruleRevision, Path path, ByteBuffer contents) {
+        this.bundleId = bundleId;
+        this.ruleRevision = ruleRevision;
+        this.path = path;
+        this.contents = contents;
+    }
+
+    public String getBundleId() {
+        return bundleId;
+    }
+
+    public long getRuleRevision() {
+        return ruleRevision;
+    }
+
+    /**
+     * Returns the path of the cached bundle file.
+     *
+     * @return Path
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the contents of the bundle. The returned buffer is read-only and independent of buffers returned by
+     * other calls, so it can be consumed from several threads.
+     *
+     * @return Read-only {@link ByteBuffer}
+     */
+    public ByteBuffer getContents() {
+        return contents.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a copy of the contents of the bundle.
+     *
+     * @return Bundle contents
+     */
+    public byte[] toByteArray() {
+        ByteBuffer buf = getContents();
+        byte[] bytes = new byte[buf.remaining()];
+        buf.get(bytes);
+        return bytes;
+    }
+
+    Epdp.Bundle.Metadata toMetadata() {
+        return Epdp.Bundle.Metadata.newBuilder().setBundleId(bundleId).setRuleRevision(ruleRevision).build();
+    }
+
+    @Override
+    public String toString() {
+        return "Bundle{bundleId=" + bundleId + ", ruleRevision=" + ruleRevision + ", size=" + contents.capacity() + "}";
+    }
+}
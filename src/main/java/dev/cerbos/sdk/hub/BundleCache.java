@@ -0,0 +1,130 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.hub;
+
+import com.google.common.hash.Hashing;
+import com.google.protobuf.ByteString;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Directory of bundles for one rule and set of scopes. Each bundle is stored in a file named after its bundle ID and
+ * rule revision, so that the newest bundle can be found and memory-mapped again after a restart without contacting
+ * Cerbos Hub.
+ */
+final class BundleCache {
+    private static final Pattern FILE_NAME = Pattern.compile("(.+)-(\\d+)\\.bundle");
+
+    private final Path dir;
+
+    BundleCache(Path cacheDir, String ruleId, List<String> scopes) {
+        this.dir = cacheDir.resolve(ruleId + "-" + scopesKey(scopes));
+    }
+
+    private static String scopesKey(List<String> scopes) {
+        if (scopes.isEmpty()) {
+            return "all";
+        }
+        String joined = String.join("\n", new TreeSet<>(scopes));
+        return Hashing.murmur3_32_fixed().hashString(joined, StandardCharsets.UTF_8).toString();
+    }
+
+    Path getDirectory() {
+        return dir;
+    }
+
+    /**
+     * Map the cached bundle with the highest rule revision.
+     */
+    Optional<Bundle> load() throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return Optional.empty();
+        }
+
+        Path newest = null;
+        String bundleId = null;
+        long revision = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.bundle")) {
+            for (Path file : files) {
+                Matcher m = FILE_NAME.matcher(file.getFileName().toString());
+                if (!m.matches()) {
+                    continue;
+                }
+                long r;
+                try {
+                    r = Long.parseLong(m.group(2));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (r > revision) {
+                    newest = file;
+                    bundleId = m.group(1);
+                    revision = r;
+                }
+            }
+        }
+
+        if (newest == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Bundle(bundleId, revision, newest, map(newest)));
+    }
+
+    /**
+     * Write the bundle atomically, map it and remove older bundles.
+     */
+    Bundle store(String bundleId, long revision, ByteString contents) throws IOException {
+        Files.createDirectories(dir);
+        Path target = dir.resolve(bundleId + "-" + revision + ".bundle");
+        Path tmp = Files.createTempFile(dir, ".bundle", ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer buf = contents.asReadOnlyByteBuffer();
+                while (buf.hasRemaining()) {
+                    ch.write(buf);
+                }
+                ch.force(true);
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+
+        Bundle bundle = new Bundle(bundleId, revision, target, map(target));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.bundle")) {
+            for (Path file : files) {
+                if (!file.equals(target)) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException ignored) {
+                        // Files that are still mapped can't be deleted on some platforms
+                    }
+                }
+            }
+        }
+        return bundle;
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+    }
+}
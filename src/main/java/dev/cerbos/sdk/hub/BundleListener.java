@@ -0,0 +1,21 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.hub;
+
+/**
+ * Receives notifications when a {@link CerbosHubBundleClient} obtains a new bundle.
+ */
+@FunctionalInterface
+public interface BundleListener {
+    /**
+     * Called on the thread that fetched the bundle after it has been written to the cache directory.
+     * Exceptions thrown by the listener are ignored.
+     *
+     * @param previous Previous bundle or null if there was none
+     * @param current  New bundle
+     */
+    void onBundleChanged(Bundle previous, Bundle current);
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.hub;
+
+import dev.cerbos.sdk.hub.exceptions.BundleException;
+
+import java.util.Optional;
+
+/**
+ * Client for the embedded PDP bundles of a deployment rule.
+ * <p>
+ * Bundles are fetched conditionally: only a bundle newer than the current one is transferred. Each bundle is written
+ * to the cache directory and memory-mapped, so that the newest bundle is available immediately after a restart even
+ * if Cerbos Hub cannot be reached.
+ */
+public interface CerbosHubBundleClient {
+    /**
+     * Returns the newest bundle known to the client, which may have been loaded from the cache directory.
+     *
+     * @return Current bundle or empty if no bundle has been fetched or cached yet
+     */
+    Optional<Bundle> current();
+
+    /**
+     * Fetch the bundle if it was modified since the current one and notify the listeners if it changed.
+     *
+     * @return The new bundle or the current one if it was not modified
+     * @throws BundleException if the RPC fails or the bundle can't be written to the cache directory
+     */
+    Bundle fetch() throws BundleException;
+
+    /**
+     * Register a listener to be notified when a new bundle is fetched.
+     *
+     * @param listener {@link BundleListener}
+     */
+    void addListener(BundleListener listener);
+
+    /**
+     * Remove a previously registered listener.
+     *
+     * @param listener {@link BundleListener}
+     */
+    void removeListener(BundleListener listener);
+}
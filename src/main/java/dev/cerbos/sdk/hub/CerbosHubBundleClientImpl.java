@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.hub;
+
+import dev.cerbos.api.cloud.v2.epdp.BundleServiceGrpc;
+import dev.cerbos.api.cloud.v2.epdp.Epdp;
+import dev.cerbos.sdk.hub.exceptions.BundleException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class CerbosHubBundleClientImpl implements CerbosHubBundleClient {
+    private static final Logger LOGGER = Logger.getLogger(CerbosHubBundleClientImpl.class.getName());
+
+    private final BundleServiceGrpc.BundleServiceBlockingV2Stub stub;
+    private final long timeoutMillis;
+    private final String ruleId;
+    private final List<String> scopes;
+    private final BundleCache cache;
+    private final List<BundleListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Bundle current;
+
+    CerbosHubBundleClientImpl(BundleServiceGrpc.BundleServiceBlockingV2Stub stub, long timeoutMillis, String ruleId, List<String> scopes, Path cacheDir) {
+        this.stub = stub;
+        this.timeoutMillis = timeoutMillis;
+        this.ruleId = ruleId;
+        this.scopes = List.copyOf(scopes);
+        this.cache = new BundleCache(cacheDir, ruleId, this.scopes);
+        try {
+            this.current = cache.load().orElse(null);
+        } catch (IOException e) {
+            // An unreadable cache is treated as empty and overwritten by the next fetch
+            LOGGER.log(Level.WARNING, "Failed to load cached bundle from " + cacheDir, e);
+        }
+    }
+
+    private BundleServiceGrpc.BundleServiceBlockingV2Stub withStub() {
+        return stub.withDeadlineAfter(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Optional<Bundle> current() {
+        return Optional.ofNullable(current);
+    }
+
+    @Override
+    public synchronized Bundle fetch() throws BundleException {
+        Bundle previous = current;
+        Epdp.GetBundleRequest.Builder req = Epdp.GetBundleRequest.newBuilder().setRuleId(ruleId).addAllScopes(scopes);
+        if (previous != null) {
+            req.setIfModifiedSince(previous.toMetadata());
+        }
+
+        Epdp.GetBundleResponse resp;
+        try {
+            resp = CircuitBreaker.INSTANCE.execute(() -> withStub().getBundle(req.build()));
+        } catch (Throwable t) {
+            throw BundleException.from(t);
+        }
+
+        if (resp.hasNotModified()) {
+            if (previous == null) {
+                // Nothing was sent to compare against, so there is no bundle that could be unmodified
+                throw BundleException.unexpectedResponse("Bundle reported as not modified but no bundle is cached");
+            }
+            return previous;
+        }
+        if (!resp.hasBundle()) {
+            throw BundleException.unexpectedResponse("Response contains no bundle");
+        }
+
+        Epdp.Bundle.Metadata metadata = resp.getBundle().getMetadata();
+        Bundle bundle;
+        try {
+            bundle = cache.store(metadata.getBundleId(), metadata.getRuleRevision(), resp.getBundle().getContents());
+        } catch (IOException e) {
+            throw BundleException.cacheFailure(e);
+        }
+
+        current = bundle;
+        for (BundleListener listener : listeners) {
+            try {
+                listener.onBundleChanged(previous, bundle);
+            } catch (RuntimeException e) {
+                // A misbehaving listener must not prevent the others from being notified
+                LOGGER.log(Level.WARNING, "Bundle listener failed for bundle " + metadata.getBundleId(), e);
+            }
+        }
+        return bundle;
+    }
+
+    @Override
+    public void addListener(BundleListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(BundleListener listener) {
+        listeners.remove(listener);
+    }
+}
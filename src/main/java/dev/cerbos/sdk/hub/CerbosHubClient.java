@@ -5,6 +5,23 @@
 
 package dev.cerbos.sdk.hub;
 
+import java.nio.file.Path;
+import java.util.List;
+
 public interface CerbosHubClient {
     CerbosHubStoreClient storeClient();
+
+    /**
+     * Create a client for the embedded PDP bundles of a deployment rule.
+     * The newest bundle in the cache directory, if any, is loaded immediately.
+     *
+     * @param ruleId   ID of the deployment rule
+     * @param scopes   Scopes to include in the bundle. Empty to include all scopes.
+     * @param cacheDir Directory to store bundles in
+     * @return {@link CerbosHubBundleClient}
+     * @throws UnsupportedOperationException if the implementation does not support bundles
+     */
+    default CerbosHubBundleClient bundleClient(String ruleId, List<String> scopes, Path cacheDir) {
+        throw new UnsupportedOperationException("Bundles are not supported by " + getClass().getName());
+    }
 }
@@ -6,8 +6,12 @@
 package dev.cerbos.sdk.hub;
 
 import dev.cerbos.api.cloud.v1.store.CerbosStoreServiceGrpc;
+import dev.cerbos.api.cloud.v2.epdp.BundleServiceGrpc;
 import io.grpc.Channel;
 
+import java.nio.file.Path;
+import java.util.List;
+
 public class CerbosHubClientImpl implements CerbosHubClient {
     private final Channel channel;
     private final AuthClient authClient;
@@ -24,4 +28,10 @@ public class CerbosHubClientImpl implements CerbosHubClient {
         CerbosStoreServiceGrpc.CerbosStoreServiceBlockingV2Stub stub = CerbosStoreServiceGrpc.newBlockingV2Stub(channel).withInterceptors(new AuthInterceptor(authClient));
         return new CerbosHubStoreClientImpl(stub, timeoutMillis);
     }
+
+    @Override
+    public CerbosHubBundleClient bundleClient(String ruleId, List<String> scopes, Path cacheDir) {
+        BundleServiceGrpc.BundleServiceBlockingV2Stub stub = BundleServiceGrpc.newBlockingV2Stub(channel).withInterceptors(new AuthInterceptor(authClient));
+        return new CerbosHubBundleClientImpl(stub, timeoutMillis, ruleId, scopes, cacheDir);
+    }
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.hub.exceptions;
+
+import com.google.rpc.Code;
+import com.google.rpc.Status;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.grpc.protobuf.StatusProto;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown when a bundle cannot be fetched from Cerbos Hub or stored in the local cache.
+ * More details can be obtained by inspecting {@link #getReason()}.
+ */
+public class BundleException extends Exception {
+    private final Reason reason;
+
+    BundleException(Reason reason, String message, Throwable cause) {
+        super(message, cause);
+        this.reason = reason;
+    }
+
+    public static BundleException from(Throwable cause) {
+        if (cause instanceof InvalidCredentialsException || cause.getCause() instanceof InvalidCredentialsException) {
+            return new BundleException(Reason.AUTHENTICATION_FAILED, "Bundle RPC failure", cause);
+        }
+
+        if (cause instanceof CallNotPermittedException) {
+            return new BundleException(Reason.TOO_MANY_REQUESTS, "Bundle RPC failure", cause);
+        }
+
+        Status status = StatusProto.fromThrowable(cause);
+        if (status == null) {
+            return new BundleException(Reason.UNKNOWN, "Bundle RPC failure", cause);
+        }
+        return switch (status.getCode()) {
+            case Code.UNAUTHENTICATED_VALUE -> new BundleException(Reason.AUTHENTICATION_FAILED, "Bundle RPC failure", cause);
+            case Code.PERMISSION_DENIED_VALUE -> new BundleException(Reason.PERMISSION_DENIED, "Bundle RPC failure", cause);
+            case Code.NOT_FOUND_VALUE -> new BundleException(Reason.BUNDLE_NOT_FOUND, "Bundle RPC failure", cause);
+            case Code.RESOURCE_EXHAUSTED_VALUE -> new BundleException(Reason.TOO_MANY_REQUESTS, "Bundle RPC failure", cause);
+            case Code.INVALID_ARGUMENT_VALUE -> new BundleException(Reason.INVALID_REQUEST, "Bundle RPC failure", cause);
+            default -> new BundleException(Reason.UNKNOWN, "Bundle RPC failure", cause);
+        };
+    }
+
+    public static BundleException cacheFailure(IOException cause) {
+        return new BundleException(Reason.CACHE_FAILURE, "Failed to write bundle to the cache directory", cause);
+    }
+
+    public static BundleException unexpectedResponse(String message) {
+        return new BundleException(Reason.UNKNOWN, message, null);
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public enum Reason {
+        AUTHENTICATION_FAILED,
+        BUNDLE_NOT_FOUND,
+        CACHE_FAILURE,
+        INVALID_REQUEST,
+        PERMISSION_DENIED,
+        TOO_MANY_REQUESTS,
+        UNKNOWN
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression.Operand;
+import dev.cerbos.sdk.PlanResourcesResult;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A batch of rows stored as columns of primitive arrays that query plan conditions can be evaluated against.
+ * <p>
+ * Conditions are evaluated a column at a time rather than a row at a time, which produces tight loops over primitive
+ * arrays that the JIT compiler can unroll and vectorize. String columns are dictionary encoded so that string
+ * operations are only performed once per distinct value.
+ * <p>
+ * Columns are keyed by plan variable name. Resource attributes can be given either by their full name (e.g.
+ * {@code request.resource.attr.owner}) or by the attribute name alone (e.g. {@code owner}). The arrays are not copied
+ * and must not be modified while the batch is in use.
+ */
+public final class ColumnarBatch {
+    private final int rowCount;
+    private final Map<String, Column> columns;
+
+    private ColumnarBatch(Builder builder) {
+        this.rowCount = builder.rowCount;
+        this.columns = Map.copyOf(builder.columns);
+    }
+
+    public static Builder newBuilder(int rowCount) {
+        return new Builder(rowCount);
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Evaluate the filter of the given plan against every row in the batch.
+     *
+     * @param plan Query plan
+     * @return Set of the indexes of the rows allowed by the plan
+     * @throws UnsupportedExpressionException if the plan contains expressions that cannot be evaluated against the
+     *                                        columns of this batch
+     */
+    public BitSet select(PlanResourcesResult plan) {
+        if (plan.isAlwaysAllowed()) {
+            BitSet all = new BitSet(rowCount);
+            all.set(0, rowCount);
+            return all;
+        }
+        if (plan.isAlwaysDenied()) {
+            return new BitSet(rowCount);
+        }
+        return select(plan.getRaw().getFilter().getCondition());
+    }
+
+    /**
+     * Evaluate the given plan condition against every row in the batch.
+     *
+     * @param condition Plan condition
+     * @return Set of the indexes of the rows that satisfy the condition
+     * @throws UnsupportedExpressionException if the condition contains expressions that cannot be evaluated against
+     *                                        the columns of this batch
+     */
+    public BitSet select(Operand condition) {
+        return new ColumnarEvaluator(this).evaluate(condition);
+    }
+
+    Column column(String variable) {
+        Column column = columns.get(variable);
+        if (column == null && variable.startsWith(PlanExpressions.RESOURCE_ATTR_PREFIX)) {
+            column = columns.get(variable.substring(PlanExpressions.RESOURCE_ATTR_PREFIX.length()));
+        }
+        if (column == null) {
+            throw new UnsupportedExpressionException("No column for variable " + variable);
+        }
+        return column;
+    }
+
+    abstract static class Column {
+    }
+
+    static final class LongColumn extends Column {
+        final long[] values;
+
+        LongColumn(long[] values) {
+            this.values = values;
+        }
+    }
+
+    static final class DoubleColumn extends Column {
+        final double[] values;
+
+        DoubleColumn(double[] values) {
+            this.values = values;
+        }
+    }
+
+    static final class DictionaryColumn extends Column {
+        final int[] codes;
+        final String[] dictionary;
+
+        DictionaryColumn(int[] codes, String[] dictionary) {
+            this.codes = codes;
+            this.dictionary = dictionary;
+        }
+    }
+
+    static final class BooleanColumn extends Column {
+        final BitSet values;
+
+        BooleanColumn(BitSet values) {
+            this.values = values;
+        }
+    }
+
+    public static final class Builder {
+        private final int rowCount;
+        private final Map<String, Column> columns = new HashMap<>();
+
+        private Builder(int rowCount) {
+            this.rowCount = rowCount;
+        }
+
+        public Builder withLongColumn(String variable, long[] values) {
+            checkLength(variable, values.length);
+            columns.put(variable, new LongColumn(values));
+            return this;
+        }
+
+        public Builder withDoubleColumn(String variable, double[] values) {
+            checkLength(variable, values.length);
+            columns.put(variable, new DoubleColumn(values));
+            return this;
+        }
+
+        /**
+         * Add a dictionary encoded string column.
+         *
+         * @param variable   Variable name
+         * @param codes      Index into the dictionary for each row
+         * @param dictionary Distinct values of the column
+         * @return {@link Builder}
+         */
+        public Builder withDictionaryColumn(String variable, int[] codes, String[] dictionary) {
+            checkLength(variable, codes.length);
+            columns.put(variable, new DictionaryColumn(codes, dictionary));
+            return this;
+        }
+
+        /**
+         * Add a string column, dictionary encoding the values.
+         *
+         * @param variable Variable name
+         * @param values   Value for each row
+         * @return {@link Builder}
+         */
+        public Builder withStringColumn(String variable, String[] values) {
+            checkLength(variable, values.length);
+            Map<String, Integer> index = new HashMap<>();
+            int[] codes = new int[values.length];
+            for (int i = 0; i < values.length; i++) {
+                codes[i] = index.computeIfAbsent(values[i], v -> index.size());
+            }
+            String[] dictionary = new String[index.size()];
+            index.forEach((value, code) -> dictionary[code] = value);
+            columns.put(variable, new DictionaryColumn(codes, dictionary));
+            return this;
+        }
+
+        /**
+         * Add a boolean column.
+         *
+         * @param variable Variable name
+         * @param values   Set of the indexes of the rows where the value is true
+         * @return {@link Builder}
+         */
+        public Builder withBooleanColumn(String variable, BitSet values) {
+            columns.put(variable, new BooleanColumn(values));
+            return this;
+        }
+
+        private void checkLength(String variable, int length) {
+            if (length != rowCount) {
+                throw new IllegalArgumentException(
+                        "Column " + variable + " has " + length + " values but the batch has " + rowCount + " rows");
+            }
+        }
+
+        public ColumnarBatch build() {
+            return new ColumnarBatch(this);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import com.google.protobuf.Value;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression.Operand;
+import dev.cerbos.sdk.plan.ColumnarBatch.BooleanColumn;
+import dev.cerbos.sdk.plan.ColumnarBatch.Column;
+import dev.cerbos.sdk.plan.ColumnarBatch.DictionaryColumn;
+import dev.cerbos.sdk.plan.ColumnarBatch.DoubleColumn;
+import dev.cerbos.sdk.plan.ColumnarBatch.LongColumn;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Evaluates plan conditions against a {@link ColumnarBatch}.
+ * <p>
+ * Each comparison is evaluated with a single branch-free loop over the column that writes the result directly into the
+ * words of a bit set. Logical operators combine the resulting bit sets a word at a time.
+ */
+final class ColumnarEvaluator {
+    private final ColumnarBatch batch;
+    private final int rowCount;
+
+    ColumnarEvaluator(ColumnarBatch batch) {
+        this.batch = batch;
+        this.rowCount = batch.getRowCount();
+    }
+
+    BitSet evaluate(Operand operand) {
+        switch (operand.getNodeCase()) {
+            case EXPRESSION:
+                return expression(operand.getExpression());
+            case VARIABLE:
+                Column column = batch.column(operand.getVariable());
+                if (!(column instanceof BooleanColumn)) {
+                    throw new UnsupportedExpressionException("Non-boolean variable used as a condition");
+                }
+                return (BitSet) ((BooleanColumn) column).values.clone();
+            case VALUE:
+                if (operand.getValue().getKindCase() != Value.KindCase.BOOL_VALUE) {
+                    throw new UnsupportedExpressionException("Non-boolean value used as a condition");
+                }
+                return operand.getValue().getBoolValue() ? all() : none();
+            default:
+                throw new UnsupportedExpressionException("Empty operand");
+        }
+    }
+
+    private BitSet expression(Expression expr) {
+        Operator operator = Operator.of(expr.getOperator())
+                .orElseThrow(() -> new UnsupportedExpressionException("Unsupported operator " + expr.getOperator()));
+        switch (operator) {
+            case AND: {
+                BitSet result = all();
+                for (Operand operand : expr.getOperandsList()) {
+                    result.and(evaluate(operand));
+                    if (result.isEmpty()) {
+                        break;
+                    }
+                }
+                return result;
+            }
+            case OR: {
+                BitSet result = none();
+                for (Operand operand : expr.getOperandsList()) {
+                    result.or(evaluate(operand));
+                    if (result.cardinality() == rowCount) {
+                        break;
+                    }
+                }
+                return result;
+            }
+            case NOT: {
+                PlanExpressions.requireOperands(expr, 1);
+                BitSet result = evaluate(expr.getOperands(0));
+                result.flip(0, rowCount);
+                return result;
+            }
+            case EQ:
+            case NE:
+            case LT:
+            case GT:
+            case LE:
+            case GE:
+                return comparison(operator, expr);
+            case IN:
+                return in(expr);
+            case CONTAINS:
+            case STARTS_WITH:
+            case ENDS_WITH:
+                return string(operator, expr);
+            default:
+                throw new UnsupportedExpressionException("Unsupported operator " + expr.getOperator());
+        }
+    }
+
+    private BitSet comparison(Operator operator, Expression expr) {
+        PlanExpressions.requireOperands(expr, 2);
+        Operand left = expr.getOperands(0);
+        Operand right = expr.getOperands(1);
+        if (left.getNodeCase() == Operand.NodeCase.VALUE && right.getNodeCase() == Operand.NodeCase.VARIABLE) {
+            return comparison(operator.flip(), right.getVariable(), left.getValue());
+        }
+        if (left.getNodeCase() == Operand.NodeCase.VARIABLE && right.getNodeCase() == Operand.NodeCase.VALUE) {
+            return comparison(operator, left.getVariable(), right.getValue());
+        }
+        throw new UnsupportedExpressionException("Comparisons must be between a variable and a value");
+    }
+
+    private BitSet comparison(Operator operator, String variable, Value value) {
+        Column column = batch.column(variable);
+        if (value.getKindCase() == Value.KindCase.NULL_VALUE) {
+            // Columns cannot hold nulls
+            if (operator == Operator.EQ) {
+                return none();
+            }
+            if (operator == Operator.NE) {
+                return all();
+            }
+        }
+
+        if (column instanceof LongColumn && value.getKindCase() == Value.KindCase.NUMBER_VALUE) {
+            return compareLong(operator, ((LongColumn) column).values, value.getNumberValue());
+        }
+        if (column instanceof DoubleColumn && value.getKindCase() == Value.KindCase.NUMBER_VALUE) {
+            return compareDouble(operator, ((DoubleColumn) column).values, value.getNumberValue());
+        }
+        if (column instanceof DictionaryColumn && value.getKindCase() == Value.KindCase.STRING_VALUE) {
+            DictionaryColumn dict = (DictionaryColumn) column;
+            String target = value.getStringValue();
+            boolean[] matches = new boolean[dict.dictionary.length];
+            for (int k = 0; k < matches.length; k++) {
+                String entry = dict.dictionary[k];
+                matches[k] = entry != null ? compare(operator, entry.compareTo(target)) : operator == Operator.NE;
+            }
+            return lookup(dict.codes, matches);
+        }
+        if (column instanceof BooleanColumn && value.getKindCase() == Value.KindCase.BOOL_VALUE
+                && (operator == Operator.EQ || operator == Operator.NE)) {
+            BitSet result = (BitSet) ((BooleanColumn) column).values.clone();
+            if (value.getBoolValue() != (operator == Operator.EQ)) {
+                result.flip(0, rowCount);
+            }
+            return result;
+        }
+        throw new UnsupportedExpressionException("Cannot compare column " + variable + " with " + value.getKindCase());
+    }
+
+    private BitSet in(Expression expr) {
+        PlanExpressions.requireOperands(expr, 2);
+        Operand needle = expr.getOperands(0);
+        Operand haystack = expr.getOperands(1);
+        if (needle.getNodeCase() != Operand.NodeCase.VARIABLE || haystack.getNodeCase() != Operand.NodeCase.VALUE
+                || haystack.getValue().getKindCase() != Value.KindCase.LIST_VALUE) {
+            throw new UnsupportedExpressionException("Unsupported operands for in");
+        }
+
+        Column column = batch.column(needle.getVariable());
+        List<Value> values = haystack.getValue().getListValue().getValuesList();
+        if (column instanceof DictionaryColumn) {
+            Set<String> set = new HashSet<>();
+            for (Value v : values) {
+                if (v.getKindCase() == Value.KindCase.STRING_VALUE) {
+                    set.add(v.getStringValue());
+                }
+            }
+            DictionaryColumn dict = (DictionaryColumn) column;
+            boolean[] matches = new boolean[dict.dictionary.length];
+            for (int k = 0; k < matches.length; k++) {
+                matches[k] = set.contains(dict.dictionary[k]);
+            }
+            return lookup(dict.codes, matches);
+        }
+
+        BitSet result = none();
+        for (Value v : values) {
+            if (v.getKindCase() == Value.KindCase.NUMBER_VALUE) {
+                result.or(comparison(Operator.EQ, needle.getVariable(), v));
+            }
+        }
+        return result;
+    }
+
+    private BitSet string(Operator operator, Expression expr) {
+        PlanExpressions.requireOperands(expr, 2);
+        Operand target = expr.getOperands(0);
+        Operand argument = expr.getOperands(1);
+        if (target.getNodeCase() != Operand.NodeCase.VARIABLE || argument.getNodeCase() != Operand.NodeCase.VALUE
+                || argument.getValue().getKindCase() != Value.KindCase.STRING_VALUE) {
+            throw new UnsupportedExpressionException("Unsupported operands for " + operator.getName());
+        }
+
+        Column column = batch.column(target.getVariable());
+        if (!(column instanceof DictionaryColumn)) {
+            throw new UnsupportedExpressionException("Column " + target.getVariable() + " is not a string column");
+        }
+        DictionaryColumn dict = (DictionaryColumn) column;
+        String arg = argument.getValue().getStringValue();
+        boolean[] matches = new boolean[dict.dictionary.length];
+        for (int k = 0; k < matches.length; k++) {
+            String entry = dict.dictionary[k];
+            if (entry == null) {
+                continue;
+            }
+            switch (operator) {
+                case STARTS_WITH:
+                    matches[k] = entry.startsWith(arg);
+                    break;
+                case ENDS_WITH:
+                    matches[k] = entry.endsWith(arg);
+                    break;
+                default:
+                    matches[k] = entry.contains(arg);
+            }
+        }
+        return lookup(dict.codes, matches);
+    }
+
+    private BitSet compareLong(Operator operator, long[] values, double target) {
+        // Convert the threshold to an integer so the loops only compare longs
+        boolean integral = target == Math.rint(target) && !Double.isInfinite(target);
+        long floor = (long) Math.floor(target);
+        long ceil = (long) Math.ceil(target);
+        long[] words = new long[words()];
+        switch (operator) {
+            case EQ:
+            case NE:
+                if (integral) {
+                    for (int i = 0; i < rowCount; i++) {
+                        words[i >>> 6] |= (values[i] == floor ? 1L : 0L) << i;
+                    }
+                }
+                BitSet eq = BitSet.valueOf(words);
+                if (operator == Operator.NE) {
+                    eq.flip(0, rowCount);
+                }
+                return eq;
+            case LT:
+                for (int i = 0; i < rowCount; i++) {
+                    words[i >>> 6] |= (values[i] < ceil ? 1L : 0L) << i;
+                }
+                break;
+            case LE:
+                for (int i = 0; i < rowCount; i++) {
+                    words[i >>> 6] |= (values[i] <= floor ? 1L : 0L) << i;
+                }
+                break;
+            case GT:
+                for (int i = 0; i < rowCount; i++) {
+                    words[i >>> 6] |= (values[i] > floor ? 1L : 0L) << i;
+                }
+                break;
+            case GE:
+                for (int i = 0; i < rowCount; i++) {
+                    words[i >>> 6] |= (values[i] >= ceil ? 1L : 0L) << i;
+                }
+                break;
+            default:
+                throw new UnsupportedExpressionException("Not a comparison operator: " + operator.getName());
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private BitSet compareDouble(Operator operator, double[] values, double target) {
+        long[] words = new long[words()];
+        switch (operator) {
+            case EQ:
+                for (int i = 0; i < rowCount; i++) {
+                    words[i >>> 6] |= (values[i] == target ? 1L : 0L) << i;
+                }
+                break;
+            case NE:
+                for (int i = 0; i < rowCount; i++) {
+                    words[i >>> 6] |= (values[i] != target ? 1L : 0L) << i;
+                }
+                break;
+            case LT:
+                for (int i = 0; i < rowCount; i++) {
+                    words[i >>> 6] |= (values[i] < target ? 1L : 0L) << i;
+                }
+                break;
+            case LE:
+                for (int i = 0; i < rowCount; i++) {
+                    words[i >>> 6] |= (values[i] <= target ? 1L : 0L) << i;
+                }
+                break;
+            case GT:
+                for (int i = 0; i < rowCount; i++) {
+                    words[i >>> 6] |= (values[i] > target ? 1L : 0L) << i;
+                }
+                break;
+            case GE:
+                for (int i = 0; i < rowCount; i++) {
+                    words[i >>> 6] |= (values[i] >= target ? 1L : 0L) << i;
+                }
+                break;
+            default:
+                throw new UnsupportedExpressionException("Not a comparison operator: " + operator.getName());
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private BitSet lookup(int[] codes, boolean[] matches) {
+        long[] words = new long[words()];
+        for (int i = 0; i < rowCount; i++) {
+            words[i >>> 6] |= (matches[codes[i]] ? 1L : 0L) << i;
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private static boolean compare(Operator operator, int comparison) {
+        switch (operator) {
+            case EQ:
+                return comparison == 0;
+            case NE:
+                return comparison != 0;
+            case LT:
+                return comparison < 0;
+            case LE:
+                return comparison <= 0;
+            case GT:
+                return comparison > 0;
+            case GE:
+                return comparison >= 0;
+            default:
+                throw new UnsupportedExpressionException("Not a comparison operator: " + operator.getName());
+        }
+    }
+
+    private int words() {
+        return (rowCount + 63) >>> 6;
+    }
+
+    private BitSet all() {
+        BitSet all = new BitSet(rowCount);
+        all.set(0, rowCount);
+        return all;
+    }
+
+    private BitSet none() {
+        return new BitSet(rowCount);
+    }
+}
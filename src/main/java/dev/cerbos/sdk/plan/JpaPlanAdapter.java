@@ -0,0 +1,559 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import com.google.protobuf.Value;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression.Operand;
+import dev.cerbos.sdk.PlanResourcesResult;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Converts query plans into JPA Criteria API predicates so that the authorization filter can be applied by the
+ * database.
+ * <p>
+ * Plan variables are mapped to attribute paths relative to the query root. Paths can navigate through embedded or
+ * associated entities using dots (e.g. {@code owner.username}). Constants from the plan are converted to the Java type
+ * of the attribute they are compared with, so numeric and enum attributes can be used directly. Fractional numbers
+ * compared with integral attributes are rounded in the direction that keeps the comparison exact, so {@code x < 2.5}
+ * becomes {@code x < 3} and {@code x == 2.5} matches nothing.
+ * <p>
+ * Instances are immutable and thread-safe.
+ *
+ * @param <T> Entity type
+ */
+public final class JpaPlanAdapter<T> {
+
+    private final Class<T> entityType;
+    private final Map<String, String> paths;
+    private final Function<String, String> pathResolver;
+
+    private JpaPlanAdapter(Builder<T> builder) {
+        this.entityType = builder.entityType;
+        this.paths = Map.copyOf(builder.paths);
+        this.pathResolver = builder.pathResolver;
+    }
+
+    public static <T> Builder<T> newBuilder(Class<T> entityType) {
+        return new Builder<>(entityType);
+    }
+
+    /**
+     * Find the entities allowed by the plan.
+     * If the plan is always denied, the database is not queried at all. If it is always allowed, no filter is applied.
+     *
+     * @param entityManager Entity manager
+     * @param plan          Query plan
+     * @return Allowed entities
+     * @throws UnsupportedExpressionException if the plan contains expressions that cannot be translated
+     */
+    public List<T> findAllowed(EntityManager entityManager, PlanResourcesResult plan) {
+        if (plan.isAlwaysDenied()) {
+            return List.of();
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityType);
+        Root<T> root = query.from(entityType);
+        query.select(root);
+        if (!plan.isAlwaysAllowed()) {
+            query.where(toPredicate(plan.getRaw().getFilter().getCondition(), root, cb));
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /**
+     * Convert the filter of the given plan into a predicate.
+     * Always allowed plans produce {@link CriteriaBuilder#conjunction()} and always denied plans produce
+     * {@link CriteriaBuilder#disjunction()}. Check {@link PlanResourcesResult#isAlwaysDenied()} before building the
+     * query to avoid running it at all.
+     *
+     * @param plan Query plan
+     * @param root Query root
+     * @param cb   Criteria builder
+     * @return {@link Predicate}
+     * @throws UnsupportedExpressionException if the plan contains expressions that cannot be translated
+     */
+    public Predicate toPredicate(PlanResourcesResult plan, Root<? extends T> root, CriteriaBuilder cb) {
+        if (plan.isAlwaysAllowed()) {
+            return cb.conjunction();
+        }
+        if (plan.isAlwaysDenied()) {
+            return cb.disjunction();
+        }
+        return toPredicate(plan.getRaw().getFilter().getCondition(), root, cb);
+    }
+
+    /**
+     * Convert the given plan condition into a predicate.
+     *
+     * @param condition Plan condition
+     * @param root      Query root
+     * @param cb        Criteria builder
+     * @return {@link Predicate}
+     * @throws UnsupportedExpressionException if the condition contains expressions that cannot be translated
+     */
+    public Predicate toPredicate(Operand condition, Root<? extends T> root, CriteriaBuilder cb) {
+        return new Translator(root, cb).condition(condition);
+    }
+
+    private String path(String variable) {
+        String path = paths.get(variable);
+        if (path == null && variable.startsWith(PlanExpressions.RESOURCE_ATTR_PREFIX)) {
+            path = paths.get(variable.substring(PlanExpressions.RESOURCE_ATTR_PREFIX.length()));
+        }
+        if (path == null && pathResolver != null) {
+            path = pathResolver.apply(variable);
+        }
+        if (path == null) {
+            throw new UnsupportedExpressionException("No attribute path for variable " + variable);
+        }
+        return path;
+    }
+
+    private final class Translator {
+        private final Root<? extends T> root;
+        private final CriteriaBuilder cb;
+
+        Translator(Root<? extends T> root, CriteriaBuilder cb) {
+            this.root = root;
+            this.cb = cb;
+        }
+
+        Predicate condition(Operand operand) {
+            switch (operand.getNodeCase()) {
+                case EXPRESSION:
+                    return expression(operand.getExpression());
+                case VARIABLE:
+                    return cb.isTrue(attribute(operand.getVariable()).as(Boolean.class));
+                case VALUE:
+                    if (operand.getValue().getKindCase() != Value.KindCase.BOOL_VALUE) {
+                        throw new UnsupportedExpressionException("Non-boolean value used as a condition");
+                    }
+                    return operand.getValue().getBoolValue() ? cb.conjunction() : cb.disjunction();
+                default:
+                    throw new UnsupportedExpressionException("Empty operand");
+            }
+        }
+
+        private Predicate expression(Expression expr) {
+            Operator operator = Operator.of(expr.getOperator())
+                    .orElseThrow(() -> new UnsupportedExpressionException("Unsupported operator " + expr.getOperator()));
+            switch (operator) {
+                case AND:
+                    return cb.and(conditions(expr));
+                case OR:
+                    return cb.or(conditions(expr));
+                case NOT:
+                    PlanExpressions.requireOperands(expr, 1);
+                    return cb.not(condition(expr.getOperands(0)));
+                case EQ:
+                case NE:
+                case LT:
+                case GT:
+                case LE:
+                case GE:
+                    return comparison(operator, expr);
+                case IN:
+                    return in(expr);
+                case HAS_INTERSECTION:
+                    return hasIntersection(expr);
+                case CONTAINS:
+                case STARTS_WITH:
+                case ENDS_WITH:
+                    return like(operator, expr);
+                default:
+                    throw new UnsupportedExpressionException("Unsupported operator " + expr.getOperator());
+            }
+        }
+
+        private Predicate[] conditions(Expression expr) {
+            Predicate[] predicates = new Predicate[expr.getOperandsCount()];
+            for (int i = 0; i < predicates.length; i++) {
+                predicates[i] = condition(expr.getOperands(i));
+            }
+            return predicates;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Predicate comparison(Operator operator, Expression expr) {
+            PlanExpressions.requireOperands(expr, 2);
+            Operand left = expr.getOperands(0);
+            Operand right = expr.getOperands(1);
+            if (left.getNodeCase() == Operand.NodeCase.VARIABLE && right.getNodeCase() == Operand.NodeCase.VARIABLE) {
+                Path l = attribute(left.getVariable());
+                Path r = attribute(right.getVariable());
+                switch (operator) {
+                    case EQ:
+                        return cb.equal(l, r);
+                    case NE:
+                        return cb.notEqual(l, r);
+                    case LT:
+                        return cb.lessThan(l, r);
+                    case GT:
+                        return cb.greaterThan(l, r);
+                    case LE:
+                        return cb.lessThanOrEqualTo(l, r);
+                    default:
+                        return cb.greaterThanOrEqualTo(l, r);
+                }
+            }
+
+            if (left.getNodeCase() == Operand.NodeCase.VALUE && right.getNodeCase() == Operand.NodeCase.VARIABLE) {
+                return comparison(operator.flip(), right.getVariable(), left.getValue());
+            }
+            if (left.getNodeCase() == Operand.NodeCase.VARIABLE && right.getNodeCase() == Operand.NodeCase.VALUE) {
+                return comparison(operator, left.getVariable(), right.getValue());
+            }
+            throw new UnsupportedExpressionException("Unsupported operands for " + operator.getName());
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Predicate comparison(Operator operator, String variable, Value value) {
+            Path path = attribute(variable);
+            if (value.getKindCase() == Value.KindCase.NULL_VALUE) {
+                if (operator == Operator.EQ) {
+                    return cb.isNull(path);
+                }
+                if (operator == Operator.NE) {
+                    return cb.isNotNull(path);
+                }
+                throw new UnsupportedExpressionException("Cannot compare " + variable + " with null");
+            }
+
+            Class<?> type = path.getJavaType();
+            if (value.getKindCase() == Value.KindCase.NUMBER_VALUE && isIntegral(type)) {
+                Optional<Object> constant = coerce(value, type, rounding(operator));
+                if (constant.isEmpty()) {
+                    return unrepresentable(operator, path, value.getNumberValue());
+                }
+                return compare(operator, path, constant.get());
+            }
+            Optional<Object> constant = coerce(value, type, RoundingMode.UNNECESSARY);
+            if (constant.isEmpty() && operator == Operator.EQ) {
+                return cb.disjunction();
+            }
+            if (constant.isEmpty() && operator == Operator.NE) {
+                return cb.isNotNull(path);
+            }
+            return compare(operator, path, constant
+                    .orElseThrow(() -> new UnsupportedExpressionException("Cannot convert value for " + variable)));
+        }
+
+        /**
+         * Comparison with a number that the integral attribute can't hold: one that is out of range, NaN or, for
+         * equality, not integral.
+         */
+        private Predicate unrepresentable(Operator operator, Path<?> path, double value) {
+            switch (operator) {
+                case NE:
+                    return cb.isNotNull(path);
+                case LT:
+                case LE:
+                    return value > 0 ? cb.isNotNull(path) : cb.disjunction();
+                case GT:
+                case GE:
+                    return value < 0 ? cb.isNotNull(path) : cb.disjunction();
+                default:
+                    return cb.disjunction();
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Predicate compare(Operator operator, Path path, Object constant) {
+            switch (operator) {
+                case EQ:
+                    return cb.equal(path, constant);
+                case NE:
+                    return cb.notEqual(path, constant);
+                case LT:
+                    return cb.lessThan(path, (Comparable) constant);
+                case GT:
+                    return cb.greaterThan(path, (Comparable) constant);
+                case LE:
+                    return cb.lessThanOrEqualTo(path, (Comparable) constant);
+                case GE:
+                    return cb.greaterThanOrEqualTo(path, (Comparable) constant);
+                default:
+                    throw new UnsupportedExpressionException("Not a comparison operator: " + operator.getName());
+            }
+        }
+
+        private Predicate in(Expression expr) {
+            PlanExpressions.requireOperands(expr, 2);
+            Operand needle = expr.getOperands(0);
+            Operand haystack = expr.getOperands(1);
+            if (needle.getNodeCase() == Operand.NodeCase.VARIABLE && isList(haystack)) {
+                Path<?> path = attribute(needle.getVariable());
+                List<Object> values = coerceAll(haystack.getValue(), path.getJavaType());
+                if (values.isEmpty()) {
+                    return cb.disjunction();
+                }
+                return path.in(values);
+            }
+
+            if (needle.getNodeCase() == Operand.NodeCase.VALUE && haystack.getNodeCase() == Operand.NodeCase.VARIABLE) {
+                return isMember(needle.getValue(), collection(haystack.getVariable()));
+            }
+
+            throw new UnsupportedExpressionException("Unsupported operands for in");
+        }
+
+        private Predicate hasIntersection(Expression expr) {
+            PlanExpressions.requireOperands(expr, 2);
+            Operand left = expr.getOperands(0);
+            Operand right = expr.getOperands(1);
+            Operand variable;
+            Operand list;
+            if (left.getNodeCase() == Operand.NodeCase.VARIABLE && isList(right)) {
+                variable = left;
+                list = right;
+            } else if (isList(left) && right.getNodeCase() == Operand.NodeCase.VARIABLE) {
+                variable = right;
+                list = left;
+            } else {
+                throw new UnsupportedExpressionException("Unsupported operands for hasIntersection");
+            }
+
+            Path<Collection<Object>> collection = collection(variable.getVariable());
+            List<Predicate> members = new ArrayList<>();
+            for (Value value : list.getValue().getListValue().getValuesList()) {
+                members.add(isMember(value, collection));
+            }
+            return cb.or(members.toArray(new Predicate[0]));
+        }
+
+        private Predicate like(Operator operator, Expression expr) {
+            PlanExpressions.requireOperands(expr, 2);
+            Operand target = expr.getOperands(0);
+            Operand pattern = expr.getOperands(1);
+            if (target.getNodeCase() != Operand.NodeCase.VARIABLE || pattern.getNodeCase() != Operand.NodeCase.VALUE
+                    || pattern.getValue().getKindCase() != Value.KindCase.STRING_VALUE) {
+                throw new UnsupportedExpressionException("Unsupported operands for " + operator.getName());
+            }
+
+            String escaped = PlanExpressions.escapeLike(pattern.getValue().getStringValue());
+            String like;
+            switch (operator) {
+                case STARTS_WITH:
+                    like = escaped + "%";
+                    break;
+                case ENDS_WITH:
+                    like = "%" + escaped;
+                    break;
+                default:
+                    like = "%" + escaped + "%";
+            }
+            return cb.like(attribute(target.getVariable()).as(String.class), like, '\\');
+        }
+
+        private Predicate isMember(Value value, Path<Collection<Object>> collection) {
+            if (value.getKindCase() == Value.KindCase.LIST_VALUE || value.getKindCase() == Value.KindCase.STRUCT_VALUE
+                    || value.getKindCase() == Value.KindCase.NULL_VALUE) {
+                throw new UnsupportedExpressionException("Unsupported collection member " + value.getKindCase());
+            }
+            // The bindable type of a collection attribute is the type of its elements
+            Class<?> elementType = collection.getModel().getBindableJavaType();
+            return coerce(value, elementType, RoundingMode.UNNECESSARY)
+                    .map(member -> cb.isMember(member, collection))
+                    .orElseGet(cb::disjunction);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Path<Collection<Object>> collection(String variable) {
+            return (Path<Collection<Object>>) attribute(variable);
+        }
+
+        private Path<?> attribute(String variable) {
+            Path<?> path = root;
+            for (String part : path(variable).split("\\.")) {
+                path = path.get(part);
+            }
+            return path;
+        }
+    }
+
+    private static Object constant(Value value) {
+        switch (value.getKindCase()) {
+            case BOOL_VALUE:
+                return value.getBoolValue();
+            case NUMBER_VALUE:
+                double d = value.getNumberValue();
+                if (d == Math.rint(d) && Math.abs(d) < PlanExpressions.MAX_EXACT_INTEGER) {
+                    return (long) d;
+                }
+                return d;
+            case STRING_VALUE:
+                return value.getStringValue();
+            default:
+                throw new UnsupportedExpressionException("Unsupported value: " + value.getKindCase());
+        }
+    }
+
+    /**
+     * Convert the members of a list, dropping values that the attribute can't be equal to.
+     */
+    private static List<Object> coerceAll(Value list, Class<?> type) {
+        List<Object> values = new ArrayList<>(list.getListValue().getValuesCount());
+        for (Value value : list.getListValue().getValuesList()) {
+            coerce(value, type, RoundingMode.UNNECESSARY).ifPresent(values::add);
+        }
+        return values;
+    }
+
+    /**
+     * Convert a plan value to the boxed Java type of the attribute it is compared with.
+     * Numbers are rounded to integral types with the given rounding mode. Returns empty if the number can't be held
+     * by the integral type because it is out of range, NaN or infinite, or not integral and the rounding mode is
+     * {@link RoundingMode#UNNECESSARY}, and for strings that don't name a constant of an enum type. Values of other
+     * types are returned as they are.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Optional<Object> coerce(Value value, Class<?> type, RoundingMode rounding) {
+        if (value.getKindCase() == Value.KindCase.NUMBER_VALUE) {
+            double d = value.getNumberValue();
+            if (isIntegral(type)) {
+                return integral(d, type, rounding);
+            }
+            if (type == Float.class || type == float.class) {
+                return Optional.of((float) d);
+            }
+            if (type == Double.class || type == double.class) {
+                return Optional.of(d);
+            }
+            if (type == BigDecimal.class) {
+                return Optional.of(BigDecimal.valueOf(d));
+            }
+        }
+        if (value.getKindCase() == Value.KindCase.STRING_VALUE && type.isEnum()) {
+            try {
+                return Optional.of(Enum.valueOf((Class<? extends Enum>) type, value.getStringValue()));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(constant(value));
+    }
+
+    private static Optional<Object> integral(double value, Class<?> type, RoundingMode rounding) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return Optional.empty();
+        }
+        BigInteger rounded;
+        try {
+            rounded = new BigDecimal(value).setScale(0, rounding).toBigIntegerExact();
+        } catch (ArithmeticException e) {
+            return Optional.empty();
+        }
+
+        if (type == BigInteger.class) {
+            return Optional.of(rounded);
+        }
+        if (rounded.bitLength() > 63) {
+            return Optional.empty();
+        }
+        long l = rounded.longValue();
+        if (type == Long.class || type == long.class) {
+            return Optional.of(l);
+        }
+        if (type == Integer.class || type == int.class) {
+            return l == (int) l ? Optional.of((int) l) : Optional.empty();
+        }
+        if (type == Short.class || type == short.class) {
+            return l == (short) l ? Optional.of((short) l) : Optional.empty();
+        }
+        return l == (byte) l ? Optional.of((byte) l) : Optional.empty();
+    }
+
+    private static boolean isIntegral(Class<?> type) {
+        return type == Integer.class || type == int.class || type == Long.class || type == long.class
+                || type == Short.class || type == short.class || type == Byte.class || type == byte.class
+                || type == BigInteger.class;
+    }
+
+    /**
+     * Rounding that keeps a comparison of an integral attribute with a fractional number exact: {@code x < 2.5} and
+     * {@code x >= 2.5} round up, {@code x <= 2.5} and {@code x > 2.5} round down, and equality can't hold.
+     */
+    static RoundingMode rounding(Operator operator) {
+        switch (operator) {
+            case LT:
+            case GE:
+                return RoundingMode.CEILING;
+            case LE:
+            case GT:
+                return RoundingMode.FLOOR;
+            default:
+                return RoundingMode.UNNECESSARY;
+        }
+    }
+
+    private static boolean isList(Operand operand) {
+        return operand.getNodeCase() == Operand.NodeCase.VALUE
+                && operand.getValue().getKindCase() == Value.KindCase.LIST_VALUE;
+    }
+
+    public static final class Builder<T> {
+        private final Class<T> entityType;
+        private final Map<String, String> paths = new HashMap<>();
+        private Function<String, String> pathResolver;
+
+        private Builder(Class<T> entityType) {
+            this.entityType = entityType;
+        }
+
+        /**
+         * Map a plan variable to an attribute path.
+         * Resource attributes can be given either by their full name (e.g. {@code request.resource.attr.owner}) or by
+         * the attribute name alone (e.g. {@code owner}).
+         *
+         * @param variable Variable name
+         * @param path     Attribute path relative to the query root, e.g. {@code owner.username}
+         * @return {@link Builder}
+         */
+        public Builder<T> withAttributePath(String variable, String path) {
+            this.paths.put(variable, path);
+            return this;
+        }
+
+        public Builder<T> withAttributePaths(Map<String, String> paths) {
+            this.paths.putAll(paths);
+            return this;
+        }
+
+        /**
+         * Set a function to resolve attribute paths for variables that don't have an explicit mapping.
+         * The function receives the full variable name and should return null if the variable cannot be mapped.
+         *
+         * @param pathResolver Resolver function
+         * @return {@link Builder}
+         */
+        public Builder<T> withPathResolver(Function<String, String> pathResolver) {
+            this.pathResolver = pathResolver;
+            return this;
+        }
+
+        public JpaPlanAdapter<T> build() {
+            return new JpaPlanAdapter<>(this);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import com.google.protobuf.Value;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression.Operand;
+
+/**
+ * Plan condition produced by {@link PlanNormalizer}.
+ * Conditions that are logically equivalent after normalization have the same canonical form and hash, so the hash can
+ * be used to key caches of compiled queries or query results.
+ */
+public final class NormalizedCondition {
+    private final Operand condition;
+    private final String canonicalForm;
+    private final String hash;
+
+    NormalizedCondition(Operand condition, String canonicalForm, String hash) {
+        this.condition = condition;
+        this.canonicalForm = canonicalForm;
+        this.hash = hash;
+    }
+
+    /**
+     * Returns the normalized condition.
+     *
+     * @return Plan condition
+     */
+    public Operand getCondition() {
+        return condition;
+    }
+
+    /**
+     * Returns a textual representation of the condition that is identical for equal normalized conditions.
+     *
+     * @return Canonical form
+     */
+    public String getCanonicalForm() {
+        return canonicalForm;
+    }
+
+    /**
+     * Returns a 128-bit hash of the canonical form as a hex string.
+     *
+     * @return Canonical hash
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * Returns true if the condition was simplified to a constant true value.
+     *
+     * @return True if the condition is always true
+     */
+    public boolean isAlwaysTrue() {
+        return isConstant(true);
+    }
+
+    /**
+     * Returns true if the condition was simplified to a constant false value.
+     *
+     * @return True if the condition is always false
+     */
+    public boolean isAlwaysFalse() {
+        return isConstant(false);
+    }
+
+    private boolean isConstant(boolean value) {
+        return condition.getNodeCase() == Operand.NodeCase.VALUE
+                && condition.getValue().getKindCase() == Value.KindCase.BOOL_VALUE
+                && condition.getValue().getBoolValue() == value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NormalizedCondition)) {
+            return false;
+        }
+        return canonicalForm.equals(((NormalizedCondition) o).canonicalForm);
+    }
+
+    @Override
+    public int hashCode() {
+        return canonicalForm.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return canonicalForm;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Operators that can appear in the expressions of a query plan filter.
+ */
+public enum Operator {
+    AND("and"),
+    OR("or"),
+    NOT("not"),
+    EQ("eq"),
+    NE("ne"),
+    LT("lt"),
+    GT("gt"),
+    LE("le"),
+    GE("ge"),
+    IN("in"),
+    HAS_INTERSECTION("hasIntersection"),
+    CONTAINS("contains"),
+    STARTS_WITH("startsWith"),
+    ENDS_WITH("endsWith");
+
+    private static final Map<String, Operator> BY_NAME = new HashMap<>();
+
+    static {
+        for (Operator op : values()) {
+            BY_NAME.put(op.name, op);
+        }
+    }
+
+    private final String name;
+
+    Operator(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Look up an operator by the name used in query plans.
+     *
+     * @param name Operator name
+     * @return Operator or empty if the operator is not known to the SDK
+     */
+    public static Optional<Operator> of(String name) {
+        return Optional.ofNullable(BY_NAME.get(name));
+    }
+
+    /**
+     * Returns the name of this operator as used in query plans.
+     *
+     * @return Operator name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the operator that gives the same result when the operands are swapped, such as {@link #GT} for
+     * {@link #LT}. Operators other than the ordering comparisons are returned as they are.
+     *
+     * @return Operator for the swapped operands
+     */
+    Operator flip() {
+        switch (this) {
+            case LT:
+                return GT;
+            case GT:
+                return LT;
+            case LE:
+                return GE;
+            case GE:
+                return LE;
+            default:
+                return this;
+        }
+    }
+}
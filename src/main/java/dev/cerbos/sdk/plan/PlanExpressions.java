@@ -0,0 +1,58 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression;
+
+/**
+ * Helpers shared by the translators of query plan expressions.
+ */
+final class PlanExpressions {
+    /**
+     * Prefix of the variables that refer to resource attributes.
+     */
+    static final String RESOURCE_ATTR_PREFIX = "request.resource.attr.";
+
+    /**
+     * Magnitude below which every integral double is exactly representable as a long, and so can be passed on as one.
+     */
+    static final double MAX_EXACT_INTEGER = 0x1p53;
+
+    private PlanExpressions() {
+    }
+
+    /**
+     * Check the number of operands of an expression.
+     *
+     * @param expr  Plan expression
+     * @param count Expected number of operands
+     * @throws UnsupportedExpressionException if the expression has a different number of operands
+     */
+    static void requireOperands(Expression expr, int count) {
+        if (expr.getOperandsCount() != count) {
+            throw new UnsupportedExpressionException("Expected " + count + " operands for " + expr.getOperator()
+                    + " but got " + expr.getOperandsCount());
+        }
+    }
+
+    /**
+     * Escape the wildcards of a LIKE pattern using {@code \} as the escape character.
+     *
+     * @param value Literal value
+     * @return Value matching itself in a LIKE pattern with {@code ESCAPE '\'}
+     */
+    static String escapeLike(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,412 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import com.google.common.hash.Hashing;
+import com.google.protobuf.Value;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression.Operand;
+import dev.cerbos.sdk.PlanResourcesResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+
+/**
+ * Simplifies query plan conditions and brings them into a canonical form.
+ * <p>
+ * The following rewrites are applied bottom-up:
+ * <ul>
+ *     <li>nested {@code and}/{@code or} expressions are flattened and single operand ones are replaced by the
+ *     operand</li>
+ *     <li>duplicate operands of {@code and}/{@code or} are removed and the rest are sorted into a canonical order</li>
+ *     <li>constants are folded: {@code true} operands are dropped from {@code and} and {@code false} operands from
+ *     {@code or}, absorbing constants replace the whole expression, {@code eq}, {@code ne} and {@code in} between
+ *     constants are evaluated, and so are {@code lt}, {@code le}, {@code gt} and {@code ge} between two numbers or
+ *     two strings</li>
+ *     <li>{@code x} and its negation in the same {@code and} ({@code or}) become {@code false} ({@code true})</li>
+ *     <li>double negation is removed and negated {@code eq}/{@code ne} are inverted</li>
+ *     <li>comparisons with the value on the left are rewritten to put the variable first</li>
+ * </ul>
+ */
+public final class PlanNormalizer {
+    private static final Operand TRUE = Operand.newBuilder().setValue(Value.newBuilder().setBoolValue(true)).build();
+    private static final Operand FALSE = Operand.newBuilder().setValue(Value.newBuilder().setBoolValue(false)).build();
+    // Values sort after variables and expressions
+    private static final Comparator<Node> EQUALITY_ORDER = Comparator
+            .<Node>comparingInt(n -> n.operand.getNodeCase() == Operand.NodeCase.VALUE ? 1 : 0)
+            .thenComparing(n -> n.key);
+
+    private PlanNormalizer() {
+    }
+
+    /**
+     * Normalize the filter of the given plan.
+     *
+     * @param plan Query plan
+     * @return {@link NormalizedCondition}
+     */
+    public static NormalizedCondition normalize(PlanResourcesResult plan) {
+        if (plan.isAlwaysAllowed()) {
+            return normalize(TRUE);
+        }
+        if (plan.isAlwaysDenied()) {
+            return normalize(FALSE);
+        }
+        return normalize(plan.getRaw().getFilter().getCondition());
+    }
+
+    /**
+     * Normalize the given plan condition.
+     *
+     * @param condition Plan condition
+     * @return {@link NormalizedCondition}
+     */
+    public static NormalizedCondition normalize(Operand condition) {
+        Node node = node(condition);
+        String hash = Hashing.murmur3_128().hashString(node.key, StandardCharsets.UTF_8).toString();
+        return new NormalizedCondition(node.operand, node.key, hash);
+    }
+
+    private static Node node(Operand operand) {
+        switch (operand.getNodeCase()) {
+            case EXPRESSION:
+                return expression(operand.getExpression());
+            case VARIABLE:
+                return new Node(operand, variableKey(operand.getVariable()), List.of());
+            case VALUE:
+                return new Node(operand, valueKey(operand.getValue()), List.of());
+            default:
+                return new Node(operand, "_", List.of());
+        }
+    }
+
+    private static Node expression(Expression expr) {
+        List<Node> operands = new ArrayList<>(expr.getOperandsCount());
+        for (Operand operand : expr.getOperandsList()) {
+            operands.add(node(operand));
+        }
+
+        Optional<Operator> operator = Operator.of(expr.getOperator());
+        if (operator.isEmpty()) {
+            return build(expr.getOperator(), operands);
+        }
+
+        switch (operator.get()) {
+            case AND:
+                return junction(Operator.AND, operands);
+            case OR:
+                return junction(Operator.OR, operands);
+            case NOT:
+                return not(operands);
+            case EQ:
+            case NE:
+                return equality(operator.get(), operands);
+            case LT:
+            case GT:
+            case LE:
+            case GE:
+                return ordering(operator.get(), operands);
+            case IN:
+                if (operands.size() == 2 && isValue(operands.get(0)) && isValue(operands.get(1))
+                        && operands.get(1).operand.getValue().getKindCase() == Value.KindCase.LIST_VALUE) {
+                    Value needle = operands.get(0).operand.getValue();
+                    boolean unknown = false;
+                    for (Value v : operands.get(1).operand.getValue().getListValue().getValuesList()) {
+                        Optional<Boolean> equal = equal(needle, v);
+                        if (equal.isEmpty()) {
+                            unknown = true;
+                        } else if (equal.get()) {
+                            return constant(true);
+                        }
+                    }
+                    if (!unknown) {
+                        return constant(false);
+                    }
+                }
+                return build(expr.getOperator(), operands);
+            default:
+                return build(expr.getOperator(), operands);
+        }
+    }
+
+    private static Node junction(Operator operator, List<Node> operands) {
+        boolean identity = operator == Operator.AND;
+        // Flatten, drop identity constants and remove duplicates
+        Map<String, Node> unique = new TreeMap<>();
+        for (Node node : operands) {
+            if (isExpression(node, operator)) {
+                for (Node nested : node.children) {
+                    unique.putIfAbsent(nested.key, nested);
+                }
+                continue;
+            }
+            if (isConstant(node, !identity)) {
+                return constant(!identity);
+            }
+            if (!isConstant(node, identity)) {
+                unique.putIfAbsent(node.key, node);
+            }
+        }
+
+        for (Node node : unique.values()) {
+            String complement = complementKey(node);
+            if (complement != null && unique.containsKey(complement)) {
+                return constant(!identity);
+            }
+        }
+
+        if (unique.isEmpty()) {
+            return constant(identity);
+        }
+        if (unique.size() == 1) {
+            return unique.values().iterator().next();
+        }
+        return build(operator.getName(), new ArrayList<>(unique.values()));
+    }
+
+    private static Node not(List<Node> operands) {
+        if (operands.size() != 1) {
+            return build(Operator.NOT.getName(), operands);
+        }
+
+        Node operand = operands.get(0);
+        if (isConstant(operand, true) || isConstant(operand, false)) {
+            return constant(!operand.operand.getValue().getBoolValue());
+        }
+        if (isExpression(operand, Operator.NOT) && operand.children.size() == 1) {
+            return operand.children.get(0);
+        }
+        if (isExpression(operand, Operator.EQ) || isExpression(operand, Operator.NE)) {
+            String inverted = isExpression(operand, Operator.EQ) ? Operator.NE.getName() : Operator.EQ.getName();
+            return build(inverted, operand.children);
+        }
+        return build(Operator.NOT.getName(), operands);
+    }
+
+    private static String complementKey(Node node) {
+        if (isExpression(node, Operator.NOT) && node.children.size() == 1) {
+            return node.children.get(0).key;
+        }
+        if (isExpression(node, Operator.EQ)) {
+            return "(" + Operator.NE.getName() + node.key.substring(3);
+        }
+        if (isExpression(node, Operator.NE)) {
+            return "(" + Operator.EQ.getName() + node.key.substring(3);
+        }
+        return null;
+    }
+
+    private static Node equality(Operator operator, List<Node> operands) {
+        if (operands.size() != 2) {
+            return build(operator.getName(), operands);
+        }
+
+        Node left = operands.get(0);
+        Node right = operands.get(1);
+        if (isValue(left) && isValue(right)) {
+            Optional<Boolean> equal = equal(left.operand.getValue(), right.operand.getValue());
+            if (equal.isPresent()) {
+                return constant(equal.get() == (operator == Operator.EQ));
+            }
+            return build(operator.getName(), operands);
+        }
+        // Equality is symmetric so order the operands canonically
+        if (EQUALITY_ORDER.compare(left, right) > 0) {
+            return build(operator.getName(), List.of(right, left));
+        }
+        return build(operator.getName(), operands);
+    }
+
+    private static Node ordering(Operator operator, List<Node> operands) {
+        if (operands.size() == 2 && isValue(operands.get(0)) && isVariable(operands.get(1))) {
+            return build(operator.flip().getName(), List.of(operands.get(1), operands.get(0)));
+        }
+        if (operands.size() == 2 && isValue(operands.get(0)) && isValue(operands.get(1))) {
+            OptionalInt cmp = compare(operands.get(0).operand.getValue(), operands.get(1).operand.getValue());
+            if (cmp.isPresent()) {
+                switch (operator) {
+                    case LT:
+                        return constant(cmp.getAsInt() < 0);
+                    case LE:
+                        return constant(cmp.getAsInt() <= 0);
+                    case GT:
+                        return constant(cmp.getAsInt() > 0);
+                    default:
+                        return constant(cmp.getAsInt() >= 0);
+                }
+            }
+        }
+        return build(operator.getName(), operands);
+    }
+
+    /**
+     * Whether two values are equal, comparing numbers numerically so that {@code -0.0} equals {@code 0}. Values
+     * containing NaN are left to the data layer.
+     */
+    private static Optional<Boolean> equal(Value left, Value right) {
+        if (left.getKindCase() == Value.KindCase.NUMBER_VALUE && Double.isNaN(left.getNumberValue())
+                || right.getKindCase() == Value.KindCase.NUMBER_VALUE && Double.isNaN(right.getNumberValue())) {
+            return Optional.empty();
+        }
+        if (left.getKindCase() != right.getKindCase()) {
+            return Optional.of(false);
+        }
+        switch (left.getKindCase()) {
+            case NUMBER_VALUE:
+                return Optional.of(left.getNumberValue() + 0.0 == right.getNumberValue() + 0.0);
+            case LIST_VALUE:
+                return allEqual(left.getListValue().getValuesList(), right.getListValue().getValuesList());
+            case STRUCT_VALUE:
+                Map<String, Value> l = left.getStructValue().getFieldsMap();
+                Map<String, Value> r = right.getStructValue().getFieldsMap();
+                if (!l.keySet().equals(r.keySet())) {
+                    return Optional.of(false);
+                }
+                List<Value> ls = new ArrayList<>(l.size());
+                List<Value> rs = new ArrayList<>(r.size());
+                for (Map.Entry<String, Value> field : l.entrySet()) {
+                    ls.add(field.getValue());
+                    rs.add(r.get(field.getKey()));
+                }
+                return allEqual(ls, rs);
+            default:
+                return Optional.of(valueKey(left).equals(valueKey(right)));
+        }
+    }
+
+    private static Optional<Boolean> allEqual(List<Value> left, List<Value> right) {
+        if (left.size() != right.size()) {
+            return Optional.of(false);
+        }
+        boolean unknown = false;
+        for (int i = 0; i < left.size(); i++) {
+            Optional<Boolean> equal = equal(left.get(i), right.get(i));
+            if (equal.isEmpty()) {
+                unknown = true;
+            } else if (!equal.get()) {
+                return equal;
+            }
+        }
+        return unknown ? Optional.empty() : Optional.of(true);
+    }
+
+    /**
+     * Compare two numbers or two strings (by code point). Other values, including NaN, are left to the data layer.
+     */
+    private static OptionalInt compare(Value left, Value right) {
+        if (left.getKindCase() == Value.KindCase.NUMBER_VALUE && right.getKindCase() == Value.KindCase.NUMBER_VALUE
+                && !Double.isNaN(left.getNumberValue()) && !Double.isNaN(right.getNumberValue())) {
+            return OptionalInt.of(Double.compare(left.getNumberValue() + 0.0, right.getNumberValue() + 0.0));
+        }
+        if (left.getKindCase() == Value.KindCase.STRING_VALUE && right.getKindCase() == Value.KindCase.STRING_VALUE) {
+            int[] a = left.getStringValue().codePoints().toArray();
+            int[] b = right.getStringValue().codePoints().toArray();
+            return OptionalInt.of(Arrays.compare(a, b));
+        }
+        return OptionalInt.empty();
+    }
+
+    private static Node build(String operator, List<Node> operands) {
+        Expression.Builder expr = Expression.newBuilder().setOperator(operator);
+        StringBuilder key = new StringBuilder().append('(').append(operator);
+        for (Node node : operands) {
+            expr.addOperands(node.operand);
+            key.append(' ').append(node.key);
+        }
+        key.append(')');
+        return new Node(Operand.newBuilder().setExpression(expr).build(), key.toString(), operands);
+    }
+
+    private static Node constant(boolean value) {
+        Operand operand = value ? TRUE : FALSE;
+        return new Node(operand, valueKey(operand.getValue()), List.of());
+    }
+
+    private static boolean isExpression(Node node, Operator operator) {
+        return node.operand.getNodeCase() == Operand.NodeCase.EXPRESSION
+                && node.operand.getExpression().getOperator().equals(operator.getName());
+    }
+
+    private static boolean isValue(Node node) {
+        return node.operand.getNodeCase() == Operand.NodeCase.VALUE;
+    }
+
+    private static boolean isVariable(Node node) {
+        return node.operand.getNodeCase() == Operand.NodeCase.VARIABLE;
+    }
+
+    private static boolean isConstant(Node node, boolean value) {
+        return isValue(node) && node.operand.getValue().getKindCase() == Value.KindCase.BOOL_VALUE
+                && node.operand.getValue().getBoolValue() == value;
+    }
+
+    private static String variableKey(String variable) {
+        return "$" + variable.length() + ":" + variable;
+    }
+
+    private static String valueKey(Value value) {
+        StringBuilder sb = new StringBuilder();
+        appendValue(value, sb);
+        return sb.toString();
+    }
+
+    private static void appendValue(Value value, StringBuilder sb) {
+        switch (value.getKindCase()) {
+            case NULL_VALUE:
+                sb.append("null");
+                break;
+            case BOOL_VALUE:
+                sb.append(value.getBoolValue());
+                break;
+            case NUMBER_VALUE:
+                sb.append('#').append(value.getNumberValue());
+                break;
+            case STRING_VALUE:
+                String s = value.getStringValue();
+                sb.append('"').append(s.length()).append(':').append(s);
+                break;
+            case LIST_VALUE:
+                sb.append('[');
+                for (Value v : value.getListValue().getValuesList()) {
+                    appendValue(v, sb);
+                    sb.append(',');
+                }
+                sb.append(']');
+                break;
+            case STRUCT_VALUE:
+                sb.append('{');
+                Map<String, Value> fields = new TreeMap<>(value.getStructValue().getFieldsMap());
+                for (Map.Entry<String, Value> field : fields.entrySet()) {
+                    sb.append(field.getKey().length()).append(':').append(field.getKey()).append('=');
+                    appendValue(field.getValue(), sb);
+                    sb.append(',');
+                }
+                sb.append('}');
+                break;
+            default:
+                sb.append('_');
+        }
+    }
+
+    private static final class Node {
+        private final Operand operand;
+        private final String key;
+        private final List<Node> children;
+
+        Node(Operand operand, String key, List<Node> children) {
+            this.operand = operand;
+            this.key = key;
+            this.children = children;
+        }
+    }
+}
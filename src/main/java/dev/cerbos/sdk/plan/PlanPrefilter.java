@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import com.google.protobuf.Value;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression.Operand;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * The part of a plan condition that a data layer can evaluate.
+ * <p>
+ * Expressions that the data layer cannot evaluate are replaced with a constant so that the resulting condition is
+ * conservative: every object allowed by the original condition also satisfies the prefilter. Objects selected by an
+ * inexact prefilter must still be checked against the PDP.
+ */
+public final class PlanPrefilter {
+    private static final Operand TRUE = Operand.newBuilder().setValue(Value.newBuilder().setBoolValue(true)).build();
+    private static final Operand FALSE = Operand.newBuilder().setValue(Value.newBuilder().setBoolValue(false)).build();
+
+    private final NormalizedCondition condition;
+    private final boolean exact;
+
+    private PlanPrefilter(NormalizedCondition condition, boolean exact) {
+        this.condition = condition;
+        this.exact = exact;
+    }
+
+    /**
+     * Derive a prefilter from the given plan condition.
+     * Logical operators are always kept. Any other expression for which {@code isSupported} returns false is
+     * replaced with {@code true} where it is not negated and with {@code false} where it is negated, which can only
+     * widen the set of selected objects. A variable used directly as a condition is tested as
+     * {@code eq(variable, true)}.
+     *
+     * @param condition   Plan condition
+     * @param isSupported Returns true for expressions that the data layer can evaluate
+     * @return {@link PlanPrefilter}
+     */
+    public static PlanPrefilter relax(Operand condition, Predicate<Expression> isSupported) {
+        Relaxer relaxer = new Relaxer(isSupported);
+        Operand relaxed = relaxer.relax(condition, true);
+        return new PlanPrefilter(PlanNormalizer.normalize(relaxed), !relaxer.relaxed);
+    }
+
+    /**
+     * Returns the prefilter condition.
+     *
+     * @return Normalized condition
+     */
+    public NormalizedCondition getCondition() {
+        return condition;
+    }
+
+    /**
+     * Returns true if no expressions had to be dropped, in which case the prefilter is equivalent to the original
+     * condition and its results don't need to be checked.
+     *
+     * @return True if the prefilter is exact
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    private static final class Relaxer {
+        private final Predicate<Expression> isSupported;
+        private boolean relaxed;
+
+        Relaxer(Predicate<Expression> isSupported) {
+            this.isSupported = isSupported;
+        }
+
+        /**
+         * Relax the operand. When positive, the result is implied by the operand (it selects a superset). Otherwise
+         * the result implies the operand (it selects a subset), so that negating it selects a superset.
+         */
+        Operand relax(Operand operand, boolean positive) {
+            if (operand.getNodeCase() == Operand.NodeCase.VARIABLE) {
+                return relaxUnlessSupported(operand, Expression.newBuilder()
+                        .setOperator(Operator.EQ.getName())
+                        .addOperands(operand)
+                        .addOperands(TRUE)
+                        .build(), positive);
+            }
+            if (operand.getNodeCase() != Operand.NodeCase.EXPRESSION) {
+                return operand;
+            }
+
+            Expression expr = operand.getExpression();
+            Optional<Operator> operator = Operator.of(expr.getOperator());
+            if (operator.isPresent()) {
+                switch (operator.get()) {
+                    case AND:
+                    case OR: {
+                        Expression.Builder builder = expr.toBuilder().clearOperands();
+                        for (Operand child : expr.getOperandsList()) {
+                            builder.addOperands(relax(child, positive));
+                        }
+                        return Operand.newBuilder().setExpression(builder).build();
+                    }
+                    case NOT: {
+                        Expression.Builder builder = expr.toBuilder().clearOperands();
+                        for (Operand child : expr.getOperandsList()) {
+                            builder.addOperands(relax(child, !positive));
+                        }
+                        return Operand.newBuilder().setExpression(builder).build();
+                    }
+                    default:
+                        break;
+                }
+            }
+
+            return relaxUnlessSupported(operand, expr, positive);
+        }
+
+        private Operand relaxUnlessSupported(Operand operand, Expression expr, boolean positive) {
+            if (isSupported.test(expr)) {
+                return operand;
+            }
+            relaxed = true;
+            return positive ? TRUE : FALSE;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import com.google.protobuf.Value;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression.Operand;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A plan condition split into its shape and its constants.
+ * <p>
+ * The shape consists of the operators, the variables and the kinds of the constants, while the constants themselves
+ * are extracted into parameter slots. Plans that only differ in their constants (for example, the ID of the principal
+ * they were created for) have the same shape, so anything compiled from the shape can be reused by binding the new
+ * parameters.
+ * <p>
+ * Parameters are collected in depth-first order of the condition. Boolean constants are part of the shape because
+ * they can change the meaning of an expression, but still occupy a parameter slot. List values contribute their size
+ * to the shape and each of their elements as a separate parameter.
+ */
+public final class PlanTemplate {
+    private final Operand condition;
+    private final String shapeKey;
+    private final List<Value> parameters;
+
+    private PlanTemplate(Operand condition, String shapeKey, List<Value> parameters) {
+        this.condition = condition;
+        this.shapeKey = shapeKey;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Extract the template of the given plan condition.
+     *
+     * @param condition Plan condition
+     * @return {@link PlanTemplate}
+     */
+    public static PlanTemplate of(Operand condition) {
+        StringBuilder key = new StringBuilder();
+        List<Value> parameters = new ArrayList<>();
+        describe(condition, key, parameters);
+        return new PlanTemplate(condition, key.toString(), Collections.unmodifiableList(parameters));
+    }
+
+    /**
+     * Returns the condition the template was extracted from.
+     *
+     * @return Plan condition
+     */
+    public Operand getCondition() {
+        return condition;
+    }
+
+    /**
+     * Returns a key that is equal for all conditions with the same shape.
+     *
+     * @return Shape key
+     */
+    public String getShapeKey() {
+        return shapeKey;
+    }
+
+    /**
+     * Returns the constants of the condition in depth-first order.
+     *
+     * @return Parameter values
+     */
+    public List<Value> getParameters() {
+        return parameters;
+    }
+
+    private static void describe(Operand operand, StringBuilder key, List<Value> parameters) {
+        switch (operand.getNodeCase()) {
+            case EXPRESSION:
+                Expression expr = operand.getExpression();
+                key.append('(').append(expr.getOperator());
+                for (Operand child : expr.getOperandsList()) {
+                    key.append(' ');
+                    describe(child, key, parameters);
+                }
+                key.append(')');
+                break;
+            case VARIABLE:
+                String variable = operand.getVariable();
+                key.append('$').append(variable.length()).append(':').append(variable);
+                break;
+            case VALUE:
+                describe(operand.getValue(), key, parameters);
+                break;
+            default:
+                key.append('_');
+        }
+    }
+
+    private static void describe(Value value, StringBuilder key, List<Value> parameters) {
+        switch (value.getKindCase()) {
+            case LIST_VALUE:
+                key.append('[').append(value.getListValue().getValuesCount());
+                for (Value element : value.getListValue().getValuesList()) {
+                    describe(element, key, parameters);
+                }
+                key.append(']');
+                return;
+            case NULL_VALUE:
+                key.append('n');
+                break;
+            case BOOL_VALUE:
+                key.append(value.getBoolValue() ? 't' : 'f');
+                break;
+            case NUMBER_VALUE:
+                key.append('d');
+                break;
+            case STRING_VALUE:
+                key.append('s');
+                break;
+            default:
+                key.append('o');
+        }
+        parameters.add(value);
+    }
+
+    @Override
+    public String toString() {
+        return shapeKey + " " + parameters;
+    }
+}
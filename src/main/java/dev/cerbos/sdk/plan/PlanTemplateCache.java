@@ -0,0 +1,77 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Cache of artifacts compiled from plan shapes, such as SQL text, prepared statements or query builders.
+ * <p>
+ * The compiler is only invoked for the first condition of each shape and must produce an artifact that refers to
+ * constants by their position in {@link PlanTemplate#getParameters()} rather than embedding them, so that it can be
+ * reused for every condition of the same shape. When the cache grows beyond its maximum size it is cleared.
+ * <p>
+ * Instances are thread-safe. Concurrent misses for the same shape may compile it more than once.
+ *
+ * @param <A> Type of the compiled artifact
+ */
+public final class PlanTemplateCache<A> {
+    private final Function<PlanTemplate, A> compiler;
+    private final int maxSize;
+    private final ConcurrentHashMap<String, A> artifacts = new ConcurrentHashMap<>();
+
+    private PlanTemplateCache(Function<PlanTemplate, A> compiler, int maxSize) {
+        this.compiler = compiler;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Create a cache.
+     *
+     * @param compiler Function that compiles the shape of a template
+     * @param maxSize  Maximum number of shapes to keep
+     * @param <A>      Type of the compiled artifact
+     * @return {@link PlanTemplateCache}
+     */
+    public static <A> PlanTemplateCache<A> newInstance(Function<PlanTemplate, A> compiler, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than zero");
+        }
+        return new PlanTemplateCache<>(compiler, maxSize);
+    }
+
+    /**
+     * Get the artifact for the shape of the given template, compiling it if necessary.
+     *
+     * @param template Plan template
+     * @return Compiled artifact
+     */
+    public A get(PlanTemplate template) {
+        A artifact = artifacts.get(template.getShapeKey());
+        if (artifact == null) {
+            artifact = compiler.apply(template);
+            if (artifacts.size() >= maxSize) {
+                artifacts.clear();
+            }
+            artifacts.put(template.getShapeKey(), artifact);
+        }
+        return artifact;
+    }
+
+    /**
+     * Returns the number of cached shapes.
+     *
+     * @return Number of cached shapes
+     */
+    public int size() {
+        return artifacts.size();
+    }
+
+    public void clear() {
+        artifacts.clear();
+    }
+}
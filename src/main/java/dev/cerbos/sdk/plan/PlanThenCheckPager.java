@@ -0,0 +1,264 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import com.google.protobuf.Value;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression.Operand;
+import dev.cerbos.sdk.CerbosBlockingClient;
+import dev.cerbos.sdk.PlanResourcesResult;
+import dev.cerbos.sdk.builders.Principal;
+import dev.cerbos.sdk.builders.Resource;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Fills pages of allowed items by combining a query plan with batched checks.
+ * <p>
+ * The supported part of the plan is pushed down to the data source as a conservative prefilter (see
+ * {@link PlanPrefilter}). If the whole plan could be pushed down, the candidates returned by the source are allowed as
+ * they are. Otherwise the candidates are verified with batched check requests, fetching further candidates until the
+ * page is full. The batch size grows based on the fraction of candidates that turned out to be allowed, so the number
+ * of round trips stays proportional to the page size rather than the size of the collection.
+ *
+ * @param <T> Type of the items
+ */
+public final class PlanThenCheckPager<T> {
+    private static final Operand TRUE = Operand.newBuilder().setValue(Value.newBuilder().setBoolValue(true)).build();
+
+    private final CerbosBlockingClient client;
+    private final CandidateSource<T> source;
+    private final Function<T, Resource> toResource;
+    private final Predicate<Expression> isSupported;
+    private final int initialBatchSize;
+    private final int maxBatchSize;
+
+    private PlanThenCheckPager(Builder<T> builder) {
+        this.client = builder.client;
+        this.source = builder.source;
+        this.toResource = builder.toResource;
+        this.isSupported = builder.isSupported;
+        this.initialBatchSize = builder.initialBatchSize;
+        this.maxBatchSize = builder.maxBatchSize;
+    }
+
+    /**
+     * Create a builder.
+     *
+     * @param client     Client used to plan and check
+     * @param source     Source of candidate items
+     * @param toResource Function to convert an item to the {@link Resource} to check
+     * @param <T>        Type of the items
+     * @return {@link Builder}
+     */
+    public static <T> Builder<T> newBuilder(CerbosBlockingClient client, CandidateSource<T> source,
+            Function<T, Resource> toResource) {
+        return new Builder<>(client, source, toResource);
+    }
+
+    /**
+     * Source of candidate items, such as a database query.
+     *
+     * @param <T> Type of the items
+     */
+    @FunctionalInterface
+    public interface CandidateSource<T> {
+        /**
+         * Fetch items that satisfy the prefilter in a stable order.
+         *
+         * @param prefilter Condition that the items must satisfy
+         * @param offset    Number of matching items to skip
+         * @param limit     Maximum number of items to return
+         * @return Matching items. Returning fewer than {@code limit} items signals that there are no more items.
+         */
+        List<T> fetch(NormalizedCondition prefilter, int offset, int limit);
+    }
+
+    /**
+     * Page of allowed items.
+     *
+     * @param <T> Type of the items
+     */
+    public static final class Page<T> {
+        private final List<T> items;
+        private final int nextOffset;
+        private final boolean hasMore;
+
+        Page(List<T> items, int nextOffset, boolean hasMore) {
+            this.items = items;
+            this.nextOffset = nextOffset;
+            this.hasMore = hasMore;
+        }
+
+        public List<T> getItems() {
+            return items;
+        }
+
+        /**
+         * Returns the source offset to pass to {@link #fetchPage} to get the next page.
+         *
+         * @return Source offset
+         */
+        public int getNextOffset() {
+            return nextOffset;
+        }
+
+        /**
+         * Returns false if the source was exhausted while filling this page.
+         *
+         * @return True if there may be more allowed items
+         */
+        public boolean hasMore() {
+            return hasMore;
+        }
+    }
+
+    /**
+     * Fetch a page of items that the principal is allowed to perform the action on.
+     *
+     * @param principal Principal performing the action
+     * @param resource  Resource kind, policy version and scope of the items
+     * @param action    Action being performed on the items
+     * @param offset    Source offset to start at. Use 0 for the first page and {@link Page#getNextOffset()} after.
+     * @param pageSize  Maximum number of items in the page
+     * @return {@link Page}
+     * @throws dev.cerbos.sdk.CerbosException if an RPC error occurs
+     */
+    public Page<T> fetchPage(Principal principal, Resource resource, String action, int offset, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be greater than zero");
+        }
+
+        PlanResourcesResult plan = client.plan(principal, resource, List.of(action));
+        if (plan.isAlwaysDenied()) {
+            return new Page<>(Collections.emptyList(), offset, false);
+        }
+
+        Operand condition = plan.isAlwaysAllowed() ? TRUE : plan.getRaw().getFilter().getCondition();
+        PlanPrefilter prefilter = PlanPrefilter.relax(condition, isSupported);
+        if (prefilter.getCondition().isAlwaysFalse()) {
+            return new Page<>(Collections.emptyList(), offset, false);
+        }
+
+        if (prefilter.isExact()) {
+            List<T> items = source.fetch(prefilter.getCondition(), offset, pageSize + 1);
+            boolean hasMore = items.size() > pageSize;
+            List<T> page = hasMore ? items.subList(0, pageSize) : items;
+            return new Page<>(new ArrayList<>(page), offset + page.size(), hasMore);
+        }
+
+        List<T> page = new ArrayList<>(pageSize);
+        int position = offset;
+        int batchSize = Math.min(Math.max(initialBatchSize, pageSize), maxBatchSize);
+        long checked = 0;
+        long allowed = 0;
+        while (page.size() < pageSize) {
+            List<T> candidates = source.fetch(prefilter.getCondition(), position, batchSize);
+            if (candidates.isEmpty()) {
+                return new Page<>(page, position, false);
+            }
+
+            BitSet mask = client.filterAllowedMask(principal, candidates, action, toResource);
+            checked += candidates.size();
+            allowed += mask.cardinality();
+            for (int i = 0; i < candidates.size(); i++) {
+                if (mask.get(i)) {
+                    page.add(candidates.get(i));
+                    if (page.size() == pageSize) {
+                        return new Page<>(page, position + i + 1, true);
+                    }
+                }
+            }
+
+            position += candidates.size();
+            if (candidates.size() < batchSize) {
+                return new Page<>(page, position, false);
+            }
+            batchSize = nextBatchSize(batchSize, pageSize - page.size(), checked, allowed);
+        }
+        return new Page<>(page, position, true);
+    }
+
+    /**
+     * Size the next batch so that it is expected to fill the rest of the page given the fraction of candidates
+     * allowed so far, but at least double the previous batch.
+     */
+    private int nextBatchSize(int previous, int remaining, long checked, long allowed) {
+        long estimate = allowed == 0 ? Long.MAX_VALUE : (long) Math.ceil(remaining * (double) checked / allowed * 1.2);
+        long next = Math.max(estimate, 2L * previous);
+        return (int) Math.min(next, maxBatchSize);
+    }
+
+    public static final class Builder<T> {
+        private final CerbosBlockingClient client;
+        private final CandidateSource<T> source;
+        private final Function<T, Resource> toResource;
+        private Predicate<Expression> isSupported = expr -> true;
+        private int initialBatchSize = 50;
+        private int maxBatchSize = 1000;
+
+        private Builder(CerbosBlockingClient client, CandidateSource<T> source, Function<T, Resource> toResource) {
+            this.client = client;
+            this.source = source;
+            this.toResource = toResource;
+        }
+
+        /**
+         * Set the test for expressions that the source can evaluate. Defaults to accepting all expressions.
+         *
+         * @param isSupported Returns true for expressions that the source can evaluate
+         * @return {@link Builder}
+         */
+        public Builder<T> withSupportedExpressions(Predicate<Expression> isSupported) {
+            this.isSupported = isSupported;
+            return this;
+        }
+
+        /**
+         * Accept the expressions that the given compiler can translate (see {@link SqlQueryCompiler#isSupported}).
+         *
+         * @param compiler SQL compiler used by the source
+         * @return {@link Builder}
+         */
+        public Builder<T> withSupportedExpressions(SqlQueryCompiler compiler) {
+            return withSupportedExpressions(compiler::isSupported);
+        }
+
+        /**
+         * Set the number of candidates to fetch in the first batch. Defaults to 50 or the page size if larger.
+         *
+         * @param initialBatchSize Initial batch size
+         * @return {@link Builder}
+         */
+        public Builder<T> withInitialBatchSize(int initialBatchSize) {
+            this.initialBatchSize = initialBatchSize;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of candidates to fetch in a single batch. Defaults to 1000.
+         *
+         * @param maxBatchSize Maximum batch size
+         * @return {@link Builder}
+         */
+        public Builder<T> withMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        public PlanThenCheckPager<T> build() {
+            if (initialBatchSize <= 0 || maxBatchSize < initialBatchSize) {
+                throw new IllegalArgumentException("Batch sizes must be positive and the maximum at least the initial");
+            }
+            return new PlanThenCheckPager<>(this);
+        }
+    }
+}
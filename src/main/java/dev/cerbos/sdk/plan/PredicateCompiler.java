@@ -0,0 +1,390 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import com.google.protobuf.Value;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression.Operand;
+import dev.cerbos.sdk.PlanResourcesResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Compiles query plan conditions into {@link Predicate}s that can be evaluated against objects in memory.
+ * <p>
+ * Variables are bound to accessor functions once at compile time and constants are converted to Java values (lists
+ * used with {@code in} become hash sets), so evaluating the predicate does not involve any lookups by name or protobuf
+ * conversions. Numbers are compared by their double value, so attributes can be of any {@link Number} type.
+ * <p>
+ * Instances are immutable and thread-safe, as are the predicates they produce as long as the accessors are.
+ *
+ * @param <T> Type of object to test
+ */
+public final class PredicateCompiler<T> {
+    private final Function<String, Function<T, Object>> accessorResolver;
+
+    private PredicateCompiler(Function<String, Function<T, Object>> accessorResolver) {
+        this.accessorResolver = accessorResolver;
+    }
+
+    /**
+     * Create a compiler that uses the given function to obtain an accessor for each variable in the plan.
+     * The function receives the full variable name (e.g. {@code request.resource.attr.owner}) and should return null
+     * if the variable is not supported.
+     *
+     * @param accessorResolver Function that returns an accessor for a variable
+     * @param <T>              Type of object to test
+     * @return {@link PredicateCompiler}
+     */
+    public static <T> PredicateCompiler<T> newInstance(Function<String, Function<T, Object>> accessorResolver) {
+        return new PredicateCompiler<>(accessorResolver);
+    }
+
+    /**
+     * Create a compiler for objects that expose their resource attributes as a map. Variables of the form
+     * {@code request.resource.attr.<name>} are looked up by name in the map returned by the given function.
+     *
+     * @param attributes Function that returns the attributes of an object
+     * @param <T>        Type of object to test
+     * @return {@link PredicateCompiler}
+     */
+    public static <T> PredicateCompiler<T> forAttributes(Function<T, Map<String, ?>> attributes) {
+        return new PredicateCompiler<>(variable -> {
+            if (!variable.startsWith(PlanExpressions.RESOURCE_ATTR_PREFIX)) {
+                return null;
+            }
+            String name = variable.substring(PlanExpressions.RESOURCE_ATTR_PREFIX.length());
+            return item -> {
+                Map<String, ?> attrs = attributes.apply(item);
+                return attrs == null ? null : attrs.get(name);
+            };
+        });
+    }
+
+    /**
+     * Compile the filter of the given plan.
+     *
+     * @param plan Query plan
+     * @return Predicate that returns true for the objects allowed by the plan
+     * @throws UnsupportedExpressionException if the plan contains expressions that cannot be evaluated
+     */
+    public Predicate<T> compile(PlanResourcesResult plan) {
+        if (plan.isAlwaysAllowed()) {
+            return item -> true;
+        }
+        if (plan.isAlwaysDenied()) {
+            return item -> false;
+        }
+        return compile(plan.getRaw().getFilter().getCondition());
+    }
+
+    /**
+     * Compile the given plan condition.
+     *
+     * @param condition Plan condition
+     * @return Predicate that returns true for the objects that satisfy the condition
+     * @throws UnsupportedExpressionException if the condition contains expressions that cannot be evaluated
+     */
+    public Predicate<T> compile(Operand condition) {
+        switch (condition.getNodeCase()) {
+            case EXPRESSION:
+                return expression(condition.getExpression());
+            case VARIABLE:
+                Function<T, Object> accessor = accessor(condition.getVariable());
+                return item -> Boolean.TRUE.equals(accessor.apply(item));
+            case VALUE:
+                if (condition.getValue().getKindCase() != Value.KindCase.BOOL_VALUE) {
+                    throw new UnsupportedExpressionException("Non-boolean value used as a condition");
+                }
+                boolean constant = condition.getValue().getBoolValue();
+                return item -> constant;
+            default:
+                throw new UnsupportedExpressionException("Empty operand");
+        }
+    }
+
+    private Predicate<T> expression(Expression expr) {
+        Operator operator = Operator.of(expr.getOperator())
+                .orElseThrow(() -> new UnsupportedExpressionException("Unsupported operator " + expr.getOperator()));
+        switch (operator) {
+            case AND:
+                return and(compileAll(expr));
+            case OR:
+                return or(compileAll(expr));
+            case NOT:
+                PlanExpressions.requireOperands(expr, 1);
+                return compile(expr.getOperands(0)).negate();
+            case EQ:
+                return eq(expr);
+            case NE:
+                return eq(expr).negate();
+            case LT:
+                return comparison(expr, c -> c < 0);
+            case GT:
+                return comparison(expr, c -> c > 0);
+            case LE:
+                return comparison(expr, c -> c <= 0);
+            case GE:
+                return comparison(expr, c -> c >= 0);
+            case IN:
+                return in(expr);
+            case HAS_INTERSECTION:
+                return hasIntersection(expr);
+            case CONTAINS:
+                return string(expr, String::contains);
+            case STARTS_WITH:
+                return string(expr, String::startsWith);
+            case ENDS_WITH:
+                return string(expr, String::endsWith);
+            default:
+                throw new UnsupportedExpressionException("Unsupported operator " + expr.getOperator());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Predicate<T>[] compileAll(Expression expr) {
+        Predicate<T>[] predicates = new Predicate[expr.getOperandsCount()];
+        for (int i = 0; i < predicates.length; i++) {
+            predicates[i] = compile(expr.getOperands(i));
+        }
+        return predicates;
+    }
+
+    private Predicate<T> and(Predicate<T>[] predicates) {
+        switch (predicates.length) {
+            case 0:
+                return item -> true;
+            case 1:
+                return predicates[0];
+            case 2:
+                return predicates[0].and(predicates[1]);
+            default:
+                return item -> {
+                    for (Predicate<T> p : predicates) {
+                        if (!p.test(item)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                };
+        }
+    }
+
+    private Predicate<T> or(Predicate<T>[] predicates) {
+        switch (predicates.length) {
+            case 0:
+                return item -> false;
+            case 1:
+                return predicates[0];
+            case 2:
+                return predicates[0].or(predicates[1]);
+            default:
+                return item -> {
+                    for (Predicate<T> p : predicates) {
+                        if (p.test(item)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                };
+        }
+    }
+
+    private Predicate<T> eq(Expression expr) {
+        PlanExpressions.requireOperands(expr, 2);
+        Operand left = expr.getOperands(0);
+        Operand right = expr.getOperands(1);
+        if (left.getNodeCase() == Operand.NodeCase.VALUE || right.getNodeCase() == Operand.NodeCase.VALUE) {
+            Operand other = left.getNodeCase() == Operand.NodeCase.VALUE ? right : left;
+            Object constant = toJava(left.getNodeCase() == Operand.NodeCase.VALUE ? left.getValue() : right.getValue());
+            Function<T, Object> value = term(other);
+            return item -> Objects.equals(normalize(value.apply(item)), constant);
+        }
+
+        Function<T, Object> l = term(left);
+        Function<T, Object> r = term(right);
+        return item -> Objects.equals(normalize(l.apply(item)), normalize(r.apply(item)));
+    }
+
+    private Predicate<T> comparison(Expression expr, IntPredicate test) {
+        PlanExpressions.requireOperands(expr, 2);
+        Function<T, Object> left = term(expr.getOperands(0));
+        Function<T, Object> right = term(expr.getOperands(1));
+        return item -> {
+            Object l = normalize(left.apply(item));
+            Object r = normalize(right.apply(item));
+            if (l instanceof Double && r instanceof Double) {
+                return test.test(Double.compare((Double) l, (Double) r));
+            }
+            if (l instanceof String && r instanceof String) {
+                return test.test(((String) l).compareTo((String) r));
+            }
+            return false;
+        };
+    }
+
+    private Predicate<T> in(Expression expr) {
+        PlanExpressions.requireOperands(expr, 2);
+        Function<T, Object> needle = term(expr.getOperands(0));
+        Operand haystack = expr.getOperands(1);
+        if (haystack.getNodeCase() == Operand.NodeCase.VALUE) {
+            Set<Object> set = toSet(toJava(haystack.getValue()));
+            return item -> set.contains(normalize(needle.apply(item)));
+        }
+
+        Function<T, Object> values = term(haystack);
+        return item -> {
+            Object value = normalize(needle.apply(item));
+            Object collection = values.apply(item);
+            if (collection instanceof Map) {
+                return ((Map<?, ?>) collection).containsKey(value);
+            }
+            for (Object element : iterable(collection)) {
+                if (Objects.equals(normalize(element), value)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private Predicate<T> hasIntersection(Expression expr) {
+        PlanExpressions.requireOperands(expr, 2);
+        Operand left = expr.getOperands(0);
+        Operand right = expr.getOperands(1);
+        if (left.getNodeCase() == Operand.NodeCase.VALUE || right.getNodeCase() == Operand.NodeCase.VALUE) {
+            Set<Object> set = toSet(toJava(left.getNodeCase() == Operand.NodeCase.VALUE ? left.getValue() : right.getValue()));
+            Function<T, Object> values = term(left.getNodeCase() == Operand.NodeCase.VALUE ? right : left);
+            return item -> {
+                for (Object element : iterable(values.apply(item))) {
+                    if (set.contains(normalize(element))) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+
+        Function<T, Object> l = term(left);
+        Function<T, Object> r = term(right);
+        return item -> {
+            Set<Object> set = toSet(l.apply(item));
+            for (Object element : iterable(r.apply(item))) {
+                if (set.contains(normalize(element))) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private Predicate<T> string(Expression expr, BiPredicate<String, String> test) {
+        PlanExpressions.requireOperands(expr, 2);
+        Function<T, Object> left = term(expr.getOperands(0));
+        Function<T, Object> right = term(expr.getOperands(1));
+        return item -> {
+            Object l = left.apply(item);
+            Object r = right.apply(item);
+            return l instanceof CharSequence && r instanceof CharSequence && test.test(l.toString(), r.toString());
+        };
+    }
+
+    private Function<T, Object> term(Operand operand) {
+        switch (operand.getNodeCase()) {
+            case VARIABLE:
+                return accessor(operand.getVariable());
+            case VALUE:
+                Object constant = toJava(operand.getValue());
+                return item -> constant;
+            default:
+                throw new UnsupportedExpressionException("Nested expressions are not supported as operands");
+        }
+    }
+
+    private Function<T, Object> accessor(String variable) {
+        Function<T, Object> accessor = accessorResolver.apply(variable);
+        if (accessor == null) {
+            throw new UnsupportedExpressionException("No accessor for variable " + variable);
+        }
+        return accessor;
+    }
+
+    static Object toJava(Value value) {
+        switch (value.getKindCase()) {
+            case NULL_VALUE:
+                return null;
+            case BOOL_VALUE:
+                return value.getBoolValue();
+            case NUMBER_VALUE:
+                return value.getNumberValue();
+            case STRING_VALUE:
+                return value.getStringValue();
+            case LIST_VALUE:
+                List<Object> list = new ArrayList<>(value.getListValue().getValuesCount());
+                for (Value element : value.getListValue().getValuesList()) {
+                    list.add(toJava(element));
+                }
+                return Collections.unmodifiableList(list);
+            case STRUCT_VALUE:
+                Map<String, Object> map = new LinkedHashMap<>();
+                value.getStructValue().getFieldsMap().forEach((k, v) -> map.put(k, toJava(v)));
+                return Collections.unmodifiableMap(map);
+            default:
+                throw new UnsupportedExpressionException("Unsupported value: " + value.getKindCase());
+        }
+    }
+
+    /**
+     * Convert attribute values to the representation used for plan constants so that they can be compared with
+     * {@link Object#equals(Object)}.
+     */
+    static Object normalize(Object value) {
+        if (value instanceof Double || value instanceof String || value instanceof Boolean || value == null) {
+            return value;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof CharSequence || value instanceof Character) {
+            return value.toString();
+        }
+        if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        return value;
+    }
+
+    private static Set<Object> toSet(Object collection) {
+        Set<Object> set = new HashSet<>();
+        for (Object element : iterable(collection)) {
+            set.add(normalize(element));
+        }
+        return set;
+    }
+
+    private static Iterable<?> iterable(Object collection) {
+        if (collection instanceof Collection) {
+            return (Collection<?>) collection;
+        }
+        if (collection instanceof Object[]) {
+            return Arrays.asList((Object[]) collection);
+        }
+        return Collections.emptyList();
+    }
+}
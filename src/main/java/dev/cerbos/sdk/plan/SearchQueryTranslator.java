@@ -0,0 +1,443 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.protobuf.Value;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression.Operand;
+import dev.cerbos.sdk.PlanResourcesResult;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Translates query plan conditions into the query DSL of OpenSearch and Elasticsearch.
+ * <p>
+ * Logical operators become {@code bool} queries and comparisons become {@code term}, {@code terms}, {@code range},
+ * {@code prefix}, {@code wildcard} and {@code exists} queries. Conjunctions use {@code filter} clauses so that the
+ * authorization filter does not affect scoring. Operators without an equivalent are passed to the configured
+ * {@link Fallback}.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public final class SearchQueryTranslator {
+    private final Map<String, String> fields;
+    private final Function<String, String> fieldResolver;
+    private final Fallback fallback;
+
+    private SearchQueryTranslator(Builder builder) {
+        this.fields = Map.copyOf(builder.fields);
+        this.fieldResolver = builder.fieldResolver;
+        this.fallback = builder.fallback;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Handles expressions that the translator cannot translate.
+     */
+    @FunctionalInterface
+    public interface Fallback {
+        /**
+         * Translate the given expression.
+         *
+         * @param expression Expression from the plan
+         * @param translator Translator that can be used to translate nested operands or resolve fields
+         * @return Query or empty if the expression cannot be translated
+         */
+        Optional<JsonObject> translate(Expression expression, SearchQueryTranslator translator);
+    }
+
+    /**
+     * Translate the filter of the given plan.
+     *
+     * @param plan Query plan
+     * @return Query as a JSON object
+     * @throws UnsupportedExpressionException if the plan contains expressions that cannot be translated
+     */
+    public JsonObject translate(PlanResourcesResult plan) {
+        if (plan.isAlwaysAllowed()) {
+            return matchAll();
+        }
+        if (plan.isAlwaysDenied()) {
+            return matchNone();
+        }
+        return translate(plan.getRaw().getFilter().getCondition());
+    }
+
+    /**
+     * Translate the given plan condition.
+     *
+     * @param condition Plan condition
+     * @return Query as a JSON object
+     * @throws UnsupportedExpressionException if the condition contains expressions that cannot be translated
+     */
+    public JsonObject translate(Operand condition) {
+        switch (condition.getNodeCase()) {
+            case EXPRESSION:
+                return expression(condition.getExpression());
+            case VARIABLE:
+                return query("term", field(condition.getVariable()), new JsonPrimitive(true));
+            case VALUE:
+                if (condition.getValue().getKindCase() != Value.KindCase.BOOL_VALUE) {
+                    throw new UnsupportedExpressionException("Non-boolean value used as a condition");
+                }
+                return condition.getValue().getBoolValue() ? matchAll() : matchNone();
+            default:
+                throw new UnsupportedExpressionException("Empty operand");
+        }
+    }
+
+    /**
+     * Translate the filter of the given plan into a JSON string.
+     *
+     * @param plan Query plan
+     * @return Query as a JSON string
+     * @throws UnsupportedExpressionException if the plan contains expressions that cannot be translated
+     */
+    public String toJson(PlanResourcesResult plan) {
+        return translate(plan).toString();
+    }
+
+    /**
+     * Resolve the index field for the given variable.
+     *
+     * @param variable Variable name
+     * @return Field name
+     * @throws UnsupportedExpressionException if the variable is not mapped
+     */
+    public String field(String variable) {
+        String field = fields.get(variable);
+        if (field == null && variable.startsWith(PlanExpressions.RESOURCE_ATTR_PREFIX)) {
+            field = fields.get(variable.substring(PlanExpressions.RESOURCE_ATTR_PREFIX.length()));
+        }
+        if (field == null && fieldResolver != null) {
+            field = fieldResolver.apply(variable);
+        }
+        if (field == null) {
+            throw new UnsupportedExpressionException("No field mapping for variable " + variable);
+        }
+        return field;
+    }
+
+    private JsonObject expression(Expression expr) {
+        Optional<Operator> operator = Operator.of(expr.getOperator());
+        if (operator.isEmpty()) {
+            return fallback(expr);
+        }
+
+        switch (operator.get()) {
+            case AND:
+                return bool("filter", expr);
+            case OR: {
+                JsonObject query = bool("should", expr);
+                query.getAsJsonObject("bool").addProperty("minimum_should_match", 1);
+                return query;
+            }
+            case NOT:
+                PlanExpressions.requireOperands(expr, 1);
+                return not(translate(expr.getOperands(0)));
+            default:
+                break;
+        }
+
+        try {
+            return leaf(operator.get(), expr);
+        } catch (UnsupportedExpressionException e) {
+            if (fallback == null) {
+                throw e;
+            }
+            return fallback.translate(expr, this).orElseThrow(() -> e);
+        }
+    }
+
+    private JsonObject leaf(Operator operator, Expression expr) {
+        switch (operator) {
+            case EQ:
+            case NE:
+            case LT:
+            case GT:
+            case LE:
+            case GE:
+                return comparison(operator, expr);
+            case IN:
+                return in(expr);
+            case HAS_INTERSECTION:
+                return hasIntersection(expr);
+            case STARTS_WITH:
+            case ENDS_WITH:
+            case CONTAINS:
+                return string(operator, expr);
+            default:
+                throw new UnsupportedExpressionException("Unsupported operator " + expr.getOperator());
+        }
+    }
+
+    private JsonObject fallback(Expression expr) {
+        if (fallback == null) {
+            throw new UnsupportedExpressionException("Unsupported operator " + expr.getOperator());
+        }
+        return fallback.translate(expr, this)
+                .orElseThrow(() -> new UnsupportedExpressionException("Unsupported operator " + expr.getOperator()));
+    }
+
+    private JsonObject bool(String occurrence, Expression expr) {
+        JsonArray clauses = new JsonArray(expr.getOperandsCount());
+        for (Operand operand : expr.getOperandsList()) {
+            clauses.add(translate(operand));
+        }
+        JsonObject bool = new JsonObject();
+        bool.add(occurrence, clauses);
+        JsonObject query = new JsonObject();
+        query.add("bool", bool);
+        return query;
+    }
+
+    private JsonObject comparison(Operator operator, Expression expr) {
+        PlanExpressions.requireOperands(expr, 2);
+        Operand left = expr.getOperands(0);
+        Operand right = expr.getOperands(1);
+        String variable;
+        Value value;
+        if (left.getNodeCase() == Operand.NodeCase.VARIABLE && right.getNodeCase() == Operand.NodeCase.VALUE) {
+            variable = left.getVariable();
+            value = right.getValue();
+        } else if (left.getNodeCase() == Operand.NodeCase.VALUE && right.getNodeCase() == Operand.NodeCase.VARIABLE) {
+            operator = operator.flip();
+            variable = right.getVariable();
+            value = left.getValue();
+        } else {
+            throw new UnsupportedExpressionException("Comparisons must be between a variable and a value");
+        }
+
+        String field = field(variable);
+        if (value.getKindCase() == Value.KindCase.NULL_VALUE) {
+            JsonObject exists = query("exists", "field", new JsonPrimitive(field));
+            switch (operator) {
+                case EQ:
+                    return not(exists);
+                case NE:
+                    return exists;
+                default:
+                    throw new UnsupportedExpressionException("Cannot compare " + variable + " with null");
+            }
+        }
+
+        switch (operator) {
+            case EQ:
+                return query("term", field, json(value));
+            case NE:
+                return not(query("term", field, json(value)));
+            case LT:
+                return range(field, "lt", value);
+            case GT:
+                return range(field, "gt", value);
+            case LE:
+                return range(field, "lte", value);
+            case GE:
+                return range(field, "gte", value);
+            default:
+                throw new UnsupportedExpressionException("Not a comparison operator: " + operator.getName());
+        }
+    }
+
+    private JsonObject in(Expression expr) {
+        PlanExpressions.requireOperands(expr, 2);
+        Operand needle = expr.getOperands(0);
+        Operand haystack = expr.getOperands(1);
+        if (needle.getNodeCase() == Operand.NodeCase.VARIABLE && isList(haystack)) {
+            return terms(field(needle.getVariable()), haystack.getValue());
+        }
+        // A term query matches if any value of a multi-valued field is equal to the term
+        if (needle.getNodeCase() == Operand.NodeCase.VALUE && haystack.getNodeCase() == Operand.NodeCase.VARIABLE) {
+            return query("term", field(haystack.getVariable()), json(needle.getValue()));
+        }
+        throw new UnsupportedExpressionException("Unsupported operands for in");
+    }
+
+    private JsonObject hasIntersection(Expression expr) {
+        PlanExpressions.requireOperands(expr, 2);
+        Operand left = expr.getOperands(0);
+        Operand right = expr.getOperands(1);
+        if (left.getNodeCase() == Operand.NodeCase.VARIABLE && isList(right)) {
+            return terms(field(left.getVariable()), right.getValue());
+        }
+        if (isList(left) && right.getNodeCase() == Operand.NodeCase.VARIABLE) {
+            return terms(field(right.getVariable()), left.getValue());
+        }
+        throw new UnsupportedExpressionException("Unsupported operands for hasIntersection");
+    }
+
+    private JsonObject string(Operator operator, Expression expr) {
+        PlanExpressions.requireOperands(expr, 2);
+        Operand target = expr.getOperands(0);
+        Operand argument = expr.getOperands(1);
+        if (target.getNodeCase() != Operand.NodeCase.VARIABLE || argument.getNodeCase() != Operand.NodeCase.VALUE
+                || argument.getValue().getKindCase() != Value.KindCase.STRING_VALUE) {
+            throw new UnsupportedExpressionException("Unsupported operands for " + operator.getName());
+        }
+
+        String field = field(target.getVariable());
+        String value = argument.getValue().getStringValue();
+        if (operator == Operator.STARTS_WITH) {
+            return query("prefix", field, new JsonPrimitive(value));
+        }
+
+        String escaped = escapeWildcard(value);
+        String pattern = operator == Operator.ENDS_WITH ? "*" + escaped : "*" + escaped + "*";
+        JsonObject wildcard = new JsonObject();
+        wildcard.addProperty("value", pattern);
+        return query("wildcard", field, wildcard);
+    }
+
+    private static JsonObject range(String field, String bound, Value value) {
+        JsonObject range = new JsonObject();
+        range.add(bound, json(value));
+        return query("range", field, range);
+    }
+
+    private JsonObject terms(String field, Value list) {
+        if (list.getListValue().getValuesCount() == 0) {
+            return matchNone();
+        }
+        JsonArray values = new JsonArray(list.getListValue().getValuesCount());
+        for (Value v : list.getListValue().getValuesList()) {
+            values.add(json(v));
+        }
+        return query("terms", field, values);
+    }
+
+    private static JsonObject not(JsonObject query) {
+        JsonArray clauses = new JsonArray(1);
+        clauses.add(query);
+        JsonObject bool = new JsonObject();
+        bool.add("must_not", clauses);
+        JsonObject result = new JsonObject();
+        result.add("bool", bool);
+        return result;
+    }
+
+    private static JsonObject query(String type, String field, JsonElement value) {
+        JsonObject body = new JsonObject();
+        body.add(field, value);
+        JsonObject query = new JsonObject();
+        query.add(type, body);
+        return query;
+    }
+
+    private static JsonObject matchAll() {
+        JsonObject query = new JsonObject();
+        query.add("match_all", new JsonObject());
+        return query;
+    }
+
+    private static JsonObject matchNone() {
+        JsonObject query = new JsonObject();
+        query.add("match_none", new JsonObject());
+        return query;
+    }
+
+    private static JsonElement json(Value value) {
+        switch (value.getKindCase()) {
+            case NULL_VALUE:
+                return JsonNull.INSTANCE;
+            case BOOL_VALUE:
+                return new JsonPrimitive(value.getBoolValue());
+            case NUMBER_VALUE:
+                double d = value.getNumberValue();
+                if (d == Math.rint(d) && Math.abs(d) < PlanExpressions.MAX_EXACT_INTEGER) {
+                    return new JsonPrimitive((long) d);
+                }
+                return new JsonPrimitive(d);
+            case STRING_VALUE:
+                return new JsonPrimitive(value.getStringValue());
+            default:
+                throw new UnsupportedExpressionException("Unsupported value: " + value.getKindCase());
+        }
+    }
+
+    private static String escapeWildcard(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '*' || c == '?') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static boolean isList(Operand operand) {
+        return operand.getNodeCase() == Operand.NodeCase.VALUE
+                && operand.getValue().getKindCase() == Value.KindCase.LIST_VALUE;
+    }
+
+    public static final class Builder {
+        private final Map<String, String> fields = new HashMap<>();
+        private Function<String, String> fieldResolver;
+        private Fallback fallback;
+
+        private Builder() {
+        }
+
+        /**
+         * Map a plan variable to an index field.
+         * Resource attributes can be given either by their full name (e.g. {@code request.resource.attr.owner}) or by
+         * the attribute name alone (e.g. {@code owner}).
+         *
+         * @param variable Variable name
+         * @param field    Field name
+         * @return {@link Builder}
+         */
+        public Builder withField(String variable, String field) {
+            this.fields.put(variable, field);
+            return this;
+        }
+
+        public Builder withFields(Map<String, String> fields) {
+            this.fields.putAll(fields);
+            return this;
+        }
+
+        /**
+         * Set a function to resolve fields for variables that don't have an explicit mapping.
+         * The function receives the full variable name and should return null if the variable cannot be mapped.
+         *
+         * @param fieldResolver Resolver function
+         * @return {@link Builder}
+         */
+        public Builder withFieldResolver(Function<String, String> fieldResolver) {
+            this.fieldResolver = fieldResolver;
+            return this;
+        }
+
+        /**
+         * Set the fallback for expressions that cannot be translated, such as operators without an equivalent in the
+         * query DSL. Without a fallback, such expressions cause an {@link UnsupportedExpressionException}.
+         *
+         * @param fallback Fallback
+         * @return {@link Builder}
+         */
+        public Builder withFallback(Fallback fallback) {
+            this.fallback = fallback;
+            return this;
+        }
+
+        public SearchQueryTranslator build() {
+            return new SearchQueryTranslator(this);
+        }
+    }
+}
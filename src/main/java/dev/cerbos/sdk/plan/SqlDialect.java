@@ -0,0 +1,114 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import com.google.protobuf.Value;
+
+import java.util.List;
+
+/**
+ * Hooks for adapting the SQL generated by {@link SqlQueryCompiler} to a particular database.
+ * The defaults produce ANSI SQL with JDBC-style positional parameters.
+ */
+public interface SqlDialect {
+    SqlDialect ANSI = new SqlDialect() {
+    };
+
+    SqlDialect POSTGRES = new SqlDialect() {
+        @Override
+        public String arrayContains(String column, String parameter) {
+            return parameter + " = ANY(" + column + ")";
+        }
+
+        @Override
+        public String arrayOverlaps(String column, List<String> parameters) {
+            return column + " && ARRAY[" + String.join(", ", parameters) + "]";
+        }
+    };
+
+    SqlDialect MYSQL = new SqlDialect() {
+        @Override
+        public String like(String column, String parameter) {
+            return column + " LIKE " + parameter + " ESCAPE '\\\\'";
+        }
+    };
+
+    /**
+     * Placeholder for the parameter at the given position.
+     *
+     * @param position 1-based position of the parameter
+     * @return Placeholder text
+     */
+    default String parameter(int position) {
+        return "?";
+    }
+
+    default String trueCondition() {
+        return "1 = 1";
+    }
+
+    default String falseCondition() {
+        return "1 = 0";
+    }
+
+    /**
+     * Pattern match using LIKE. The bound pattern escapes wildcards with a backslash.
+     *
+     * @param column    Column name
+     * @param parameter Placeholder for the pattern
+     * @return SQL condition
+     */
+    default String like(String column, String parameter) {
+        return column + " LIKE " + parameter + " ESCAPE '\\'";
+    }
+
+    /**
+     * Condition that is true if the array column contains the parameter value.
+     *
+     * @param column    Column name
+     * @param parameter Placeholder for the value
+     * @return SQL condition
+     */
+    default String arrayContains(String column, String parameter) {
+        throw new UnsupportedExpressionException("Array columns are not supported by this dialect");
+    }
+
+    /**
+     * Condition that is true if the array column has any value in common with the parameters.
+     *
+     * @param column     Column name
+     * @param parameters Placeholders for the values
+     * @return SQL condition
+     */
+    default String arrayOverlaps(String column, List<String> parameters) {
+        throw new UnsupportedExpressionException("Array columns are not supported by this dialect");
+    }
+
+    /**
+     * Convert a plan value to a JDBC parameter value.
+     *
+     * @param value Value from the plan
+     * @return Parameter value
+     */
+    default Object toParameter(Value value) {
+        switch (value.getKindCase()) {
+            case NULL_VALUE:
+                return null;
+            case BOOL_VALUE:
+                return value.getBoolValue();
+            case STRING_VALUE:
+                return value.getStringValue();
+            case NUMBER_VALUE:
+                double d = value.getNumberValue();
+                if (d == Math.rint(d) && Math.abs(d) < PlanExpressions.MAX_EXACT_INTEGER) {
+                    return (long) d;
+                }
+                return d;
+            default:
+                throw new UnsupportedExpressionException("Unsupported parameter value: " + value.getKindCase());
+        }
+    }
+}
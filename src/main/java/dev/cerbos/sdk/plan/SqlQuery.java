@@ -0,0 +1,45 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import java.util.List;
+
+/**
+ * SQL condition with bind parameters produced by {@link SqlQueryCompiler}.
+ */
+public final class SqlQuery {
+    private final String sql;
+    private final List<Object> parameters;
+
+    SqlQuery(String sql, List<Object> parameters) {
+        this.sql = sql;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Returns the SQL condition. Plans with the same shape produce the same text, which makes it suitable for use as
+     * a prepared statement.
+     *
+     * @return SQL text
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Returns the values to bind to the parameter placeholders in order.
+     *
+     * @return List of parameter values. May contain nulls.
+     */
+    public List<Object> getParameters() {
+        return parameters;
+    }
+
+    @Override
+    public String toString() {
+        return sql + " " + parameters;
+    }
+}
@@ -0,0 +1,436 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import com.google.protobuf.Value;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression.Operand;
+import dev.cerbos.sdk.PlanResourcesResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Compiles query plan conditions into parameterized SQL conditions.
+ * <p>
+ * Plan variables are mapped to columns using the configured mappings. All constants from the plan are emitted as bind
+ * parameters so that plans which only differ in their constants (for example, the ID of the principal) produce the
+ * same SQL text. The SQL text for each distinct plan shape is compiled once and cached, so subsequent plans with the
+ * same shape only need their parameters extracted.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public final class SqlQueryCompiler {
+
+    private final SqlDialect dialect;
+    private final Map<String, String> columns;
+    private final Function<String, String> columnResolver;
+    private final PlanTemplateCache<CompiledShape> shapes;
+
+    private SqlQueryCompiler(Builder builder) {
+        this.dialect = builder.dialect;
+        this.columns = Map.copyOf(builder.columns);
+        this.columnResolver = builder.columnResolver;
+        this.shapes = PlanTemplateCache.newInstance(t -> new ShapeCompiler().compile(t.getCondition()),
+                builder.maxCachedShapes);
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Compile the filter of the given plan.
+     *
+     * @param plan Query plan
+     * @return {@link SqlQuery}
+     * @throws UnsupportedExpressionException if the plan contains expressions that cannot be translated to SQL
+     */
+    public SqlQuery compile(PlanResourcesResult plan) {
+        if (plan.isAlwaysAllowed()) {
+            return new SqlQuery(dialect.trueCondition(), Collections.emptyList());
+        }
+        if (plan.isAlwaysDenied()) {
+            return new SqlQuery(dialect.falseCondition(), Collections.emptyList());
+        }
+        return compile(plan.getRaw().getFilter().getCondition());
+    }
+
+    /**
+     * Compile the given plan condition.
+     *
+     * @param condition Plan condition
+     * @return {@link SqlQuery}
+     * @throws UnsupportedExpressionException if the condition contains expressions that cannot be translated to SQL
+     */
+    public SqlQuery compile(Operand condition) {
+        PlanTemplate template = PlanTemplate.of(condition);
+        return shapes.get(template).bind(template.getParameters());
+    }
+
+    /**
+     * Returns true if the given expression can be translated to SQL. Unlike {@link #compile(Operand)}, this does not
+     * add the shape of the expression to the cache, so it can be used to probe parts of a plan.
+     *
+     * @param expr Plan expression
+     * @return True if {@link #compile(Operand)} would succeed for the expression
+     */
+    public boolean isSupported(Expression expr) {
+        try {
+            new ShapeCompiler().compile(Operand.newBuilder().setExpression(expr).build());
+            return true;
+        } catch (UnsupportedExpressionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the number of plan shapes with compiled SQL in the cache.
+     */
+    int cachedShapes() {
+        return shapes.size();
+    }
+
+    private String column(String variable) {
+        String column = columns.get(variable);
+        if (column == null && variable.startsWith(PlanExpressions.RESOURCE_ATTR_PREFIX)) {
+            column = columns.get(variable.substring(PlanExpressions.RESOURCE_ATTR_PREFIX.length()));
+        }
+        if (column == null && columnResolver != null) {
+            column = columnResolver.apply(variable);
+        }
+        if (column == null) {
+            throw new UnsupportedExpressionException("No column mapping for variable " + variable);
+        }
+        return column;
+    }
+
+    private static final class CompiledShape {
+        private final String sql;
+        private final List<Function<List<Value>, Object>> binders;
+
+        CompiledShape(String sql, List<Function<List<Value>, Object>> binders) {
+            this.sql = sql;
+            this.binders = binders;
+        }
+
+        SqlQuery bind(List<Value> constants) {
+            List<Object> parameters = new ArrayList<>(binders.size());
+            for (Function<List<Value>, Object> binder : binders) {
+                parameters.add(binder.apply(constants));
+            }
+            return new SqlQuery(sql, Collections.unmodifiableList(parameters));
+        }
+    }
+
+    /**
+     * Generates the SQL text for a shape. Constants are visited in the same depth-first order as they appear in
+     * {@link PlanTemplate#getParameters()} so that each placeholder can be bound to the constant at the same position
+     * in any plan of the same shape.
+     */
+    private final class ShapeCompiler {
+        private final StringBuilder sql = new StringBuilder();
+        private final List<Function<List<Value>, Object>> binders = new ArrayList<>();
+        private int nextConstant;
+
+        CompiledShape compile(Operand condition) {
+            condition(condition);
+            return new CompiledShape(sql.toString(), List.copyOf(binders));
+        }
+
+        private void condition(Operand operand) {
+            switch (operand.getNodeCase()) {
+                case EXPRESSION:
+                    expression(operand.getExpression());
+                    break;
+                case VARIABLE:
+                    sql.append(column(operand.getVariable())).append(" = ").append(placeholder(c -> Boolean.TRUE));
+                    break;
+                case VALUE:
+                    Value value = operand.getValue();
+                    nextConstant++;
+                    if (value.getKindCase() != Value.KindCase.BOOL_VALUE) {
+                        throw new UnsupportedExpressionException("Non-boolean value used as a condition");
+                    }
+                    sql.append(value.getBoolValue() ? dialect.trueCondition() : dialect.falseCondition());
+                    break;
+                default:
+                    throw new UnsupportedExpressionException("Empty operand");
+            }
+        }
+
+        private void expression(Expression expr) {
+            Operator operator = Operator.of(expr.getOperator())
+                    .orElseThrow(() -> new UnsupportedExpressionException("Unsupported operator " + expr.getOperator()));
+            switch (operator) {
+                case AND:
+                    junction(expr, " AND ", dialect.trueCondition());
+                    break;
+                case OR:
+                    junction(expr, " OR ", dialect.falseCondition());
+                    break;
+                case NOT:
+                    PlanExpressions.requireOperands(expr, 1);
+                    sql.append("NOT (");
+                    condition(expr.getOperands(0));
+                    sql.append(')');
+                    break;
+                case EQ:
+                case NE:
+                case LT:
+                case GT:
+                case LE:
+                case GE:
+                    comparison(operator, expr);
+                    break;
+                case IN:
+                    in(expr);
+                    break;
+                case HAS_INTERSECTION:
+                    hasIntersection(expr);
+                    break;
+                case CONTAINS:
+                case STARTS_WITH:
+                case ENDS_WITH:
+                    like(operator, expr);
+                    break;
+                default:
+                    throw new UnsupportedExpressionException("Unsupported operator " + expr.getOperator());
+            }
+        }
+
+        private void junction(Expression expr, String separator, String empty) {
+            if (expr.getOperandsCount() == 0) {
+                sql.append(empty);
+                return;
+            }
+
+            sql.append('(');
+            for (int i = 0; i < expr.getOperandsCount(); i++) {
+                if (i > 0) {
+                    sql.append(separator);
+                }
+                condition(expr.getOperands(i));
+            }
+            sql.append(')');
+        }
+
+        private void comparison(Operator operator, Expression expr) {
+            PlanExpressions.requireOperands(expr, 2);
+            Operand left = expr.getOperands(0);
+            Operand right = expr.getOperands(1);
+            if ((operator == Operator.EQ || operator == Operator.NE) && (isNull(left) || isNull(right))) {
+                Operand variable = isNull(left) ? right : left;
+                nextConstant++;
+                if (variable.getNodeCase() != Operand.NodeCase.VARIABLE) {
+                    throw new UnsupportedExpressionException("Null comparison requires a variable");
+                }
+                sql.append(column(variable.getVariable()))
+                        .append(operator == Operator.EQ ? " IS NULL" : " IS NOT NULL");
+                return;
+            }
+
+            sql.append(term(left)).append(' ').append(sqlOperator(operator)).append(' ').append(term(right));
+        }
+
+        private void in(Expression expr) {
+            PlanExpressions.requireOperands(expr, 2);
+            Operand needle = expr.getOperands(0);
+            Operand haystack = expr.getOperands(1);
+            if (needle.getNodeCase() == Operand.NodeCase.VARIABLE && isList(haystack)) {
+                String column = column(needle.getVariable());
+                List<String> placeholders = listPlaceholders(haystack.getValue());
+                if (placeholders.isEmpty()) {
+                    sql.append(dialect.falseCondition());
+                } else {
+                    sql.append(column).append(" IN (").append(String.join(", ", placeholders)).append(')');
+                }
+                return;
+            }
+
+            if (needle.getNodeCase() == Operand.NodeCase.VALUE && haystack.getNodeCase() == Operand.NodeCase.VARIABLE) {
+                String parameter = term(needle);
+                sql.append(dialect.arrayContains(column(haystack.getVariable()), parameter));
+                return;
+            }
+
+            throw new UnsupportedExpressionException("Unsupported operands for in");
+        }
+
+        private void hasIntersection(Expression expr) {
+            PlanExpressions.requireOperands(expr, 2);
+            Operand left = expr.getOperands(0);
+            Operand right = expr.getOperands(1);
+            String column;
+            List<String> placeholders;
+            if (left.getNodeCase() == Operand.NodeCase.VARIABLE && isList(right)) {
+                column = column(left.getVariable());
+                placeholders = listPlaceholders(right.getValue());
+            } else if (isList(left) && right.getNodeCase() == Operand.NodeCase.VARIABLE) {
+                placeholders = listPlaceholders(left.getValue());
+                column = column(right.getVariable());
+            } else {
+                throw new UnsupportedExpressionException("Unsupported operands for hasIntersection");
+            }
+
+            if (placeholders.isEmpty()) {
+                sql.append(dialect.falseCondition());
+            } else {
+                sql.append(dialect.arrayOverlaps(column, placeholders));
+            }
+        }
+
+        private void like(Operator operator, Expression expr) {
+            PlanExpressions.requireOperands(expr, 2);
+            Operand target = expr.getOperands(0);
+            Operand pattern = expr.getOperands(1);
+            if (target.getNodeCase() != Operand.NodeCase.VARIABLE || pattern.getNodeCase() != Operand.NodeCase.VALUE
+                    || pattern.getValue().getKindCase() != Value.KindCase.STRING_VALUE) {
+                throw new UnsupportedExpressionException("Unsupported operands for " + operator.getName());
+            }
+
+            int index = nextConstant++;
+            String placeholder = placeholder(constants -> {
+                String escaped = PlanExpressions.escapeLike(constants.get(index).getStringValue());
+                switch (operator) {
+                    case STARTS_WITH:
+                        return escaped + "%";
+                    case ENDS_WITH:
+                        return "%" + escaped;
+                    default:
+                        return "%" + escaped + "%";
+                }
+            });
+            sql.append(dialect.like(column(target.getVariable()), placeholder));
+        }
+
+        private String term(Operand operand) {
+            switch (operand.getNodeCase()) {
+                case VARIABLE:
+                    return column(operand.getVariable());
+                case VALUE:
+                    if (isList(operand)) {
+                        throw new UnsupportedExpressionException("Unexpected list value");
+                    }
+                    int index = nextConstant++;
+                    return placeholder(constants -> dialect.toParameter(constants.get(index)));
+                default:
+                    throw new UnsupportedExpressionException("Nested expressions are not supported as comparison operands");
+            }
+        }
+
+        private List<String> listPlaceholders(Value list) {
+            List<String> placeholders = new ArrayList<>(list.getListValue().getValuesCount());
+            for (Value element : list.getListValue().getValuesList()) {
+                if (element.getKindCase() == Value.KindCase.LIST_VALUE) {
+                    throw new UnsupportedExpressionException("Nested lists are not supported");
+                }
+                int index = nextConstant++;
+                placeholders.add(placeholder(constants -> dialect.toParameter(constants.get(index))));
+            }
+            return placeholders;
+        }
+
+        private String placeholder(Function<List<Value>, Object> binder) {
+            binders.add(binder);
+            return dialect.parameter(binders.size());
+        }
+    }
+
+    private static String sqlOperator(Operator operator) {
+        switch (operator) {
+            case EQ:
+                return "=";
+            case NE:
+                return "<>";
+            case LT:
+                return "<";
+            case GT:
+                return ">";
+            case LE:
+                return "<=";
+            case GE:
+                return ">=";
+            default:
+                throw new UnsupportedExpressionException("Not a comparison operator: " + operator.getName());
+        }
+    }
+
+    private static boolean isNull(Operand operand) {
+        return operand.getNodeCase() == Operand.NodeCase.VALUE
+                && operand.getValue().getKindCase() == Value.KindCase.NULL_VALUE;
+    }
+
+    private static boolean isList(Operand operand) {
+        return operand.getNodeCase() == Operand.NodeCase.VALUE
+                && operand.getValue().getKindCase() == Value.KindCase.LIST_VALUE;
+    }
+
+    public static final class Builder {
+        private final Map<String, String> columns = new HashMap<>();
+        private SqlDialect dialect = SqlDialect.ANSI;
+        private Function<String, String> columnResolver;
+        private int maxCachedShapes = 1024;
+
+        private Builder() {
+        }
+
+        public Builder withDialect(SqlDialect dialect) {
+            this.dialect = dialect;
+            return this;
+        }
+
+        /**
+         * Map a plan variable to a column.
+         * Resource attributes can be given either by their full name (e.g. {@code request.resource.attr.owner}) or by
+         * the attribute name alone (e.g. {@code owner}).
+         *
+         * @param variable Variable name
+         * @param column   Column name or expression to use in the SQL
+         * @return {@link Builder}
+         */
+        public Builder withColumn(String variable, String column) {
+            this.columns.put(variable, column);
+            return this;
+        }
+
+        public Builder withColumns(Map<String, String> columns) {
+            this.columns.putAll(columns);
+            return this;
+        }
+
+        /**
+         * Set a function to resolve columns for variables that don't have an explicit mapping.
+         * The function receives the full variable name and should return null if the variable cannot be mapped.
+         *
+         * @param columnResolver Resolver function
+         * @return {@link Builder}
+         */
+        public Builder withColumnResolver(Function<String, String> columnResolver) {
+            this.columnResolver = columnResolver;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of distinct plan shapes to keep compiled SQL for. Defaults to 1024.
+         *
+         * @param maxCachedShapes Maximum number of cached shapes
+         * @return {@link Builder}
+         */
+        public Builder withMaxCachedShapes(int maxCachedShapes) {
+            this.maxCachedShapes = maxCachedShapes;
+            return this;
+        }
+
+        public SqlQueryCompiler build() {
+            return new SqlQueryCompiler(this);
+        }
+    }
+}
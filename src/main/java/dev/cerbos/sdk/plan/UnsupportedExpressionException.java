@@ -0,0 +1,15 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+/**
+ * Thrown when a query plan contains an expression that cannot be translated to the target representation.
+ */
+public class UnsupportedExpressionException extends RuntimeException {
+    public UnsupportedExpressionException(String message) {
+        super(message);
+    }
+}
@@ -8,6 +8,7 @@ package dev.cerbos.sdk;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import dev.cerbos.api.v1.policy.PolicyOuterClass;
+import dev.cerbos.api.v1.response.Response;
 import dev.cerbos.api.v1.schema.SchemaOuterClass;
 import dev.cerbos.sdk.validation.ValidationException;
 import org.junit.jupiter.api.Assertions;
@@ -144,6 +145,13 @@ class CerbosBlockingAdminClientTest extends CerbosClientTests {
         Assertions.assertEquals("leave_request", have.get(0).getResourcePolicy().getResource());
     }
 
+    @Test
+    void inspectPolicies() {
+        Map<String, Response.InspectPoliciesResponse.Result> have = this.adminClient.inspectPolicies(Optional.of("leave_request"), Optional.empty(), Optional.empty());
+        Assertions.assertTrue(have.containsKey("resource.leave_request.vdefault"));
+        Assertions.assertFalse(have.get("resource.leave_request.vdefault").getActionsList().isEmpty());
+    }
+
     @Test
     void getPolicyNonExistent() {
         List<PolicyOuterClass.Policy> have = this.adminClient.getPolicy("resource.foo.vdefault");
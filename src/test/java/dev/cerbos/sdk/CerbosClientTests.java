@@ -16,15 +16,19 @@ import dev.cerbos.sdk.builders.AuxData;
 import dev.cerbos.sdk.builders.Principal;
 import dev.cerbos.sdk.builders.Resource;
 import dev.cerbos.sdk.builders.ResourceAction;
+import dev.cerbos.sdk.builders.ResourceTemplate;
 import dev.cerbos.sdk.builders.AuxData.JWT;
 import io.grpc.Status;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static dev.cerbos.sdk.builders.AttributeValue.nullValue;
 import static dev.cerbos.sdk.builders.AttributeValue.stringValue;
@@ -249,6 +253,111 @@ abstract class CerbosClientTests {
         Assertions.assertTrue(res4Opt.isEmpty());
     }
 
+    @Test
+    public void checkResourcesWithTemplate() {
+        ResourceTemplate template = ResourceTemplate.newInstance("leave_request")
+                .withPolicyVersion("20210210")
+                .withAttributes(
+                        Map.of(
+                                "department",
+                                stringValue("marketing"),
+                                "team",
+                                stringValue("design")));
+
+        CheckResourcesResult have = this.client
+                .batch(
+                        Principal.newInstance("john", "employee")
+                                .withPolicyVersion("20210210")
+                                .withAttribute("department", stringValue("marketing"))
+                                .withAttribute("team", stringValue("design"))
+                                .withAttribute("geography", stringValue("GB")))
+                .addResource(template, "XX125",
+                        Map.of("id", stringValue("XX125"), "geography", stringValue("GB"), "owner",
+                                stringValue("john")),
+                        "view:public", "defer")
+                .addResources(template.newResourceAction("XX225")
+                        .withAttributes(Map.of("id", stringValue("XX225"), "geography", stringValue("GB"), "owner",
+                                stringValue("martha")))
+                        .withActions("view:public", "approve"))
+                .check();
+
+        CheckResult res1 = have.find("XX125").orElseThrow();
+        Assertions.assertTrue(res1.isAllowed("view:public"));
+        Assertions.assertFalse(res1.isAllowed("defer"));
+
+        CheckResult res2 = have.find("XX225").orElseThrow();
+        Assertions.assertTrue(res2.isAllowed("view:public"));
+        Assertions.assertFalse(res2.isAllowed("approve"));
+    }
+
+    @Test
+    public void checkResourcesReusingBuilder() {
+        ResourceTemplate template = ResourceTemplate.newInstance("leave_request")
+                .withPolicyVersion("20210210")
+                .withAttributes(
+                        Map.of(
+                                "department",
+                                stringValue("marketing"),
+                                "geography",
+                                stringValue("GB"),
+                                "team",
+                                stringValue("design")));
+
+        CheckResourcesRequestBuilder batch = this.client.batch(
+                Principal.newInstance("john", "employee")
+                        .withPolicyVersion("20210210")
+                        .withAttribute("department", stringValue("marketing"))
+                        .withAttribute("team", stringValue("design"))
+                        .withAttribute("geography", stringValue("GB")));
+
+        CheckResourcesResult first = batch
+                .addResource(template.newResourceAction("XX125")
+                        .withAttributes(Map.of("id", stringValue("XX125"), "owner", stringValue("john")))
+                        .withActions("view:public"))
+                .check();
+        Assertions.assertEquals(1, first.getRaw().getResultsCount());
+        Assertions.assertTrue(first.find("XX125").orElseThrow().isAllowed("view:public"));
+
+        CheckResourcesResult second = batch.reset("bar")
+                .addResources(List.of(template.newResourceAction("XX225")
+                        .withAttributes(Map.of("id", stringValue("XX225"), "owner", stringValue("martha")))
+                        .withActions("view:public", "approve")))
+                .check();
+        Assertions.assertEquals("bar", second.getRequestId());
+        Assertions.assertEquals(1, second.getRaw().getResultsCount());
+        Assertions.assertTrue(second.find("XX125").isEmpty());
+        Assertions.assertFalse(second.find("XX225").orElseThrow().isAllowed("approve"));
+    }
+
+    @Test
+    public void filterAllowed() {
+        List<Integer> items = IntStream.range(0, 120).boxed().collect(Collectors.toList());
+        Function<Integer, Resource> toResource = i -> {
+            String id = "XX" + (i % 60);
+            return Resource.newInstance("leave_request", id)
+                    .withPolicyVersion("20210210")
+                    .withAttribute("id", stringValue(id))
+                    .withAttribute("department", stringValue("marketing"))
+                    .withAttribute("geography", stringValue("GB"))
+                    .withAttribute("team", stringValue("design"))
+                    .withAttribute("owner", stringValue(i % 2 == 0 ? "john" : "martha"));
+        };
+        Principal principal = Principal.newInstance("john", "employee")
+                .withPolicyVersion("20210210")
+                .withAttribute("department", stringValue("marketing"))
+                .withAttribute("geography", stringValue("GB"))
+                .withAttribute("team", stringValue("design"));
+
+        List<Integer> have = this.client.filterAllowed(principal, items, "view:private", toResource);
+        List<Integer> want = items.stream().filter(i -> i % 2 == 0).collect(Collectors.toList());
+        Assertions.assertIterableEquals(want, have);
+
+        BitSet mask = this.client.filterAllowedMask(principal, items, "view:private", toResource, 7);
+        Assertions.assertEquals(60, mask.cardinality());
+        Assertions.assertTrue(mask.get(0));
+        Assertions.assertFalse(mask.get(1));
+    }
+
     @Test
     public void planResources() {
         PlanResourcesResult have = this.client.plan(
@@ -285,6 +394,29 @@ abstract class CerbosClientTests {
         Assertions.assertEquals("eq", argExpr2.getOperator());
     }
 
+    @Test
+    public void planAll() {
+        Resource leaveRequest = Resource.newInstance("leave_request").withPolicyVersion("20210210");
+        Resource purchaseOrder = Resource.newInstance("purchase_order");
+        Map<Resource, PlanResourcesResult> have = this.client.planAll(
+                "foo",
+                Principal.newInstance("maggie", "manager")
+                        .withPolicyVersion("20210210")
+                        .withAttribute("department", stringValue("marketing"))
+                        .withAttribute("geography", stringValue("GB"))
+                        .withAttribute("managed_geographies", stringValue("GB"))
+                        .withAttribute("team", stringValue("design")),
+                Map.of(leaveRequest, List.of("approve", "view:private"), purchaseOrder, List.of("view")));
+
+        Assertions.assertEquals(2, have.size());
+        PlanResourcesResult leaveRequestPlan = have.get(leaveRequest);
+        Assertions.assertEquals("foo", leaveRequestPlan.getRequestId());
+        Assertions.assertEquals("leave_request", leaveRequestPlan.getResourceKind());
+        Assertions.assertIterableEquals(List.of("approve", "view:private"), leaveRequestPlan.getActions());
+        Assertions.assertTrue(leaveRequestPlan.isConditional());
+        Assertions.assertEquals("purchase_order", have.get(purchaseOrder).getResourceKind());
+    }
+
     @Test
     public void planResourcesWithRequestID() {
         PlanResourcesResult have = this.client.plan(
@@ -363,6 +495,20 @@ abstract class CerbosClientTests {
         Assertions.assertEquals(Status.INVALID_ARGUMENT.getCode().value(), have.getStatusCode());
     }
 
+    @Test
+    public void partialTryCheckRequest() {
+        CheckOutcome have = this.client.tryCheck(
+                Principal.newInstance("john")
+                        .withPolicyVersion("20210210"),
+                Resource.newInstance("leave_request", "")
+                        .withPolicyVersion("20210210"),
+                "view:public");
+        Assertions.assertFalse(have.isSuccess());
+        Assertions.assertFalse(have.isAllowed("view:public"));
+        Assertions.assertTrue(have.getResult().isEmpty());
+        Assertions.assertEquals(Status.INVALID_ARGUMENT.getCode().value(), have.getStatusCode());
+    }
+
     @Test
     public void partialPlanRequest() {
         CerbosException have = Assertions.assertThrows(CerbosException.class, () -> {
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+import dev.cerbos.api.v1.request.Request;
+import dev.cerbos.sdk.builders.AttributeValue;
+import dev.cerbos.sdk.builders.AuxData;
+import dev.cerbos.sdk.builders.Principal;
+import dev.cerbos.sdk.builders.Resource;
+import dev.cerbos.sdk.cache.CacheGenerations;
+import dev.cerbos.sdk.cache.DecisionKeyStrategy;
+import dev.cerbos.sdk.cache.InMemoryDecisionCache;
+import dev.cerbos.sdk.cache.ResourceActions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class CheckCacheTest {
+    private static final Principal ALICE = Principal.newInstance("alice", "user");
+
+    private final InProcessCerbos cerbos = new InProcessCerbos();
+    private final InMemoryDecisionCache cache = InMemoryDecisionCache.newBuilder().build();
+
+    @AfterEach
+    void tearDown() {
+        cerbos.close();
+    }
+
+    private static Resource document(String id) {
+        return Resource.newInstance("document", id);
+    }
+
+    private CerbosBlockingClient client(Duration ttl) {
+        return cerbos.client(InProcessCerbos.defaultOptions()
+                .withCheckCache(new CheckCache(cache, ttl, DecisionKeyStrategy.allInputs())));
+    }
+
+    private static List<String> actions(Request.CheckResourcesRequest request) {
+        return request.getResources(0).getActionsList();
+    }
+
+    @Test
+    void servesCachedDecisions() {
+        cerbos.onCheck(cerbos.allowing(Set.of("view")));
+        CerbosBlockingClient client = client(Duration.ofMinutes(1));
+
+        CheckResult first = client.check(ALICE, document("d1"), "view", "edit");
+        Assertions.assertTrue(first.isAllowed("view"));
+        Assertions.assertFalse(first.isAllowed("edit"));
+        Assertions.assertEquals(1, cerbos.checkRequests().size());
+
+        CheckResult second = client.check(ALICE, document("d1"), "edit", "view");
+        Assertions.assertTrue(second.isAllowed("view"));
+        Assertions.assertFalse(second.isAllowed("edit"));
+        Assertions.assertEquals(1, cerbos.checkRequests().size());
+    }
+
+    @Test
+    void asksOnlyForMissingActions() {
+        cerbos.onCheck(cerbos.allowing(Set.of("view", "delete")));
+        CerbosBlockingClient client = client(Duration.ofMinutes(1));
+
+        client.check(ALICE, document("d1"), "view");
+        CheckResult result = client.check(ALICE, document("d1"), "view", "delete");
+        Assertions.assertTrue(result.isAllowed("view"));
+        Assertions.assertTrue(result.isAllowed("delete"));
+        List<Request.CheckResourcesRequest> requests = cerbos.checkRequests();
+        Assertions.assertEquals(2, requests.size());
+        Assertions.assertEquals(List.of("delete"), actions(requests.get(1)));
+
+        client.check(ALICE, document("d1"), "delete", "view");
+        Assertions.assertEquals(2, cerbos.checkRequests().size());
+    }
+
+    @Test
+    void missesOnDifferentInputs() {
+        CerbosBlockingClient client = client(Duration.ofMinutes(1));
+
+        client.check(ALICE, document("d1"), "view");
+        client.check(ALICE, document("d2"), "view");
+        client.check(Principal.newInstance("bob", "user"), document("d1"), "view");
+        client.check(ALICE, document("d1").withAttribute("owner", AttributeValue.stringValue("bob")), "view");
+        client.with(AuxData.withJWT("token")).check(ALICE, document("d1"), "view");
+        Assertions.assertEquals(5, cerbos.checkRequests().size());
+    }
+
+    @Test
+    void missesExpiredDecisions() {
+        CerbosBlockingClient client = client(Duration.ZERO);
+
+        client.check(ALICE, document("d1"), "view");
+        client.check(ALICE, document("d1"), "view");
+        Assertions.assertEquals(2, cerbos.checkRequests().size());
+    }
+
+    @Test
+    void dropsDecisionsInvalidatedWhileInFlight() {
+        cerbos.onCheck(request -> {
+            // The policies change while the PDP is answering
+            CacheGenerations.invalidate(cache, "document");
+            return cerbos.allowing(Set.of("view")).apply(request);
+        });
+        CerbosBlockingClient client = client(Duration.ofMinutes(1));
+
+        Assertions.assertTrue(client.check(ALICE, document("d1"), "view").isAllowed("view"));
+        Assertions.assertEquals(0, cache.size());
+
+        cerbos.onCheck(cerbos.allowing(Set.of()));
+        Assertions.assertFalse(client.check(ALICE, document("d1"), "view").isAllowed("view"));
+        Assertions.assertFalse(client.check(ALICE, document("d1"), "view").isAllowed("view"));
+        Assertions.assertEquals(2, cerbos.checkRequests().size());
+    }
+
+    @Test
+    void widensMissesToRegisteredActions() {
+        cerbos.onCheck(cerbos.allowing(Set.of("view", "delete")));
+        CerbosBlockingClient client = cerbos.client(InProcessCerbos.defaultOptions()
+                .withCheckCache(new CheckCache(cache, Duration.ofMinutes(1), DecisionKeyStrategy.allInputs())
+                        .withWidening(ResourceActions.of(Map.of("document", List.of("view", "edit", "delete"))))));
+
+        CheckResult result = client.check(ALICE, document("d1"), "view");
+        Assertions.assertEquals(Map.of("view", true), result.getAll());
+        Assertions.assertEquals(Set.of("view", "edit", "delete"), Set.copyOf(actions(cerbos.checkRequests().get(0))));
+
+        Assertions.assertFalse(client.check(ALICE, document("d1"), "edit").isAllowed("edit"));
+        Assertions.assertEquals(Map.of("delete", true, "view", true),
+                client.check(ALICE, document("d1"), "delete", "view").getAll());
+        Assertions.assertEquals(1, cerbos.checkRequests().size());
+
+        // Every miss is widened whichever action was asked for, but unregistered kinds are not
+        client.check(ALICE, document("d2"), "edit");
+        client.check(ALICE, Resource.newInstance("album", "a1"), "view");
+        Assertions.assertEquals(Set.of("view", "edit", "delete"), Set.copyOf(actions(cerbos.checkRequests().get(1))));
+        Assertions.assertEquals(List.of("view"), actions(cerbos.checkRequests().get(2)));
+    }
+
+    @Test
+    void widensOnlyWithDecisionCache() {
+        CerbosClientBuilder builder = new CerbosClientBuilder("localhost:3593")
+                .withPlaintext()
+                .withActionWidening(ResourceActions.of(Map.of("document", List.of("view", "edit"))));
+        Assertions.assertThrows(CerbosClientBuilder.InvalidClientConfigurationException.class,
+                builder::buildBlockingClient);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+import dev.cerbos.api.v1.effect.EffectOuterClass.Effect;
+import dev.cerbos.api.v1.engine.Engine;
+import dev.cerbos.api.v1.response.Response;
+import dev.cerbos.sdk.cache.DecisionKey;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class CheckScopeTest {
+    private static final DecisionKey KEY = DecisionKey.of("document", 1, 2);
+
+    private static Response.CheckResourcesResponse.ResultEntry entry(Map<String, Effect> actions) {
+        return Response.CheckResourcesResponse.ResultEntry.newBuilder().putAllActions(actions).build();
+    }
+
+    @Test
+    void memoizesWithinScope() {
+        ScopedMemo memo = new ScopedMemo();
+        Assertions.assertNull(memo.current());
+
+        try (CheckScope scope = memo.open()) {
+            Assertions.assertSame(scope, memo.current());
+            scope.store(KEY, entry(Map.of("view", Effect.EFFECT_ALLOW, "edit", Effect.EFFECT_DENY)));
+            Assertions.assertEquals(Map.of("view", Effect.EFFECT_ALLOW, "edit", Effect.EFFECT_DENY),
+                    scope.lookup(KEY, List.of("view", "edit", "delete")));
+            Assertions.assertEquals(Map.of(), scope.lookup(DecisionKey.of("document", 1, 3), List.of("view")));
+        }
+        Assertions.assertNull(memo.current());
+
+        try (CheckScope scope = memo.open()) {
+            Assertions.assertEquals(Map.of(), scope.lookup(KEY, List.of("view")));
+        }
+    }
+
+    @Test
+    void nestedScopesShareDecisions() {
+        ScopedMemo memo = new ScopedMemo();
+        try (CheckScope outer = memo.open()) {
+            try (CheckScope inner = memo.open()) {
+                inner.store(KEY, entry(Map.of("view", Effect.EFFECT_ALLOW)));
+                Assertions.assertThrows(IllegalStateException.class, outer::close);
+            }
+            Assertions.assertSame(outer, memo.current());
+            Assertions.assertEquals(Map.of("view", Effect.EFFECT_ALLOW), outer.lookup(KEY, List.of("view")));
+        }
+        Assertions.assertNull(memo.current());
+    }
+
+    @Test
+    void skipsResultsWithOutputs() {
+        ScopedMemo memo = new ScopedMemo();
+        try (CheckScope scope = memo.open()) {
+            scope.store(KEY, entry(Map.of("view", Effect.EFFECT_ALLOW)).toBuilder()
+                    .addOutputs(Engine.OutputEntry.newBuilder().setSrc("rule"))
+                    .build());
+            Assertions.assertEquals(Map.of(), scope.lookup(KEY, List.of("view")));
+        }
+    }
+}
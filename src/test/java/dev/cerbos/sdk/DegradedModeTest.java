@@ -0,0 +1,179 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+import dev.cerbos.api.v1.request.Request;
+import dev.cerbos.sdk.builders.Principal;
+import dev.cerbos.sdk.builders.Resource;
+import dev.cerbos.sdk.cache.CachedDecision;
+import dev.cerbos.sdk.cache.DecisionKey;
+import dev.cerbos.sdk.cache.DecisionKeyStrategy;
+import dev.cerbos.sdk.cache.InMemoryDecisionCache;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+public class DegradedModeTest {
+    private static final Principal ALICE = Principal.newInstance("alice", "user");
+    private static final Resource DOCUMENT = Resource.newInstance("document", "d1");
+
+    private final InProcessCerbos cerbos = new InProcessCerbos();
+    private final InMemoryDecisionCache cache = InMemoryDecisionCache.newBuilder().build();
+
+    @AfterEach
+    void tearDown() {
+        cerbos.close();
+    }
+
+    private static void await(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                Assertions.fail(message);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private CerbosBlockingClient client(DegradedMode degraded) {
+        // A zero TTL sends every check to the PDP, so cached decisions are only served while degraded
+        return cerbos.client(InProcessCerbos.defaultOptions()
+                .withCheckCache(new CheckCache(cache, Duration.ZERO, DecisionKeyStrategy.allInputs()))
+                .withDegradedMode(degraded));
+    }
+
+    private static DecisionKey key(Principal principal, Resource resource) {
+        return DecisionKey.of(principal.toPrincipal(), resource.toResource(), Request.AuxData.getDefaultInstance());
+    }
+
+    @Test
+    void classifiesOutages() {
+        DegradedMode degraded = new DegradedMode(Duration.ofMinutes(1), false);
+        Assertions.assertTrue(degraded.isOutage(Status.UNAVAILABLE));
+        Assertions.assertTrue(degraded.isOutage(Status.DEADLINE_EXCEEDED));
+        Assertions.assertFalse(degraded.isOutage(Status.PERMISSION_DENIED));
+        Assertions.assertFalse(degraded.isOutage(Status.INTERNAL));
+        Assertions.assertFalse(degraded.isOutage(Status.INVALID_ARGUMENT));
+    }
+
+    @Test
+    void onlyOutagesAreDegraded() {
+        CerbosBlockingClient client = client(new DegradedMode(Duration.ofMinutes(1), true).watch(cerbos.channel()));
+
+        cerbos.onCheck(request -> {
+            throw Status.UNAVAILABLE.withDescription("overloaded").asRuntimeException();
+        });
+        Assertions.assertTrue(client.check(ALICE, DOCUMENT, "view").isAllowed("view"));
+
+        cerbos.onCheck(request -> {
+            throw Status.INVALID_ARGUMENT.asRuntimeException();
+        });
+        CerbosException e = Assertions.assertThrows(CerbosException.class,
+                () -> client.check(ALICE, DOCUMENT, "view"));
+        Assertions.assertEquals(Status.Code.INVALID_ARGUMENT.value(), e.getStatusCode());
+    }
+
+    @Test
+    void appliesDefaultDecisionWhenStopped() {
+        CerbosBlockingClient denying = client(new DegradedMode(Duration.ofMinutes(1), false).watch(cerbos.channel()));
+        CerbosBlockingClient allowing = client(new DegradedMode(Duration.ofMinutes(1), true).watch(cerbos.channel()));
+        cerbos.stop();
+
+        CheckResult denied = denying.check(ALICE, DOCUMENT, "view", "edit");
+        Assertions.assertFalse(denied.isAllowed("view"));
+        Assertions.assertFalse(denied.isAllowed("edit"));
+        CheckResult allowed = allowing.check(ALICE, DOCUMENT, "view", "edit");
+        Assertions.assertTrue(allowed.isAllowed("view"));
+        Assertions.assertTrue(allowed.isAllowed("edit"));
+    }
+
+    @Test
+    void servesCachedDecisionsWithinStalenessBound() {
+        CerbosBlockingClient client = client(new DegradedMode(Duration.ofMinutes(1), false).watch(cerbos.channel()));
+        cerbos.onCheck(cerbos.allowing(Set.of("view")));
+        Assertions.assertTrue(client.check(ALICE, DOCUMENT, "view").isAllowed("view"));
+
+        Resource stale = Resource.newInstance("document", "d2");
+        cache.put(key(ALICE, stale), new CachedDecision(Map.of("view", true),
+                System.currentTimeMillis() - Duration.ofMinutes(2).toMillis()));
+        cerbos.stop();
+
+        Assertions.assertTrue(client.check(ALICE, DOCUMENT, "view").isAllowed("view"));
+        Assertions.assertFalse(client.check(ALICE, DOCUMENT, "edit").isAllowed("edit"));
+        Assertions.assertFalse(client.check(ALICE, stale, "view").isAllowed("view"));
+    }
+
+    @Test
+    void failsFastWhileChannelIsUnavailable() throws InterruptedException {
+        // Follow a channel that can't connect while checks go to a PDP that is up, so that any RPC would be seen
+        ManagedChannel unreachable = InProcessChannelBuilder.forName(InProcessServerBuilder.generateName()).build();
+        try {
+            DegradedMode degraded = new DegradedMode(Duration.ofMinutes(1), true).watch(unreachable);
+            Assertions.assertFalse(degraded.isUnavailable());
+            unreachable.getState(true);
+            await(degraded::isUnavailable, "channel should be unavailable");
+
+            CerbosBlockingClient client = client(degraded);
+            Assertions.assertTrue(client.check(ALICE, DOCUMENT, "view").isAllowed("view"));
+            Assertions.assertEquals("", client.check(ALICE, DOCUMENT, "view").getCerbosCallId());
+            Assertions.assertEquals(0, cerbos.checkRequests().size());
+        } finally {
+            unreachable.shutdownNow();
+        }
+    }
+
+    @Test
+    void refreshesDecisionsOnceReady() throws InterruptedException {
+        DegradedMode degraded = new DegradedMode(Duration.ofMinutes(1), false).watch(cerbos.channel());
+        CerbosBlockingClient client = client(degraded);
+        cerbos.onCheck(cerbos.allowing(Set.of()));
+        Assertions.assertFalse(client.check(ALICE, DOCUMENT, "view").isAllowed("view"));
+
+        cerbos.stop();
+        Assertions.assertFalse(client.check(ALICE, DOCUMENT, "view").isAllowed("view"));
+        await(degraded::isUnavailable, "channel should be unavailable");
+
+        cerbos.onCheck(cerbos.allowing(Set.of("view")));
+        cerbos.start();
+        await(() -> !degraded.isUnavailable(), "channel should be ready again");
+        await(() -> cache.get(key(ALICE, DOCUMENT))
+                        .map(CachedDecision::getActions)
+                        .flatMap(actions -> Optional.ofNullable(actions.get("view")))
+                        .orElse(false),
+                "decision served while degraded should be refreshed");
+        Assertions.assertEquals(2, cerbos.checkRequests().size());
+        Assertions.assertTrue(client.check(ALICE, DOCUMENT, "view").isAllowed("view"));
+    }
+
+    @Test
+    void refreshesDecisionsAfterNextResponse() throws InterruptedException {
+        // The channel stays ready, so only a successful check shows that the PDP is reachable again
+        CerbosBlockingClient client = client(new DegradedMode(Duration.ofMinutes(1), false).watch(cerbos.channel()));
+        cerbos.onCheck(request -> {
+            throw Status.DEADLINE_EXCEEDED.asRuntimeException();
+        });
+        Assertions.assertFalse(client.check(ALICE, DOCUMENT, "view").isAllowed("view"));
+
+        cerbos.onCheck(cerbos.allowing(Set.of("view")));
+        Assertions.assertTrue(client.check(ALICE, Resource.newInstance("document", "d2"), "view").isAllowed("view"));
+        await(() -> cache.get(key(ALICE, DOCUMENT))
+                        .map(CachedDecision::getActions)
+                        .flatMap(actions -> Optional.ofNullable(actions.get("view")))
+                        .orElse(false),
+                "decision served while degraded should be refreshed");
+        Assertions.assertEquals(3, cerbos.checkRequests().size());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+import dev.cerbos.api.v1.effect.EffectOuterClass.Effect;
+import dev.cerbos.api.v1.request.Request;
+import dev.cerbos.api.v1.response.Response;
+import dev.cerbos.sdk.builders.Principal;
+import dev.cerbos.sdk.builders.Resource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class FilterAllowedTest {
+    private static final Principal ALICE = Principal.newInstance("alice", "user");
+
+    private final InProcessCerbos cerbos = new InProcessCerbos();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        cerbos.close();
+    }
+
+    /**
+     * Allows resources with even IDs after a delay, recording the number of concurrent requests.
+     */
+    private Response.CheckResourcesResponse evenIdsAllowed(Request.CheckResourcesRequest request) {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        Response.CheckResourcesResponse.Builder response = Response.CheckResourcesResponse.newBuilder()
+                .setRequestId(request.getRequestId());
+        for (Request.CheckResourcesRequest.ResourceEntry entry : request.getResourcesList()) {
+            boolean even = Integer.parseInt(entry.getResource().getId()) % 2 == 0;
+            response.addResults(Response.CheckResourcesResponse.ResultEntry.newBuilder()
+                    .putActions(entry.getActions(0), even ? Effect.EFFECT_ALLOW : Effect.EFFECT_DENY));
+        }
+        return response.build();
+    }
+
+    @Test
+    void boundsChunksInFlight() {
+        cerbos.onCheck(this::evenIdsAllowed);
+        CerbosBlockingClient client = cerbos.client(InProcessCerbos.defaultOptions());
+        List<Integer> items = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+        BitSet mask = client.filterAllowedMask(ALICE, items, "view",
+                i -> Resource.newInstance("document", String.valueOf(i)), 5, 3);
+        for (int i = 0; i < items.size(); i++) {
+            Assertions.assertEquals(i % 2 == 0, mask.get(i), "item " + i);
+        }
+        Assertions.assertEquals(20, cerbos.checkRequests().size());
+        Assertions.assertTrue(maxInFlight.get() <= 3, "at most 3 chunks in flight but saw " + maxInFlight.get());
+        Assertions.assertTrue(maxInFlight.get() > 1, "chunks should be sent concurrently");
+    }
+
+    @Test
+    void appliesDeadlinePerChunk() {
+        cerbos.onCheck(this::evenIdsAllowed);
+        // Twenty chunks two at a time take longer than the timeout in total but each one finishes well within it
+        CerbosBlockingClient client = new CerbosBlockingClient(cerbos.channel(), 150, null,
+                InProcessCerbos.defaultOptions());
+        List<Integer> items = IntStream.range(0, 20).boxed().collect(Collectors.toList());
+
+        BitSet mask = client.filterAllowedMask(ALICE, items, "view",
+                i -> Resource.newInstance("document", String.valueOf(i)), 1, 2);
+        Assertions.assertEquals(10, mask.cardinality());
+        Assertions.assertEquals(20, cerbos.checkRequests().size());
+    }
+
+    @Test
+    void checksDuplicatesOnce() {
+        cerbos.onCheck(this::evenIdsAllowed);
+        CerbosBlockingClient client = cerbos.client(InProcessCerbos.defaultOptions());
+        List<Integer> items = List.of(1, 2, 2, 3, 4, 4, 4);
+
+        List<Integer> allowed = client.filterAllowed(ALICE, items, "view",
+                i -> Resource.newInstance("document", String.valueOf(i)));
+        Assertions.assertEquals(List.of(2, 2, 4, 4, 4), allowed);
+        Assertions.assertEquals(4, cerbos.checkRequests().get(0).getResourcesCount());
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        CerbosBlockingClient client = cerbos.client(InProcessCerbos.defaultOptions());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> client.filterAllowedMask(ALICE, List.of(1),
+                "view", i -> Resource.newInstance("document", "1"), 0, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> client.filterAllowedMask(ALICE, List.of(1),
+                "view", i -> Resource.newInstance("document", "1"), 1, 0));
+    }
+}
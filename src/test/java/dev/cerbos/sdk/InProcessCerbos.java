@@ -0,0 +1,276 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+import dev.cerbos.api.v1.effect.EffectOuterClass.Effect;
+import dev.cerbos.api.v1.engine.Engine;
+import dev.cerbos.api.v1.policy.PolicyOuterClass;
+import dev.cerbos.api.v1.request.Request;
+import dev.cerbos.api.v1.response.Response;
+import dev.cerbos.api.v1.svc.CerbosAdminServiceGrpc;
+import dev.cerbos.api.v1.svc.CerbosServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Fake PDP served in-process for tests that need a client without a Cerbos container.
+ * <p>
+ * The check and plan services answer with replaceable handlers, and check requests are recorded. The admin service
+ * serves the policies and inspection results put into it. The server can be stopped and started again under the same
+ * name to simulate an outage.
+ */
+public final class InProcessCerbos implements AutoCloseable {
+    private final String name = InProcessServerBuilder.generateName();
+    private final ManagedChannel channel = InProcessChannelBuilder.forName(name).build();
+    private final Map<String, PolicyOuterClass.Policy> policies = new ConcurrentHashMap<>();
+    private final Map<String, Response.InspectPoliciesResponse.Result> inspections = new ConcurrentHashMap<>();
+    private final List<Request.CheckResourcesRequest> checkRequests = new CopyOnWriteArrayList<>();
+    private final List<String> adminCalls = new CopyOnWriteArrayList<>();
+    private final AtomicInteger callIds = new AtomicInteger();
+    private volatile Function<Request.CheckResourcesRequest, Response.CheckResourcesResponse> checkHandler =
+            allowing(Set.of());
+    private volatile Function<Request.PlanResourcesRequest, Response.PlanResourcesResponse> planHandler =
+            planning(Engine.PlanResourcesFilter.newBuilder()
+                    .setKind(Engine.PlanResourcesFilter.Kind.KIND_ALWAYS_ALLOWED)
+                    .build());
+    private volatile Status inspectionFailure;
+    private Server server;
+
+    public InProcessCerbos() {
+        start();
+    }
+
+    /**
+     * Start the server, or start it again after {@link #stop()}.
+     */
+    public synchronized void start() {
+        try {
+            server = InProcessServerBuilder.forName(name)
+                    .addService(new CheckService())
+                    .addService(new AdminService())
+                    .build()
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stop the server, failing the calls in flight.
+     */
+    public synchronized void stop() {
+        server.shutdownNow();
+        try {
+            server.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public ManagedChannel channel() {
+        return channel;
+    }
+
+    public CerbosBlockingAdminClient adminClient() {
+        return new CerbosBlockingAdminClient(CerbosAdminServiceGrpc.newBlockingStub(channel), 5000, Optional.empty());
+    }
+
+    /**
+     * Returns the options that {@link CerbosClientBuilder} sets regardless of configuration.
+     */
+    static ClientOptions defaultOptions() {
+        return ClientOptions.DEFAULT.withScopedMemo(new ScopedMemo());
+    }
+
+    CerbosBlockingClient client(ClientOptions options) {
+        return new CerbosBlockingClient(channel, 5000, null, options);
+    }
+
+    /**
+     * Returns a client with the {@link #defaultOptions()}.
+     */
+    public CerbosBlockingClient client() {
+        return client(defaultOptions());
+    }
+
+    /**
+     * Store a policy under the given ID, which also becomes its store identifier.
+     */
+    public void putPolicy(String id, PolicyOuterClass.Policy policy) {
+        policies.put(id, policy.toBuilder()
+                .setMetadata(policy.getMetadata().toBuilder().setStoreIdentifier(id))
+                .build());
+    }
+
+    public void removePolicy(String id) {
+        policies.remove(id);
+        inspections.remove(id);
+    }
+
+    public void putInspection(String id, Response.InspectPoliciesResponse.Result result) {
+        inspections.put(id, result);
+    }
+
+    /**
+     * Fail inspection requests with the given status, or answer them again if it is null.
+     */
+    public void failInspections(Status status) {
+        this.inspectionFailure = status;
+    }
+
+    /**
+     * Returns the names of the admin RPCs received so far, in order.
+     */
+    public List<String> adminCalls() {
+        return new ArrayList<>(adminCalls);
+    }
+
+    public void onCheck(Function<Request.CheckResourcesRequest, Response.CheckResourcesResponse> handler) {
+        this.checkHandler = handler;
+    }
+
+    public List<Request.CheckResourcesRequest> checkRequests() {
+        return new ArrayList<>(checkRequests);
+    }
+
+    /**
+     * Handler that allows the given actions on every resource and denies all others.
+     */
+    public Function<Request.CheckResourcesRequest, Response.CheckResourcesResponse> allowing(Set<String> allowed) {
+        return request -> {
+            Response.CheckResourcesResponse.Builder response = Response.CheckResourcesResponse.newBuilder()
+                    .setRequestId(request.getRequestId())
+                    .setCerbosCallId("call-" + callIds.incrementAndGet());
+            for (Request.CheckResourcesRequest.ResourceEntry entry : request.getResourcesList()) {
+                Response.CheckResourcesResponse.ResultEntry.Builder result =
+                        Response.CheckResourcesResponse.ResultEntry.newBuilder()
+                                .setResource(Response.CheckResourcesResponse.ResultEntry.Resource.newBuilder()
+                                        .setId(entry.getResource().getId())
+                                        .setKind(entry.getResource().getKind()));
+                for (String action : entry.getActionsList()) {
+                    result.putActions(action, allowed.contains(action) ? Effect.EFFECT_ALLOW : Effect.EFFECT_DENY);
+                }
+                response.addResults(result);
+            }
+            return response.build();
+        };
+    }
+
+    public void onPlan(Function<Request.PlanResourcesRequest, Response.PlanResourcesResponse> handler) {
+        this.planHandler = handler;
+    }
+
+    /**
+     * Handler that answers every plan request with the given filter.
+     */
+    public static Function<Request.PlanResourcesRequest, Response.PlanResourcesResponse> planning(
+            Engine.PlanResourcesFilter filter) {
+        return request -> Response.PlanResourcesResponse.newBuilder()
+                .setRequestId(request.getRequestId())
+                .setResourceKind(request.getResource().getKind())
+                .addAllActions(request.getActionsList())
+                .setFilter(filter)
+                .build();
+    }
+
+    @Override
+    public void close() {
+        stop();
+        channel.shutdownNow();
+    }
+
+    private final class CheckService extends CerbosServiceGrpc.CerbosServiceImplBase {
+        @Override
+        public void checkResources(Request.CheckResourcesRequest request,
+                StreamObserver<Response.CheckResourcesResponse> responseObserver) {
+            checkRequests.add(request);
+            try {
+                responseObserver.onNext(checkHandler.apply(request));
+                responseObserver.onCompleted();
+            } catch (RuntimeException e) {
+                responseObserver.onError(Status.fromThrowable(e).asRuntimeException());
+            }
+        }
+
+        @Override
+        public void planResources(Request.PlanResourcesRequest request,
+                StreamObserver<Response.PlanResourcesResponse> responseObserver) {
+            try {
+                responseObserver.onNext(planHandler.apply(request));
+                responseObserver.onCompleted();
+            } catch (RuntimeException e) {
+                responseObserver.onError(Status.fromThrowable(e).asRuntimeException());
+            }
+        }
+    }
+
+    private final class AdminService extends CerbosAdminServiceGrpc.CerbosAdminServiceImplBase {
+        @Override
+        public void listPolicies(Request.ListPoliciesRequest request,
+                StreamObserver<Response.ListPoliciesResponse> responseObserver) {
+            adminCalls.add("listPolicies");
+            Response.ListPoliciesResponse.Builder response = Response.ListPoliciesResponse.newBuilder();
+            new TreeMap<>(policies).forEach((id, policy) -> {
+                if (request.getIncludeDisabled() || !policy.getDisabled()) {
+                    response.addPolicyIds(id);
+                }
+            });
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void getPolicy(Request.GetPolicyRequest request,
+                StreamObserver<Response.GetPolicyResponse> responseObserver) {
+            adminCalls.add("getPolicy");
+            // Like the PDP, reject requests for more policies than it returns at once
+            if (request.getIdCount() > 25) {
+                responseObserver.onError(Status.INVALID_ARGUMENT.asRuntimeException());
+                return;
+            }
+            Response.GetPolicyResponse.Builder response = Response.GetPolicyResponse.newBuilder();
+            for (String id : request.getIdList()) {
+                PolicyOuterClass.Policy policy = policies.get(id);
+                if (policy != null) {
+                    response.addPolicies(policy);
+                }
+            }
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void inspectPolicies(Request.InspectPoliciesRequest request,
+                StreamObserver<Response.InspectPoliciesResponse> responseObserver) {
+            adminCalls.add("inspectPolicies");
+            Status failure = inspectionFailure;
+            if (failure != null) {
+                responseObserver.onError(failure.asRuntimeException());
+                return;
+            }
+            responseObserver.onNext(Response.InspectPoliciesResponse.newBuilder().putAllResults(inspections).build());
+            responseObserver.onCompleted();
+        }
+    }
+}
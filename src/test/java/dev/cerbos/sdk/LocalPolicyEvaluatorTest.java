@@ -0,0 +1,244 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+import dev.cerbos.api.v1.effect.EffectOuterClass.Effect;
+import dev.cerbos.api.v1.policy.PolicyOuterClass;
+import dev.cerbos.sdk.builders.Principal;
+import dev.cerbos.sdk.builders.Resource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+public class LocalPolicyEvaluatorTest {
+    private static final List<String> ACTIONS = List.of("view", "edit", "approve", "delete", "archive");
+    private static final Resource DOCUMENT = Resource.newInstance("document", "d1");
+
+    @TempDir
+    Path tmp;
+
+    private static PolicyOuterClass.ResourceRule rule(Effect effect, List<String> actions, List<String> roles) {
+        return PolicyOuterClass.ResourceRule.newBuilder()
+                .setEffect(effect)
+                .addAllActions(actions)
+                .addAllRoles(roles)
+                .build();
+    }
+
+    private static PolicyOuterClass.Policy resourcePolicy(PolicyOuterClass.ResourceRule... rules) {
+        return PolicyOuterClass.Policy.newBuilder()
+                .setApiVersion("api.cerbos.dev/v1")
+                .setResourcePolicy(PolicyOuterClass.ResourcePolicy.newBuilder()
+                        .setResource("document")
+                        .setVersion("default")
+                        .addAllRules(List.of(rules)))
+                .build();
+    }
+
+    private static LocalPolicyEvaluator evaluator(PolicyOuterClass.Policy... policies) {
+        return LocalPolicyEvaluator.newBuilder().withPolicies(List.of(policies)).build();
+    }
+
+    private static Map<String, Effect> evaluate(LocalPolicyEvaluator evaluator, String role, String... actions) {
+        return evaluator.evaluate(Principal.newInstance("alice", role).toPrincipal(), DOCUMENT.toResource(),
+                List.of(actions));
+    }
+
+    private static PolicyOuterClass.ResourceRule conditional(PolicyOuterClass.ResourceRule rule) {
+        return rule.toBuilder()
+                .setCondition(PolicyOuterClass.Condition.newBuilder()
+                        .setMatch(PolicyOuterClass.Match.newBuilder().setExpr("R.attr.owner == P.id")))
+                .build();
+    }
+
+    private void write(String file, String contents) throws IOException {
+        Path path = tmp.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, contents, StandardCharsets.UTF_8);
+    }
+
+    private static String resourcePolicyJson(String kind, String extraField) {
+        return "{\"$schema\": \"https://api.cerbos.dev/latest/cerbos/policy/v1/Policy.schema.json\","
+                + " \"apiVersion\": \"api.cerbos.dev/v1\","
+                + " \"resourcePolicy\": {\"resource\": \"" + kind + "\", \"version\": \"default\"," + extraField
+                + " \"rules\": [{\"actions\": [\"view\"], \"effect\": \"EFFECT_ALLOW\", \"roles\": [\"user\"]}]}}";
+    }
+
+    @Test
+    void decidesConditionFreeRules() {
+        LocalPolicyEvaluator evaluator = evaluator(resourcePolicy(
+                rule(Effect.EFFECT_ALLOW, List.of("view", "edit"), List.of("user")),
+                rule(Effect.EFFECT_DENY, List.of("edit"), List.of("guest")),
+                rule(Effect.EFFECT_ALLOW, List.of("*"), List.of("admin")),
+                rule(Effect.EFFECT_ALLOW, List.of("approve"), List.of("user")).toBuilder()
+                        .setCondition(PolicyOuterClass.Condition.newBuilder()
+                                .setMatch(PolicyOuterClass.Match.newBuilder().setExpr("R.attr.owner == P.id")))
+                        .build(),
+                rule(Effect.EFFECT_ALLOW, List.of("delete"), List.of()).toBuilder()
+                        .addDerivedRoles("owner")
+                        .build()));
+
+        Map<String, Effect> user = evaluator.evaluate(
+                Principal.newInstance("alice", "user").toPrincipal(),
+                Resource.newInstance("document", "d1").toResource(), ACTIONS);
+        Assertions.assertEquals(Map.of(
+                "view", Effect.EFFECT_ALLOW,
+                "edit", Effect.EFFECT_ALLOW,
+                "archive", Effect.EFFECT_DENY), user);
+
+        Map<String, Effect> guestAndUser = evaluator.evaluate(
+                Principal.newInstance("bob", "user", "guest").toPrincipal(),
+                Resource.newInstance("document", "d1").toResource(), List.of("view", "edit"));
+        Assertions.assertEquals(Map.of("view", Effect.EFFECT_ALLOW, "edit", Effect.EFFECT_DENY), guestAndUser);
+    }
+
+    @Test
+    void fetchesPoliciesFromThePDPInBatches() {
+        try (InProcessCerbos cerbos = new InProcessCerbos()) {
+            for (int i = 0; i < 30; i++) {
+                PolicyOuterClass.Policy policy = resourcePolicy(rule(Effect.EFFECT_ALLOW, List.of("view"),
+                        List.of("user")));
+                cerbos.putPolicy("resource.kind" + i + ".vdefault", policy.toBuilder()
+                        .setResourcePolicy(policy.getResourcePolicy().toBuilder().setResource("kind" + i))
+                        .build());
+            }
+
+            LocalPolicyEvaluator evaluator = LocalPolicyEvaluator.newBuilder()
+                    .withPoliciesFrom(cerbos.adminClient())
+                    .build();
+            Assertions.assertEquals(List.of("listPolicies", "getPolicy", "getPolicy"), cerbos.adminCalls());
+            Assertions.assertEquals(Map.of("view", Effect.EFFECT_ALLOW), evaluator.evaluate(
+                    Principal.newInstance("alice", "user").toPrincipal(),
+                    Resource.newInstance("kind29", "r1").toResource(), List.of("view")));
+        }
+    }
+
+    @Test
+    void leavesUncertainDecisionsToThePDP() {
+        LocalPolicyEvaluator evaluator = evaluator(
+                resourcePolicy(rule(Effect.EFFECT_ALLOW, List.of("view"), List.of("user"))),
+                PolicyOuterClass.Policy.newBuilder()
+                        .setPrincipalPolicy(PolicyOuterClass.PrincipalPolicy.newBuilder()
+                                .setPrincipal("carol")
+                                .setVersion("default"))
+                        .build());
+
+        // Scoped request
+        Assertions.assertTrue(evaluator.evaluate(
+                Principal.newInstance("alice", "user").toPrincipal(),
+                Resource.newInstance("document", "d1").withScope("acme").toResource(), ACTIONS).isEmpty());
+        // Principal policy
+        Assertions.assertTrue(evaluator.evaluate(
+                Principal.newInstance("carol", "user").toPrincipal(),
+                Resource.newInstance("document", "d1").toResource(), ACTIONS).isEmpty());
+        // Unknown policy version
+        Assertions.assertTrue(evaluator.evaluate(
+                Principal.newInstance("alice", "user").toPrincipal(),
+                Resource.newInstance("document", "d1").withPolicyVersion("v2").toResource(), ACTIONS).isEmpty());
+    }
+
+    @Test
+    void leavesRolesWithRolePoliciesToThePDP() {
+        LocalPolicyEvaluator evaluator = evaluator(
+                resourcePolicy(rule(Effect.EFFECT_ALLOW, List.of("view"), List.of("user", "admin"))),
+                PolicyOuterClass.Policy.newBuilder()
+                        .setRolePolicy(PolicyOuterClass.RolePolicy.newBuilder()
+                                .setRole("auditor")
+                                .addParentRoles("user"))
+                        .build());
+
+        Assertions.assertTrue(evaluate(evaluator, "auditor", "view").isEmpty());
+        Assertions.assertTrue(evaluate(evaluator, "user", "view").isEmpty(), "parent roles can be narrowed");
+        Assertions.assertEquals(Map.of("view", Effect.EFFECT_ALLOW), evaluate(evaluator, "admin", "view"));
+    }
+
+    @Test
+    void leavesPoliciesWithSchemasToThePDP() {
+        PolicyOuterClass.Policy policy = resourcePolicy(rule(Effect.EFFECT_ALLOW, List.of("view"), List.of("user")));
+        PolicyOuterClass.Policy withSchemas = policy.toBuilder()
+                .setResourcePolicy(policy.getResourcePolicy().toBuilder()
+                        .setSchemas(PolicyOuterClass.Schemas.newBuilder()
+                                .setResourceSchema(PolicyOuterClass.Schemas.Schema.newBuilder()
+                                        .setRef("cerbos:///document.json"))))
+                .build();
+
+        Assertions.assertTrue(evaluate(evaluator(withSchemas), "user", "view").isEmpty());
+        Assertions.assertTrue(evaluate(evaluator(policy, withSchemas), "user", "view").isEmpty());
+        Assertions.assertTrue(evaluate(evaluator(withSchemas, policy), "user", "view").isEmpty());
+    }
+
+    @Test
+    void leavesGlobPatternsToThePDP() {
+        LocalPolicyEvaluator evaluator = evaluator(resourcePolicy(
+                rule(Effect.EFFECT_ALLOW, List.of("view:*"), List.of("user")),
+                rule(Effect.EFFECT_ALLOW, List.of("edit"), List.of("team-*")),
+                rule(Effect.EFFECT_ALLOW, List.of("*"), List.of("admin"))));
+
+        // Any action could match the pattern, so none are decided for users
+        Assertions.assertTrue(evaluate(evaluator, "user", "view:public", "delete").isEmpty());
+        Assertions.assertEquals(Map.of("view", Effect.EFFECT_DENY, "delete", Effect.EFFECT_DENY),
+                evaluate(evaluator, "team-a", "view", "edit", "delete"));
+        Assertions.assertEquals(Map.of("view:public", Effect.EFFECT_ALLOW, "edit", Effect.EFFECT_ALLOW),
+                evaluate(evaluator, "admin", "view:public", "edit"));
+    }
+
+    @Test
+    void onlyCertainDenialsOverrideAllows() {
+        LocalPolicyEvaluator certain = evaluator(resourcePolicy(
+                rule(Effect.EFFECT_ALLOW, List.of("view", "edit"), List.of("user")),
+                rule(Effect.EFFECT_DENY, List.of("edit"), List.of("user"))));
+        Assertions.assertEquals(Map.of("view", Effect.EFFECT_ALLOW, "edit", Effect.EFFECT_DENY),
+                evaluate(certain, "user", "view", "edit"));
+
+        LocalPolicyEvaluator conditional = evaluator(resourcePolicy(
+                rule(Effect.EFFECT_ALLOW, List.of("view", "edit"), List.of("user")),
+                conditional(rule(Effect.EFFECT_DENY, List.of("edit"), List.of("user")))));
+        Assertions.assertEquals(Map.of("view", Effect.EFFECT_ALLOW), evaluate(conditional, "user", "view", "edit"));
+
+        LocalPolicyEvaluator derived = evaluator(resourcePolicy(
+                rule(Effect.EFFECT_ALLOW, List.of("view", "edit"), List.of("user")),
+                rule(Effect.EFFECT_DENY, List.of("edit"), List.of()).toBuilder().addDerivedRoles("suspended").build()));
+        Assertions.assertEquals(Map.of("view", Effect.EFFECT_ALLOW), evaluate(derived, "user", "view", "edit"));
+    }
+
+    @Test
+    void loadsPolicyDirectory() throws IOException {
+        write("resource_policies/document.json", resourcePolicyJson("document", ""));
+        write("resource_policies/album.json", resourcePolicyJson("album", " \"futureField\": true,"));
+        write("principal_policies/carol.json", "{\"apiVersion\": \"api.cerbos.dev/v1\","
+                + " \"principalPolicy\": {\"principal\": \"carol\", \"version\": \"default\", \"futureField\": 1}}");
+        write("tests/document_test.json", "{\"name\": \"DocumentTestSuite\", \"tests\": []}");
+        write("_schemas/document.json", "{\"type\": \"object\"}");
+        LocalPolicyEvaluator evaluator = LocalPolicyEvaluator.newBuilder().withPolicyDirectory(tmp).build();
+
+        Assertions.assertEquals(Map.of("view", Effect.EFFECT_ALLOW), evaluate(evaluator, "user", "view"));
+        // Resource policies with unknown fields are skipped, other policies still exclude their principals
+        Assertions.assertTrue(evaluator.evaluate(Principal.newInstance("alice", "user").toPrincipal(),
+                Resource.newInstance("album", "a1").toResource(), List.of("view")).isEmpty());
+        Assertions.assertTrue(evaluator.evaluate(Principal.newInstance("carol", "user").toPrincipal(),
+                DOCUMENT.toResource(), List.of("view")).isEmpty());
+    }
+
+    @Test
+    void rejectsDirectoriesWithoutUsablePolicies() throws IOException {
+        LocalPolicyEvaluator.Builder builder = LocalPolicyEvaluator.newBuilder();
+        Assertions.assertThrows(IOException.class, () -> builder.withPolicyDirectory(tmp));
+
+        write("tests/document_test.json", "{\"name\": \"DocumentTestSuite\", \"tests\": []}");
+        Assertions.assertThrows(IOException.class, () -> builder.withPolicyDirectory(tmp));
+
+        write("resource_policies/document.json", resourcePolicyJson("document", ""));
+        write("principal_policies/carol.yaml", "apiVersion: api.cerbos.dev/v1\n");
+        Assertions.assertThrows(IOException.class, () -> builder.withPolicyDirectory(tmp));
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+import dev.cerbos.api.v1.request.Request;
+import dev.cerbos.api.v1.response.Response;
+import dev.cerbos.sdk.builders.Principal;
+import dev.cerbos.sdk.builders.Resource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+public class MetaSamplerTest {
+    private static final Principal ALICE = Principal.newInstance("alice", "user");
+    private static final Principal BOB = Principal.newInstance("bob", "user");
+    private static final Resource DOCUMENT = Resource.newInstance("document", "d1");
+
+    private final InProcessCerbos cerbos = new InProcessCerbos();
+    private final List<String> published = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cerbos.onCheck(request -> {
+            Response.CheckResourcesResponse response = cerbos.allowing(Set.of("view")).apply(request);
+            if (!request.getIncludeMeta()) {
+                return response;
+            }
+            Response.CheckResourcesResponse.Builder withMeta = response.toBuilder();
+            for (Response.CheckResourcesResponse.ResultEntry.Builder result : withMeta.getResultsBuilderList()) {
+                result.setMeta(Response.CheckResourcesResponse.ResultEntry.Meta.newBuilder()
+                        .addEffectiveDerivedRoles("owner"));
+            }
+            return withMeta.build();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        cerbos.close();
+    }
+
+    private ClientOptions sampling(MetaSampler sampler) {
+        return InProcessCerbos.defaultOptions().withMetaSampling(sampler, (principalId, result) -> {
+            Assertions.assertEquals(List.of("owner"), result.getMeta().getEffectiveDerivedRoles());
+            published.add(principalId + ":" + result.getRaw().orElseThrow().getResource().getId());
+        });
+    }
+
+    private static long sampledCount(MetaSampler sampler, int requests) {
+        return IntStream.range(0, requests).filter(i -> sampler.sample("user-" + i)).count();
+    }
+
+    @Test
+    void samplesRequestsAtRandom() {
+        long sampled = sampledCount(MetaSampler.oneIn(10), 100_000);
+        Assertions.assertTrue(sampled > 9_000 && sampled < 11_000, "sampled " + sampled + " out of 100000");
+        Assertions.assertEquals(100, sampledCount(MetaSampler.oneIn(1), 100));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MetaSampler.oneIn(0));
+    }
+
+    @Test
+    void samplesSamePrincipals() {
+        MetaSampler sampler = MetaSampler.principalsOneIn(4);
+        long sampled = sampledCount(sampler, 10_000);
+        Assertions.assertTrue(sampled > 2_000 && sampled < 3_000, "sampled " + sampled + " out of 10000");
+        for (int i = 0; i < 100; i++) {
+            String id = "user-" + i;
+            Assertions.assertEquals(sampler.sample(id), MetaSampler.principalsOneIn(4).sample(id), id);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MetaSampler.principalsOneIn(-1));
+    }
+
+    @Test
+    void samplesGivenPrincipals() {
+        MetaSampler sampler = MetaSampler.principals(Set.of("alice"));
+        Assertions.assertTrue(sampler.sample("alice"));
+        Assertions.assertFalse(sampler.sample("bob"));
+        Assertions.assertFalse(MetaSampler.never().sample("alice"));
+        Assertions.assertTrue(MetaSampler.always().sample("bob"));
+    }
+
+    @Test
+    void publishesSampledChecks() {
+        CerbosBlockingClient client = cerbos.client(sampling(MetaSampler.principals(Set.of("alice"))));
+
+        Assertions.assertTrue(client.check(ALICE, DOCUMENT, "view").isAllowed("view"));
+        Assertions.assertTrue(client.check(BOB, DOCUMENT, "view").isAllowed("view"));
+        List<Request.CheckResourcesRequest> requests = cerbos.checkRequests();
+        Assertions.assertTrue(requests.get(0).getIncludeMeta());
+        Assertions.assertFalse(requests.get(1).getIncludeMeta());
+        Assertions.assertEquals(List.of("alice:d1"), published);
+    }
+
+    @Test
+    void publishesSampledBatches() {
+        CerbosBlockingClient client = cerbos.client(sampling(MetaSampler.principals(Set.of("alice"))));
+
+        client.batch(ALICE)
+                .addResourceAndActions(Resource.newInstance("document", "d1"), "view")
+                .addResourceAndActions(Resource.newInstance("document", "d2"), "view")
+                .check();
+        client.batch(BOB).addResourceAndActions(DOCUMENT, "view").check();
+        Assertions.assertEquals(List.of("alice:d1", "alice:d2"), published);
+
+        // Requests that ask for metadata themselves are left to the caller
+        client.batch(ALICE).addResourceAndActions(DOCUMENT, "view").withIncludeMeta().check();
+        Assertions.assertTrue(cerbos.checkRequests().get(2).getIncludeMeta());
+        Assertions.assertEquals(2, published.size());
+    }
+
+    @Test
+    void skipsPublishingWithoutListener() {
+        CerbosBlockingClient client = cerbos.client(InProcessCerbos.defaultOptions()
+                .withMetaSampling(MetaSampler.always(), null));
+
+        client.check(ALICE, DOCUMENT, "view");
+        Assertions.assertFalse(cerbos.checkRequests().get(0).getIncludeMeta());
+    }
+
+    @Test
+    void logsFailingListener() {
+        List<LogRecord> logged = new CopyOnWriteArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                logged.add(record);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Logger logger = Logger.getLogger(ClientOptions.class.getName());
+        logger.addHandler(handler);
+        try {
+            logFailingListener();
+        } finally {
+            logger.removeHandler(handler);
+        }
+
+        Assertions.assertEquals(2, logged.size());
+        Assertions.assertEquals(Level.WARNING, logged.get(0).getLevel());
+        Assertions.assertEquals("listener failed", logged.get(0).getThrown().getMessage());
+    }
+
+    private void logFailingListener() {
+        CerbosBlockingClient client = cerbos.client(InProcessCerbos.defaultOptions()
+                .withMetaSampling(MetaSampler.always(), (principalId, result) -> {
+                    throw new IllegalStateException("listener failed");
+                }));
+
+        Assertions.assertTrue(client.check(ALICE, DOCUMENT, "view").isAllowed("view"));
+        Assertions.assertEquals(1, client.batch(ALICE).addResourceAndActions(DOCUMENT, "view").check()
+                .results().count());
+    }
+
+    @Test
+    void skipsDecisionsWithoutMeta() {
+        CerbosBlockingClient client = cerbos.client(sampling(MetaSampler.always())
+                .withDegradedMode(new DegradedMode(Duration.ofMinutes(1), true).watch(cerbos.channel())));
+        cerbos.stop();
+
+        Assertions.assertTrue(client.check(ALICE, DOCUMENT, "view").isAllowed("view"));
+        Assertions.assertTrue(published.isEmpty());
+    }
+}
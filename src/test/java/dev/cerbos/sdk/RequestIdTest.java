@@ -0,0 +1,48 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+public class RequestIdTest {
+    @Test
+    void generatesVersion7UUIDs() {
+        long before = System.currentTimeMillis();
+        UUID id = UUID.fromString(RequestId.generateTimeOrdered());
+        long after = System.currentTimeMillis();
+
+        Assertions.assertEquals(7, id.version());
+        Assertions.assertEquals(2, id.variant());
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        Assertions.assertTrue(timestamp >= before && timestamp <= after,
+                "timestamp " + timestamp + " not within [" + before + ", " + after + "]");
+    }
+
+    @Test
+    void ordersIdsOverTime() throws InterruptedException {
+        String previous = RequestId.generateTimeOrdered();
+        for (int i = 0; i < 5; i++) {
+            Thread.sleep(2);
+            String next = RequestId.generateTimeOrdered();
+            Assertions.assertTrue(previous.compareTo(next) < 0, previous + " should sort before " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void generatesUniqueIds() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(RequestId.timeOrderedUUID().generate());
+        }
+        Assertions.assertEquals(10_000, ids.size());
+    }
+}
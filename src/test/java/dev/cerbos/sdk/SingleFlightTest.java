@@ -0,0 +1,237 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk;
+
+import dev.cerbos.api.v1.request.Request;
+import dev.cerbos.api.v1.response.Response;
+import dev.cerbos.sdk.builders.AttributeValue;
+import dev.cerbos.sdk.builders.Principal;
+import dev.cerbos.sdk.builders.Resource;
+import dev.cerbos.sdk.cache.DecisionKey;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class SingleFlightTest {
+    private static final SingleFlight.Key KEY =
+            SingleFlight.Key.of(DecisionKey.of("document", 1, 2), Set.of("view"), 0);
+    private static final Principal ALICE = Principal.newInstance("alice", "user");
+    private static final Resource DOCUMENT = Resource.newInstance("document", "d1");
+
+    private final InProcessCerbos cerbos = new InProcessCerbos();
+    private volatile CountDownLatch release;
+
+    @AfterEach
+    void tearDown() {
+        cerbos.close();
+    }
+
+    private static <T> List<Future<T>> submitWhileInFlight(SingleFlight singleFlight, int callers,
+            Callable<T> task, CountDownLatch release) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            AtomicInteger started = new AtomicInteger();
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> {
+                    started.incrementAndGet();
+                    return task.call();
+                }));
+            }
+            // Let the followers join the flight before the leader completes
+            while (started.get() < callers || singleFlight.inFlight() == 0) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            release.countDown();
+            return futures;
+        } finally {
+            executor.shutdown();
+            Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void sharesInFlightResponse() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger requestIds = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Response.CheckResourcesResponse>> futures = submitWhileInFlight(singleFlight, 8, () ->
+                singleFlight.execute(KEY, "req-" + requestIds.incrementAndGet(), () -> {
+                    calls.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return Response.CheckResourcesResponse.newBuilder().setRequestId("leader").build();
+                }), release);
+
+        Set<String> seen = new HashSet<>();
+        for (Future<Response.CheckResourcesResponse> future : futures) {
+            seen.add(future.get().getRequestId());
+        }
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(0, singleFlight.inFlight());
+        Assertions.assertEquals(8, seen.size());
+    }
+
+    @Test
+    void sharesInFlightFailure() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Status.Code>> futures = submitWhileInFlight(singleFlight, 4, () -> {
+            try {
+                singleFlight.execute(KEY, "req", () -> {
+                    calls.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    throw Status.UNAVAILABLE.asRuntimeException();
+                });
+                return Status.Code.OK;
+            } catch (StatusRuntimeException sre) {
+                return sre.getStatus().getCode();
+            }
+        }, release);
+
+        for (Future<Status.Code> future : futures) {
+            Assertions.assertEquals(Status.Code.UNAVAILABLE, future.get());
+        }
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    void sendsAgainOnceCompleted() {
+        SingleFlight singleFlight = new SingleFlight();
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            singleFlight.execute(KEY, "req", () -> {
+                calls.incrementAndGet();
+                return Response.CheckResourcesResponse.getDefaultInstance();
+            });
+        }
+        Assertions.assertEquals(3, calls.get());
+    }
+
+    /**
+     * Answers with the given handler once the test releases the requests in flight.
+     */
+    private Function<Request.CheckResourcesRequest, Response.CheckResourcesResponse> held(
+            Function<Request.CheckResourcesRequest, Response.CheckResourcesResponse> handler) {
+        return request -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return handler.apply(request);
+        };
+    }
+
+    /**
+     * Check concurrently from several callers, each with its own request ID, releasing the PDP once the expected
+     * number of requests has reached it.
+     */
+    private List<CheckResult> checkConcurrently(CerbosBlockingClient client, int callers, int expectedRequests)
+            throws Exception {
+        release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<CheckResult>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                String requestId = "request-" + i;
+                futures.add(executor.submit(() -> client.check(requestId, ALICE, DOCUMENT, "view")));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (cerbos.checkRequests().size() < expectedRequests) {
+                Assertions.assertTrue(System.nanoTime() < deadline, "requests didn't reach the PDP");
+                Thread.sleep(1);
+            }
+            // Let the other callers join the flight before the leader completes
+            Thread.sleep(50);
+            release.countDown();
+
+            List<CheckResult> results = new ArrayList<>();
+            for (Future<CheckResult> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void sharesChecksThroughClient() throws Exception {
+        cerbos.onCheck(held(cerbos.allowing(Set.of("view"))));
+        CerbosBlockingClient client = cerbos.client(InProcessCerbos.defaultOptions()
+                .withSingleFlight(new SingleFlight()));
+
+        List<CheckResult> results = checkConcurrently(client, 4, 1);
+        Assertions.assertEquals(1, cerbos.checkRequests().size());
+        Assertions.assertEquals(Set.of("request-0", "request-1", "request-2", "request-3"),
+                results.stream().map(CheckResult::getRequestId).collect(Collectors.toSet()));
+        for (CheckResult result : results) {
+            Assertions.assertTrue(result.isAllowed("view"));
+            Assertions.assertEquals("call-1", result.getCerbosCallId());
+        }
+    }
+
+    @Test
+    void skipsClientsWithRequestSpecificData() throws Exception {
+        cerbos.onCheck(held(cerbos.allowing(Set.of("view"))));
+        ClientOptions options = InProcessCerbos.defaultOptions().withSingleFlight(new SingleFlight());
+
+        checkConcurrently(cerbos.client(options).withHeaders(Map.of("x-tenant", "acme")), 2, 2);
+        checkConcurrently(cerbos.client(options)
+                .withRequestAnnotations(Map.of("trace", AttributeValue.stringValue("t1"))), 2, 4);
+        checkConcurrently(cerbos.client(options.withMetaSampling(MetaSampler.always(), (principalId, result) -> {
+        })), 2, 6);
+        Assertions.assertEquals(6, cerbos.checkRequests().size());
+    }
+
+    @Test
+    void degradesSharedFailures() throws Exception {
+        cerbos.onCheck(held(request -> {
+            throw Status.UNAVAILABLE.withDescription("overloaded").asRuntimeException();
+        }));
+        CerbosBlockingClient client = cerbos.client(InProcessCerbos.defaultOptions()
+                .withSingleFlight(new SingleFlight())
+                .withDegradedMode(new DegradedMode(Duration.ofMinutes(1), true).watch(cerbos.channel())));
+
+        List<CheckResult> results = checkConcurrently(client, 4, 1);
+        Assertions.assertEquals(1, cerbos.checkRequests().size());
+        for (CheckResult result : results) {
+            Assertions.assertTrue(result.isAllowed("view"));
+            Assertions.assertEquals("", result.getCerbosCallId());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.cache;
+
+import com.google.protobuf.Value;
+import dev.cerbos.api.v1.engine.Engine;
+import dev.cerbos.api.v1.policy.PolicyOuterClass;
+import dev.cerbos.api.v1.request.Request;
+import dev.cerbos.api.v1.response.Response.InspectPoliciesResponse;
+import dev.cerbos.sdk.InProcessCerbos;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+public class AttributeAwareKeyStrategyTest {
+    private static final Engine.Principal PRINCIPAL = Engine.Principal.newBuilder()
+            .setId("alice")
+            .addRoles("user")
+            .putAttr("team", string("design"))
+            .putAttr("lastLogin", string("2025-01-01"))
+            .build();
+
+    private final InProcessCerbos cerbos = new InProcessCerbos();
+
+    @AfterEach
+    void tearDown() {
+        cerbos.close();
+    }
+
+    private static Value string(String value) {
+        return Value.newBuilder().setStringValue(value).build();
+    }
+
+    private static PolicyOuterClass.Policy resourcePolicy(String kind) {
+        return PolicyOuterClass.Policy.newBuilder()
+                .setResourcePolicy(PolicyOuterClass.ResourcePolicy.newBuilder().setResource(kind).setVersion("default"))
+                .build();
+    }
+
+    private static InspectPoliciesResponse.Result attributes(InspectPoliciesResponse.Attribute.Kind kind,
+            String... names) {
+        InspectPoliciesResponse.Result.Builder result = InspectPoliciesResponse.Result.newBuilder();
+        for (String name : names) {
+            result.addAttributes(InspectPoliciesResponse.Attribute.newBuilder().setKind(kind).setName(name));
+        }
+        return result.build();
+    }
+
+    private static Engine.Resource resource(String kind, Map<String, Value> attr) {
+        return Engine.Resource.newBuilder().setKind(kind).setId("1").putAllAttr(attr).build();
+    }
+
+    private static DecisionKey keyOf(DecisionKeyStrategy strategy, Engine.Principal principal,
+            Engine.Resource resource) {
+        return strategy.keyOf(principal, resource, Request.AuxData.getDefaultInstance());
+    }
+
+    private void putDocumentPolicy() {
+        cerbos.putPolicy("resource.document.vdefault", resourcePolicy("document"));
+        cerbos.putInspection("resource.document.vdefault", attributes(
+                InspectPoliciesResponse.Attribute.Kind.KIND_RESOURCE_ATTRIBUTE, "owner", "department"));
+    }
+
+    @Test
+    void ignoresUnreferencedAttributes() {
+        putDocumentPolicy();
+        AttributeAwareKeyStrategy strategy = AttributeAwareKeyStrategy.fromPolicies(cerbos.adminClient());
+
+        DecisionKey key = keyOf(strategy, PRINCIPAL,
+                resource("document", Map.of("owner", string("alice"), "updatedAt", string("1"))));
+        Assertions.assertEquals(key, keyOf(strategy, PRINCIPAL,
+                resource("document", Map.of("owner", string("alice"), "updatedAt", string("2")))));
+        Assertions.assertNotEquals(key, keyOf(strategy, PRINCIPAL,
+                resource("document", Map.of("owner", string("bob"), "updatedAt", string("1")))));
+        Assertions.assertEquals(key, keyOf(strategy,
+                PRINCIPAL.toBuilder().putAttr("lastLogin", string("2025-02-01")).build(),
+                resource("document", Map.of("owner", string("alice")))));
+    }
+
+    @Test
+    void globalAttributesApplyToEveryKind() {
+        putDocumentPolicy();
+        cerbos.putPolicy("derived_roles.common", PolicyOuterClass.Policy.newBuilder()
+                .setDerivedRoles(PolicyOuterClass.DerivedRoles.newBuilder().setName("common"))
+                .build());
+        cerbos.putInspection("derived_roles.common", attributes(
+                InspectPoliciesResponse.Attribute.Kind.KIND_PRINCIPAL_ATTRIBUTE, "team"));
+        AttributeAwareKeyStrategy strategy = AttributeAwareKeyStrategy.fromPolicies(cerbos.adminClient());
+
+        Engine.Resource document = resource("document", Map.of("owner", string("alice")));
+        Assertions.assertNotEquals(keyOf(strategy, PRINCIPAL, document), keyOf(strategy,
+                PRINCIPAL.toBuilder().putAttr("team", string("sales")).build(), document));
+        Assertions.assertEquals(keyOf(strategy, PRINCIPAL, document), keyOf(strategy,
+                PRINCIPAL.toBuilder().putAttr("lastLogin", string("2025-02-01")).build(), document));
+    }
+
+    @Test
+    void keepsAllAttributesOfUnknownKinds() {
+        putDocumentPolicy();
+        AttributeAwareKeyStrategy strategy = AttributeAwareKeyStrategy.fromPolicies(cerbos.adminClient());
+
+        Assertions.assertNotEquals(
+                keyOf(strategy, PRINCIPAL, resource("album", Map.of("updatedAt", string("1")))),
+                keyOf(strategy, PRINCIPAL, resource("album", Map.of("updatedAt", string("2")))));
+    }
+
+    @Test
+    void keepsAllAttributesWhenVariablesAreUnresolved() {
+        cerbos.putPolicy("resource.document.vdefault", resourcePolicy("document"));
+        cerbos.putInspection("resource.document.vdefault", attributes(
+                        InspectPoliciesResponse.Attribute.Kind.KIND_RESOURCE_ATTRIBUTE, "owner").toBuilder()
+                .addVariables(InspectPoliciesResponse.Variable.newBuilder()
+                        .setName("missing")
+                        .setKind(InspectPoliciesResponse.Variable.Kind.KIND_UNKNOWN))
+                .build());
+        AttributeAwareKeyStrategy strategy = AttributeAwareKeyStrategy.fromPolicies(cerbos.adminClient());
+
+        Assertions.assertNotEquals(
+                keyOf(strategy, PRINCIPAL, resource("document", Map.of("updatedAt", string("1")))),
+                keyOf(strategy, PRINCIPAL, resource("document", Map.of("updatedAt", string("2")))));
+    }
+
+    @Test
+    void keepsAllAttributesOfKindsWithSchemas() {
+        cerbos.putPolicy("resource.document.vdefault", resourcePolicy("document").toBuilder()
+                .setResourcePolicy(resourcePolicy("document").getResourcePolicy().toBuilder()
+                        .setSchemas(PolicyOuterClass.Schemas.newBuilder()
+                                .setResourceSchema(PolicyOuterClass.Schemas.Schema.newBuilder()
+                                        .setRef("cerbos:///document.json"))))
+                .build());
+        cerbos.putInspection("resource.document.vdefault", attributes(
+                InspectPoliciesResponse.Attribute.Kind.KIND_RESOURCE_ATTRIBUTE, "owner"));
+        AttributeAwareKeyStrategy strategy = AttributeAwareKeyStrategy.fromPolicies(cerbos.adminClient());
+
+        Assertions.assertNotEquals(
+                keyOf(strategy, PRINCIPAL, resource("document", Map.of("updatedAt", string("1")))),
+                keyOf(strategy, PRINCIPAL, resource("document", Map.of("updatedAt", string("2")))));
+        Assertions.assertNotEquals(
+                keyOf(strategy, PRINCIPAL, resource("document", Map.of())),
+                keyOf(strategy, PRINCIPAL.toBuilder().putAttr("lastLogin", string("2025-02-01")).build(),
+                        resource("document", Map.of())));
+    }
+
+    @Test
+    void refreshPicksUpNewAttributes() {
+        putDocumentPolicy();
+        AttributeAwareKeyStrategy strategy = AttributeAwareKeyStrategy.fromPolicies(cerbos.adminClient());
+        Engine.Resource first = resource("document", Map.of("status", string("draft")));
+        Engine.Resource second = resource("document", Map.of("status", string("final")));
+        Assertions.assertEquals(keyOf(strategy, PRINCIPAL, first), keyOf(strategy, PRINCIPAL, second));
+
+        cerbos.putInspection("resource.document.vdefault", attributes(
+                InspectPoliciesResponse.Attribute.Kind.KIND_RESOURCE_ATTRIBUTE, "owner", "status"));
+        strategy.refresh();
+        Assertions.assertNotEquals(keyOf(strategy, PRINCIPAL, first), keyOf(strategy, PRINCIPAL, second));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+public class DecisionCacheSnapshotTest {
+    @TempDir
+    Path tmp;
+
+    @Test
+    void roundTrip() throws IOException {
+        InMemoryDecisionCache cache = InMemoryDecisionCache.newBuilder().build();
+        DecisionKey doc = DecisionKey.of("document", 1, 2);
+        DecisionKey album = DecisionKey.of("album", 3, 4);
+        cache.put(doc, new CachedDecision(Map.of("view", true, "edit", false), 1000));
+        cache.put(album, new CachedDecision(Map.of("view", false), 2000));
+
+        Path file = tmp.resolve("decisions.snapshot");
+        Assertions.assertEquals(2, DecisionCacheSnapshot.save(cache, file, "abc"));
+
+        InMemoryDecisionCache restored = InMemoryDecisionCache.newBuilder().build();
+        Assertions.assertEquals(2, DecisionCacheSnapshot.load(restored, file, "abc"));
+        Assertions.assertEquals(Map.of("view", true, "edit", false), restored.get(doc).orElseThrow().getActions());
+        Assertions.assertEquals(1000, restored.get(doc).orElseThrow().getCreatedAtMillis());
+        Assertions.assertEquals(Map.of("view", false), restored.get(album).orElseThrow().getActions());
+    }
+
+    @Test
+    void discardedWhenPoliciesChanged() throws IOException {
+        InMemoryDecisionCache cache = InMemoryDecisionCache.newBuilder().build();
+        cache.put(DecisionKey.of("document", 1, 2), new CachedDecision(Map.of("view", true), 1000));
+        Path file = tmp.resolve("decisions.snapshot");
+        DecisionCacheSnapshot.save(cache, file, "abc");
+
+        InMemoryDecisionCache restored = InMemoryDecisionCache.newBuilder().build();
+        Assertions.assertEquals(0, DecisionCacheSnapshot.load(restored, file, "def"));
+        Assertions.assertEquals(0, restored.size());
+        Assertions.assertEquals(0, DecisionCacheSnapshot.load(restored, tmp.resolve("missing"), "abc"));
+    }
+
+    @Test
+    void corruptSnapshot() throws IOException {
+        InMemoryDecisionCache cache = InMemoryDecisionCache.newBuilder().build();
+        cache.put(DecisionKey.of("document", 1, 2), new CachedDecision(Map.of("view", true), 1000));
+        Path file = tmp.resolve("decisions.snapshot");
+        DecisionCacheSnapshot.save(cache, file, "abc");
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 12] ^= 1;
+        Files.write(file, bytes);
+        Assertions.assertThrows(IOException.class,
+                () -> DecisionCacheSnapshot.load(InMemoryDecisionCache.newBuilder().build(), file, "abc"));
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.cache;
+
+import dev.cerbos.api.v1.request.Request;
+import dev.cerbos.sdk.builders.AttributeValue;
+import dev.cerbos.sdk.builders.Principal;
+import dev.cerbos.sdk.builders.Resource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class InMemoryDecisionCacheTest {
+    private static DecisionKey key(String kind, String id) {
+        return DecisionKey.of(
+                Principal.newInstance("alice", "user")
+                        .withAttribute("department", AttributeValue.stringValue("marketing"))
+                        .withAttribute("geography", AttributeValue.stringValue("GB"))
+                        .toPrincipal(),
+                Resource.newInstance(kind, id).toResource(),
+                Request.AuxData.getDefaultInstance());
+    }
+
+    @Test
+    void keysAreStable() {
+        Assertions.assertEquals(key("document", "d1"), key("document", "d1"));
+        Assertions.assertNotEquals(key("document", "d1"), key("document", "d2"));
+
+        DecisionKey key = key("document", "d1");
+        Assertions.assertEquals(key, DecisionKey.of(key.getResourceKind(), key.getHigh(), key.getLow()));
+    }
+
+    @Test
+    void invalidateByKind() {
+        InMemoryDecisionCache cache = InMemoryDecisionCache.newBuilder().build();
+        cache.put(key("document", "d1"), new CachedDecision(Map.of("view", true), 1));
+        cache.put(key("document", "d2"), new CachedDecision(Map.of("view", false), 1));
+        cache.put(key("album", "a1"), new CachedDecision(Map.of("view", true), 1));
+
+        cache.invalidate("document");
+        Assertions.assertTrue(cache.get(key("document", "d1")).isEmpty());
+        Assertions.assertTrue(cache.get(key("document", "d2")).isEmpty());
+        Assertions.assertTrue(cache.get(key("album", "a1")).isPresent());
+
+        cache.invalidateAll();
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    void mergeKeepsOldestTimestamp() {
+        CachedDecision merged = new CachedDecision(Map.of("view", true), 100).merge(Map.of("edit", false), 200);
+        Assertions.assertEquals(100, merged.getCreatedAtMillis());
+        Assertions.assertTrue(merged.covers(List.of("view", "edit")));
+        Assertions.assertFalse(merged.getActions().get("edit"));
+    }
+}
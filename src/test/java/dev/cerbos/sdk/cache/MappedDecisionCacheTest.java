@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+public class MappedDecisionCacheTest {
+    @TempDir
+    Path tmp;
+
+    @Test
+    void sharedBetweenInstances() throws IOException {
+        Path file = tmp.resolve("decisions.cache");
+        MappedDecisionCache first = MappedDecisionCache.newBuilder(file).withSlots(1024).build();
+        MappedDecisionCache second = MappedDecisionCache.newBuilder(file).withSlots(1024).build();
+
+        long now = System.currentTimeMillis();
+        DecisionKey doc = DecisionKey.of("document", 1, 2);
+        first.put(doc, new CachedDecision(Map.of("view", true, "edit", false), now));
+
+        CachedDecision cached = second.get(doc).orElseThrow();
+        Assertions.assertEquals(Map.of("view", true, "edit", false), cached.getActions());
+        Assertions.assertEquals(now, cached.getCreatedAtMillis());
+        Assertions.assertTrue(second.get(DecisionKey.of("document", 1, 3)).isEmpty());
+        Assertions.assertTrue(second.get(DecisionKey.of("album", 1, 2)).isEmpty());
+
+        second.put(doc, new CachedDecision(Map.of("view", false, "delete", true), now));
+        Assertions.assertEquals(Map.of("view", false, "delete", true), first.get(doc).orElseThrow().getActions());
+
+        Assertions.assertThrows(IOException.class, () -> MappedDecisionCache.newBuilder(file).withSlots(2048).build());
+    }
+
+    @Test
+    void invalidation() throws IOException {
+        MappedDecisionCache cache = MappedDecisionCache.newBuilder(tmp.resolve("decisions.cache"))
+                .withSlots(64)
+                .build();
+        long now = System.currentTimeMillis();
+        DecisionKey doc = DecisionKey.of("document", 1, 2);
+        DecisionKey album = DecisionKey.of("album", 3, 4);
+        cache.put(doc, new CachedDecision(Map.of("view", true), now));
+        cache.put(album, new CachedDecision(Map.of("view", true), now));
+
+        cache.invalidate("document");
+        Assertions.assertTrue(cache.get(doc).isEmpty());
+        Assertions.assertTrue(cache.get(album).isPresent());
+
+        cache.invalidateAll();
+        Assertions.assertTrue(cache.get(album).isEmpty());
+    }
+
+    @Test
+    void actionsBeyondDictionaryAreDropped() throws IOException {
+        MappedDecisionCache cache = MappedDecisionCache.newBuilder(tmp.resolve("decisions.cache"))
+                .withSlots(64)
+                .build();
+        Map<String, Boolean> actions = new HashMap<>();
+        for (int i = 0; i < 70; i++) {
+            actions.put("action" + i, i % 2 == 0);
+        }
+        DecisionKey key = DecisionKey.of("document", 1, 2);
+        cache.put(key, new CachedDecision(actions, System.currentTimeMillis()));
+
+        Map<String, Boolean> cached = cache.get(key).orElseThrow().getActions();
+        Assertions.assertEquals(64, cached.size());
+        cached.forEach((action, allowed) -> Assertions.assertEquals(actions.get(action), allowed));
+    }
+}
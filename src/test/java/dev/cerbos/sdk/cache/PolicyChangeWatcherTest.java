@@ -0,0 +1,220 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.cache;
+
+import dev.cerbos.api.v1.effect.EffectOuterClass.Effect;
+import dev.cerbos.api.v1.policy.PolicyOuterClass;
+import dev.cerbos.sdk.CerbosException;
+import dev.cerbos.sdk.InProcessCerbos;
+import io.grpc.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public class PolicyChangeWatcherTest {
+    private static final DecisionKey DOCUMENT = DecisionKey.of("document", 1, 1);
+    private static final DecisionKey ALBUM = DecisionKey.of("album", 2, 2);
+
+    private final InProcessCerbos cerbos = new InProcessCerbos();
+    private final InMemoryDecisionCache cache = InMemoryDecisionCache.newBuilder().build();
+
+    @AfterEach
+    void tearDown() {
+        cerbos.close();
+    }
+
+    private static PolicyOuterClass.Policy resourcePolicy(String kind, String... actions) {
+        return PolicyOuterClass.Policy.newBuilder()
+                .setResourcePolicy(PolicyOuterClass.ResourcePolicy.newBuilder()
+                        .setResource(kind)
+                        .setVersion("default")
+                        .addRules(PolicyOuterClass.ResourceRule.newBuilder()
+                                .setEffect(Effect.EFFECT_ALLOW)
+                                .addRoles("user")
+                                .addAllActions(List.of(actions))))
+                .build();
+    }
+
+    private static PolicyOuterClass.Policy derivedRoles(String name, String parentRole) {
+        return PolicyOuterClass.Policy.newBuilder()
+                .setDerivedRoles(PolicyOuterClass.DerivedRoles.newBuilder()
+                        .setName(name)
+                        .addDefinitions(PolicyOuterClass.RoleDef.newBuilder()
+                                .setName("owner")
+                                .addParentRoles(parentRole)))
+                .build();
+    }
+
+    private void putDecisions() {
+        cache.put(DOCUMENT, new CachedDecision(Map.of("view", true), 1));
+        cache.put(ALBUM, new CachedDecision(Map.of("view", true), 1));
+    }
+
+    private PolicyChangeWatcher startedWatcher() {
+        cerbos.putPolicy("resource.document.vdefault", resourcePolicy("document", "view"));
+        cerbos.putPolicy("resource.album.vdefault", resourcePolicy("album", "view"));
+        cerbos.putPolicy("derived_roles.common", derivedRoles("common", "user"));
+        PolicyChangeWatcher watcher = PolicyChangeWatcher.newBuilder(cerbos.adminClient()).withCache(cache).build();
+        Assertions.assertEquals(Set.of(), watcher.poll());
+        putDecisions();
+        return watcher;
+    }
+
+    @Test
+    void keepsDecisionsWhilePoliciesAreUnchanged() {
+        PolicyChangeWatcher watcher = startedWatcher();
+        Optional<String> fingerprint = watcher.getFingerprint();
+        Assertions.assertTrue(fingerprint.isPresent());
+
+        Assertions.assertEquals(Set.of(), watcher.poll());
+        Assertions.assertEquals(fingerprint, watcher.getFingerprint());
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    @Test
+    void invalidatesChangedKind() {
+        PolicyChangeWatcher watcher = startedWatcher();
+        Optional<String> fingerprint = watcher.getFingerprint();
+
+        cerbos.putPolicy("resource.document.vdefault", resourcePolicy("document", "view", "edit"));
+        Assertions.assertEquals(Set.of("document"), watcher.poll());
+        Assertions.assertTrue(cache.get(DOCUMENT).isEmpty());
+        Assertions.assertTrue(cache.get(ALBUM).isPresent());
+        Assertions.assertNotEquals(fingerprint, watcher.getFingerprint());
+    }
+
+    @Test
+    void invalidatesAddedAndRemovedKinds() {
+        PolicyChangeWatcher watcher = startedWatcher();
+
+        cerbos.removePolicy("resource.album.vdefault");
+        cerbos.putPolicy("resource.folder.vdefault", resourcePolicy("folder", "view"));
+        Assertions.assertEquals(Set.of("album", "folder"), watcher.poll());
+        Assertions.assertTrue(cache.get(DOCUMENT).isPresent());
+        Assertions.assertTrue(cache.get(ALBUM).isEmpty());
+    }
+
+    @Test
+    void ignoresDisabledPolicies() {
+        PolicyChangeWatcher watcher = startedWatcher();
+
+        cerbos.putPolicy("resource.folder.vdefault", resourcePolicy("folder", "view").toBuilder()
+                .setDisabled(true)
+                .build());
+        Assertions.assertEquals(Set.of(), watcher.poll());
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    @Test
+    void invalidatesAllKindsWhenOtherPoliciesChange() {
+        PolicyChangeWatcher watcher = startedWatcher();
+
+        cerbos.putPolicy("derived_roles.common", derivedRoles("common", "admin"));
+        cerbos.putPolicy("resource.document.vdefault", resourcePolicy("document", "view", "edit"));
+        Assertions.assertEquals(Set.of(""), watcher.poll());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    void refreshesBeforeInvalidating() {
+        cerbos.putPolicy("resource.document.vdefault", resourcePolicy("document", "view"));
+        AttributeAwareKeyStrategy keyStrategy = AttributeAwareKeyStrategy.fromPolicies(cerbos.adminClient());
+        List<List<String>> callsAtInvalidation = new ArrayList<>();
+        PolicyChangeWatcher watcher = PolicyChangeWatcher.newBuilder(cerbos.adminClient())
+                .withKeyStrategy(keyStrategy)
+                .withCache(new DecisionCache() {
+                    @Override
+                    public Optional<CachedDecision> get(DecisionKey key) {
+                        return Optional.empty();
+                    }
+
+                    @Override
+                    public void put(DecisionKey key, CachedDecision decision) {
+                    }
+
+                    @Override
+                    public void invalidate(String resourceKind) {
+                        callsAtInvalidation.add(cerbos.adminCalls());
+                    }
+
+                    @Override
+                    public void invalidateAll() {
+                        callsAtInvalidation.add(cerbos.adminCalls());
+                    }
+                })
+                .build();
+        watcher.poll();
+
+        int before = cerbos.adminCalls().size();
+        Assertions.assertEquals(Set.of(), watcher.poll());
+        Assertions.assertEquals(before + 2, cerbos.adminCalls().size(), "an unchanged poll must not refresh");
+
+        cerbos.putPolicy("resource.document.vdefault", resourcePolicy("document", "view", "edit"));
+        before = cerbos.adminCalls().size();
+        watcher.poll();
+        Assertions.assertEquals(1, callsAtInvalidation.size());
+        List<String> calls = callsAtInvalidation.get(0);
+        Assertions.assertEquals(List.of("listPolicies", "getPolicy", "inspectPolicies", "getPolicy"),
+                calls.subList(before, calls.size()));
+    }
+
+    @Test
+    void discardsDecisionsFetchedBeforeInvalidation() {
+        PolicyChangeWatcher watcher = startedWatcher();
+        DecisionKey other = DecisionKey.of("document", 3, 3);
+        CachedDecision decision = new CachedDecision(Map.of("view", true), 2);
+
+        long documentGeneration = CacheGenerations.current(cache, "document");
+        long albumGeneration = CacheGenerations.current(cache, "album");
+        cerbos.putPolicy("resource.document.vdefault", resourcePolicy("document", "view", "edit"));
+        watcher.poll();
+        Assertions.assertFalse(CacheGenerations.putIfCurrent(cache, other, decision, documentGeneration));
+        Assertions.assertTrue(cache.get(other).isEmpty());
+        Assertions.assertTrue(CacheGenerations.putIfCurrent(cache, ALBUM, decision, albumGeneration));
+        Assertions.assertTrue(CacheGenerations.putIfCurrent(cache, other, decision,
+                CacheGenerations.current(cache, "document")));
+
+        albumGeneration = CacheGenerations.current(cache, "album");
+        cerbos.putPolicy("derived_roles.common", derivedRoles("common", "admin"));
+        watcher.poll();
+        Assertions.assertFalse(CacheGenerations.putIfCurrent(cache, ALBUM, decision, albumGeneration));
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    void retriesFailedRefreshes() {
+        cerbos.putPolicy("resource.document.vdefault", resourcePolicy("document", "view"));
+        cerbos.putPolicy("resource.album.vdefault", resourcePolicy("album", "view"));
+        PolicyChangeWatcher watcher = PolicyChangeWatcher.newBuilder(cerbos.adminClient())
+                .withKeyStrategy(AttributeAwareKeyStrategy.fromPolicies(cerbos.adminClient()))
+                .withCache(cache)
+                .build();
+        watcher.poll();
+        Optional<String> fingerprint = watcher.getFingerprint();
+        putDecisions();
+
+        cerbos.putPolicy("resource.document.vdefault", resourcePolicy("document", "view", "edit"));
+        cerbos.failInspections(Status.UNAVAILABLE);
+        Assertions.assertThrows(CerbosException.class, watcher::poll);
+        Assertions.assertTrue(cache.get(DOCUMENT).isEmpty());
+        Assertions.assertTrue(cache.get(ALBUM).isPresent());
+        Assertions.assertEquals(fingerprint, watcher.getFingerprint());
+
+        // The change is still pending, so decisions cached meanwhile are dropped once the refresh succeeds
+        putDecisions();
+        cerbos.failInspections(null);
+        Assertions.assertEquals(Set.of("document"), watcher.poll());
+        Assertions.assertTrue(cache.get(DOCUMENT).isEmpty());
+        Assertions.assertNotEquals(fingerprint, watcher.getFingerprint());
+        Assertions.assertEquals(Set.of(), watcher.poll());
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.cache;
+
+import dev.cerbos.api.v1.effect.EffectOuterClass.Effect;
+import dev.cerbos.api.v1.policy.PolicyOuterClass;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ResourceActionsTest {
+    private static PolicyOuterClass.Policy resourcePolicy(String kind, PolicyOuterClass.ResourceRule... rules) {
+        return PolicyOuterClass.Policy.newBuilder()
+                .setResourcePolicy(PolicyOuterClass.ResourcePolicy.newBuilder()
+                        .setResource(kind)
+                        .setVersion("default")
+                        .addAllRules(List.of(rules)))
+                .build();
+    }
+
+    private static PolicyOuterClass.ResourceRule rule(String... actions) {
+        return PolicyOuterClass.ResourceRule.newBuilder()
+                .setEffect(Effect.EFFECT_ALLOW)
+                .addAllActions(List.of(actions))
+                .addRoles("user")
+                .build();
+    }
+
+    @Test
+    void collectsLiteralActionsPerKind() {
+        ResourceActions actions = ResourceActions.fromPolicies(List.of(
+                resourcePolicy("document", rule("view", "edit"), rule("delete", "*"), rule("share:*")),
+                PolicyOuterClass.Policy.newBuilder()
+                        .setPrincipalPolicy(PolicyOuterClass.PrincipalPolicy.newBuilder()
+                                .setPrincipal("alice")
+                                .setVersion("default")
+                                .addRules(PolicyOuterClass.PrincipalRule.newBuilder()
+                                        .setResource("document")
+                                        .addActions(PolicyOuterClass.PrincipalRule.Action.newBuilder()
+                                                .setAction("archive")
+                                                .setEffect(Effect.EFFECT_ALLOW)))
+                                .addRules(PolicyOuterClass.PrincipalRule.newBuilder()
+                                        .setResource("*")
+                                        .addActions(PolicyOuterClass.PrincipalRule.Action.newBuilder()
+                                                .setAction("purge")
+                                                .setEffect(Effect.EFFECT_DENY))))
+                        .build(),
+                resourcePolicy("album", rule("view")).toBuilder().setDisabled(true).build()));
+
+        Assertions.assertEquals(Set.of("view", "edit", "delete", "archive"), actions.actionsOf("document"));
+        Assertions.assertEquals(Set.of(), actions.actionsOf("album"));
+        Assertions.assertEquals(Set.of(), actions.actionsOf("*"));
+    }
+
+    @Test
+    void skipsKindsWithOutputs() {
+        ResourceActions actions = ResourceActions.fromPolicies(List.of(
+                resourcePolicy("document", rule("view")),
+                resourcePolicy("album", rule("view"), rule("edit").toBuilder()
+                        .setOutput(PolicyOuterClass.Output.newBuilder()
+                                .setWhen(PolicyOuterClass.Output.When.newBuilder().setRuleActivated("\"edited\"")))
+                        .build())));
+
+        Assertions.assertEquals(Set.of("view"), actions.actionsOf("document"));
+        Assertions.assertEquals(Set.of(), actions.actionsOf("album"));
+    }
+
+    @Test
+    void fixedActions() {
+        ResourceActions actions = ResourceActions.of(Map.of("document", List.of("view", "edit")));
+        actions.refresh();
+        Assertions.assertEquals(Set.of("view", "edit"), actions.actionsOf("document"));
+    }
+}
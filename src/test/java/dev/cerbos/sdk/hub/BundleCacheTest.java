@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.hub;
+
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+public class BundleCacheTest {
+    @TempDir
+    Path tmp;
+
+    @Test
+    void emptyCache() throws IOException {
+        BundleCache cache = new BundleCache(tmp, "ABCDEFGHIJKL", List.of());
+        Assertions.assertTrue(cache.load().isEmpty());
+    }
+
+    @Test
+    void storeAndReload() throws IOException {
+        BundleCache cache = new BundleCache(tmp, "ABCDEFGHIJKL", List.of("acme", "acme.hr"));
+        cache.store("b1", 1, ByteString.copyFromUtf8("first"));
+        Bundle stored = cache.store("b2", 2, ByteString.copyFromUtf8("second"));
+        Assertions.assertEquals("second", new String(stored.toByteArray(), StandardCharsets.UTF_8));
+
+        // Scope order does not matter
+        Optional<Bundle> loaded = new BundleCache(tmp, "ABCDEFGHIJKL", List.of("acme.hr", "acme")).load();
+        Assertions.assertTrue(loaded.isPresent());
+        Assertions.assertEquals("b2", loaded.get().getBundleId());
+        Assertions.assertEquals(2, loaded.get().getRuleRevision());
+        Assertions.assertEquals("second", new String(loaded.get().toByteArray(), StandardCharsets.UTF_8));
+
+        try (var files = Files.list(cache.getDirectory())) {
+            Assertions.assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void scopesAreCachedSeparately() throws IOException {
+        new BundleCache(tmp, "ABCDEFGHIJKL", List.of("acme")).store("b1", 1, ByteString.copyFromUtf8("acme"));
+        Assertions.assertTrue(new BundleCache(tmp, "ABCDEFGHIJKL", List.of()).load().isEmpty());
+    }
+}
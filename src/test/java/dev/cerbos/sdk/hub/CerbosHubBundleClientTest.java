@@ -0,0 +1,170 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.hub;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Empty;
+import dev.cerbos.api.cloud.v2.epdp.BundleServiceGrpc;
+import dev.cerbos.api.cloud.v2.epdp.Epdp;
+import dev.cerbos.sdk.hub.exceptions.BundleException;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+public class CerbosHubBundleClientTest {
+    private static final String RULE_ID = "ABCDEFGHIJKL";
+
+    @TempDir
+    Path tmp;
+
+    private final List<Epdp.GetBundleRequest> requests = new CopyOnWriteArrayList<>();
+    private volatile Epdp.GetBundleResponse response;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .addService(new BundleServiceGrpc.BundleServiceImplBase() {
+                    @Override
+                    public void getBundle(Epdp.GetBundleRequest request,
+                            StreamObserver<Epdp.GetBundleResponse> responseObserver) {
+                        requests.add(request);
+                        responseObserver.onNext(response);
+                        responseObserver.onCompleted();
+                    }
+                })
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    private CerbosHubBundleClient client() {
+        return new CerbosHubBundleClientImpl(BundleServiceGrpc.newBlockingV2Stub(channel), 5000, RULE_ID,
+                List.of("acme"), tmp);
+    }
+
+    private static Epdp.GetBundleResponse bundle(String bundleId, long revision, String contents) {
+        return Epdp.GetBundleResponse.newBuilder()
+                .setBundle(Epdp.Bundle.newBuilder()
+                        .setMetadata(Epdp.Bundle.Metadata.newBuilder()
+                                .setBundleId(bundleId)
+                                .setRuleRevision(revision))
+                        .setContents(ByteString.copyFromUtf8(contents)))
+                .build();
+    }
+
+    private static Epdp.GetBundleResponse notModified() {
+        return Epdp.GetBundleResponse.newBuilder().setNotModified(Empty.getDefaultInstance()).build();
+    }
+
+    @Test
+    void fetchesAndUpdates() throws BundleException {
+        List<LogRecord> logged = new CopyOnWriteArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                logged.add(record);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Logger logger = Logger.getLogger(CerbosHubBundleClientImpl.class.getName());
+        logger.addHandler(handler);
+        try {
+            fetchAndUpdate();
+        } finally {
+            logger.removeHandler(handler);
+        }
+
+        // The failing listener is logged without preventing the other one from being notified
+        Assertions.assertEquals(2, logged.size());
+        Assertions.assertEquals(Level.WARNING, logged.get(0).getLevel());
+        Assertions.assertEquals("listener failed", logged.get(0).getThrown().getMessage());
+    }
+
+    private void fetchAndUpdate() throws BundleException {
+        CerbosHubBundleClient client = client();
+        Assertions.assertTrue(client.current().isEmpty());
+        List<String> changes = new ArrayList<>();
+        client.addListener((previous, current) ->
+                changes.add((previous == null ? "none" : previous.getBundleId()) + "->" + current.getBundleId()));
+        client.addListener((previous, current) -> {
+            throw new IllegalStateException("listener failed");
+        });
+
+        response = bundle("b1", 1, "first");
+        Bundle first = client.fetch();
+        Assertions.assertEquals("b1", first.getBundleId());
+        Assertions.assertEquals("first", new String(first.toByteArray(), StandardCharsets.UTF_8));
+        Assertions.assertFalse(requests.get(0).hasIfModifiedSince());
+        Assertions.assertEquals(List.of("acme"), requests.get(0).getScopesList());
+
+        response = notModified();
+        Assertions.assertSame(first, client.fetch());
+        Assertions.assertEquals("b1", requests.get(1).getIfModifiedSince().getBundleId());
+        Assertions.assertEquals(1, requests.get(1).getIfModifiedSince().getRuleRevision());
+
+        response = bundle("b2", 2, "second");
+        Bundle second = client.fetch();
+        Assertions.assertEquals("b2", second.getBundleId());
+        Assertions.assertSame(second, client.current().orElseThrow());
+        Assertions.assertEquals(List.of("none->b1", "b1->b2"), changes);
+    }
+
+    @Test
+    void loadsCachedBundle() throws BundleException {
+        response = bundle("b1", 1, "first");
+        client().fetch();
+
+        CerbosHubBundleClient restarted = client();
+        Assertions.assertEquals("b1", restarted.current().orElseThrow().getBundleId());
+        response = notModified();
+        Assertions.assertEquals("b1", restarted.fetch().getBundleId());
+        Assertions.assertEquals("b1", requests.get(1).getIfModifiedSince().getBundleId());
+    }
+
+    @Test
+    void rejectsNotModifiedWithoutBundle() {
+        response = notModified();
+        BundleException e = Assertions.assertThrows(BundleException.class, () -> client().fetch());
+        Assertions.assertEquals(BundleException.Reason.UNKNOWN, e.getReason());
+
+        response = Epdp.GetBundleResponse.getDefaultInstance();
+        Assertions.assertThrows(BundleException.class, () -> client().fetch());
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+
+import static dev.cerbos.sdk.plan.Operands.*;
+
+class ColumnarBatchTest {
+    private static final int ROWS = 200;
+
+    private static ColumnarBatch batch() {
+        long[] amount = new long[ROWS];
+        String[] owner = new String[ROWS];
+        BitSet archived = new BitSet(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            amount[i] = i;
+            owner[i] = i % 3 == 0 ? "john" : (i % 3 == 1 ? "martha" : "peggy");
+            if (i % 2 == 0) {
+                archived.set(i);
+            }
+        }
+        return ColumnarBatch.newBuilder(ROWS)
+                .withLongColumn("amount", amount)
+                .withStringColumn("request.resource.attr.owner", owner)
+                .withBooleanColumn("archived", archived)
+                .build();
+    }
+
+    private static BitSet expected(IntPredicate predicate) {
+        BitSet expected = new BitSet(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            if (predicate.test(i)) {
+                expected.set(i);
+            }
+        }
+        return expected;
+    }
+
+    @Test
+    void comparisons() {
+        ColumnarBatch batch = batch();
+        Assertions.assertEquals(expected(i -> i > 150),
+                batch.select(expr("gt", variable("request.resource.attr.amount"), value(150))));
+        Assertions.assertEquals(expected(i -> i < 150),
+                batch.select(expr("lt", variable("request.resource.attr.amount"), value(149.5))));
+        Assertions.assertEquals(expected(i -> i <= 10),
+                batch.select(expr("ge", value(10), variable("request.resource.attr.amount"))));
+        Assertions.assertEquals(expected(i -> i % 3 == 0),
+                batch.select(expr("eq", variable("request.resource.attr.owner"), value("john"))));
+    }
+
+    @Test
+    void logicalOperators() {
+        ColumnarBatch batch = batch();
+        BitSet selected = batch.select(expr("or",
+                expr("and",
+                        expr("in", variable("request.resource.attr.owner"), list("john", "peggy")),
+                        expr("not", variable("request.resource.attr.archived"))),
+                expr("eq", variable("request.resource.attr.amount"), value(64))));
+        Assertions.assertEquals(expected(i -> (i % 3 != 1 && i % 2 == 1) || i == 64), selected);
+
+        Assertions.assertEquals(expected(i -> i % 3 == 1),
+                batch.select(expr("startsWith", variable("request.resource.attr.owner"), value("mar"))));
+    }
+
+    @Test
+    void unsupported() {
+        ColumnarBatch batch = batch();
+        Assertions.assertThrows(UnsupportedExpressionException.class,
+                () -> batch.select(expr("eq", variable("request.resource.attr.amount"), value("x"))));
+        Assertions.assertThrows(UnsupportedExpressionException.class,
+                () -> batch.select(expr("eq", variable("request.resource.attr.missing"), value(1))));
+    }
+}
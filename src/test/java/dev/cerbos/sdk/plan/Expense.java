@@ -0,0 +1,50 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity
+public class Expense {
+    enum Status {
+        DRAFT,
+        APPROVED
+    }
+
+    @Id
+    private Long id;
+    private Integer amount;
+    private long total;
+    private Double rate;
+    @Enumerated(EnumType.STRING)
+    private Status status;
+    @ElementCollection(fetch = FetchType.EAGER)
+    private Set<Integer> codes = new HashSet<>();
+
+    protected Expense() {
+    }
+
+    Expense(long id, Integer amount, double rate, Status status, Set<Integer> codes) {
+        this.id = id;
+        this.amount = amount;
+        this.total = amount == null ? 0 : amount * 100L;
+        this.rate = rate;
+        this.status = status;
+        this.codes = new HashSet<>(codes);
+    }
+
+    Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import com.google.protobuf.Value;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression.Operand;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static dev.cerbos.sdk.plan.Operands.*;
+
+class JpaPlanAdapterTest {
+    private static final String AMOUNT = "request.resource.attr.amount";
+
+    private static EntityManagerFactory emf;
+
+    private final JpaPlanAdapter<Expense> adapter = JpaPlanAdapter.newBuilder(Expense.class)
+            .withAttributePath("amount", "amount")
+            .withAttributePath("total", "total")
+            .withAttributePath("rate", "rate")
+            .withAttributePath("status", "status")
+            .withAttributePath("codes", "codes")
+            .build();
+
+    @BeforeAll
+    static void setUp() {
+        emf = Persistence.createEntityManagerFactory("jpa-plan-adapter-test");
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        em.persist(new Expense(1, 1, 0.5, Expense.Status.DRAFT, Set.of(7)));
+        em.persist(new Expense(2, 2, 1.0, Expense.Status.APPROVED, Set.of(2)));
+        em.persist(new Expense(3, 3, 1.5, Expense.Status.DRAFT, Set.of(3, 7)));
+        em.persist(new Expense(4, 4, 2.0, Expense.Status.APPROVED, Set.of()));
+        em.persist(new Expense(5, null, 2.5, Expense.Status.DRAFT, Set.of()));
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        emf.close();
+    }
+
+    private static Optional<Object> coerce(double value, Class<?> type, RoundingMode rounding) {
+        return JpaPlanAdapter.coerce(Value.newBuilder().setNumberValue(value).build(), type, rounding);
+    }
+
+    private Set<Long> allowed(Operand condition) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            CriteriaBuilder cb = em.getCriteriaBuilder();
+            CriteriaQuery<Expense> query = cb.createQuery(Expense.class);
+            Root<Expense> root = query.from(Expense.class);
+            query.select(root).where(adapter.toPredicate(condition, root, cb));
+            return em.createQuery(query).getResultList().stream().map(Expense::getId).collect(Collectors.toSet());
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    void coerceRoundsToIntegralTypes() {
+        Assertions.assertEquals(Optional.of(3), coerce(2.5, Integer.class, RoundingMode.CEILING));
+        Assertions.assertEquals(Optional.of(2), coerce(2.5, int.class, RoundingMode.FLOOR));
+        Assertions.assertEquals(Optional.of(-3L), coerce(-2.5, Long.class, RoundingMode.FLOOR));
+        Assertions.assertEquals(Optional.of((short) 3), coerce(2.1, Short.class, RoundingMode.CEILING));
+        Assertions.assertEquals(Optional.of((byte) 2), coerce(2, byte.class, RoundingMode.UNNECESSARY));
+        Assertions.assertEquals(Optional.of(BigInteger.valueOf(2)),
+                coerce(2.5, BigInteger.class, RoundingMode.FLOOR));
+        Assertions.assertEquals(Optional.empty(), coerce(2.5, Integer.class, RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    void coerceRejectsUnrepresentableNumbers() {
+        Assertions.assertEquals(Optional.empty(), coerce(3e9, Integer.class, RoundingMode.FLOOR));
+        Assertions.assertEquals(Optional.of(3_000_000_000L),
+                coerce(3e9, Long.class, RoundingMode.FLOOR));
+        Assertions.assertEquals(Optional.empty(), coerce(1e30, Long.class, RoundingMode.FLOOR));
+        Assertions.assertEquals(Optional.empty(), coerce(300, Byte.class, RoundingMode.FLOOR));
+        Assertions.assertEquals(Optional.empty(), coerce(Double.NaN, Long.class, RoundingMode.FLOOR));
+        Assertions.assertEquals(Optional.empty(),
+                coerce(Double.POSITIVE_INFINITY, Long.class, RoundingMode.FLOOR));
+    }
+
+    @Test
+    void coerceKeepsOtherTypes() {
+        Assertions.assertEquals(Optional.of(2.5), coerce(2.5, Double.class, RoundingMode.UNNECESSARY));
+        Assertions.assertEquals(Optional.of(2.5f), coerce(2.5, float.class, RoundingMode.UNNECESSARY));
+        Assertions.assertEquals(Optional.of(new BigDecimal("2.5")),
+                coerce(2.5, BigDecimal.class, RoundingMode.UNNECESSARY));
+        // Integral numbers are only passed on as longs while they are exact
+        Assertions.assertEquals(Optional.of(2L), coerce(2, Object.class, RoundingMode.UNNECESSARY));
+        Assertions.assertEquals(Optional.of(0x1p63), coerce(0x1p63, Object.class, RoundingMode.UNNECESSARY));
+        Assertions.assertEquals(Optional.of(Expense.Status.DRAFT), JpaPlanAdapter.coerce(
+                Value.newBuilder().setStringValue("DRAFT").build(), Expense.Status.class, RoundingMode.UNNECESSARY));
+        Assertions.assertEquals(Optional.empty(), JpaPlanAdapter.coerce(
+                Value.newBuilder().setStringValue("PAID").build(), Expense.Status.class, RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    void roundingPerOperator() {
+        Assertions.assertEquals(RoundingMode.CEILING, JpaPlanAdapter.rounding(Operator.LT));
+        Assertions.assertEquals(RoundingMode.CEILING, JpaPlanAdapter.rounding(Operator.GE));
+        Assertions.assertEquals(RoundingMode.FLOOR, JpaPlanAdapter.rounding(Operator.LE));
+        Assertions.assertEquals(RoundingMode.FLOOR, JpaPlanAdapter.rounding(Operator.GT));
+        Assertions.assertEquals(RoundingMode.UNNECESSARY, JpaPlanAdapter.rounding(Operator.EQ));
+        Assertions.assertEquals(RoundingMode.UNNECESSARY, JpaPlanAdapter.rounding(Operator.NE));
+    }
+
+    @Test
+    void fractionalComparisonsWithIntegralAttribute() {
+        Assertions.assertEquals(Set.of(1L, 2L), allowed(expr("lt", variable(AMOUNT), value(2.5))));
+        Assertions.assertEquals(Set.of(1L, 2L), allowed(expr("le", variable(AMOUNT), value(2.5))));
+        Assertions.assertEquals(Set.of(3L, 4L), allowed(expr("gt", variable(AMOUNT), value(2.5))));
+        Assertions.assertEquals(Set.of(3L, 4L), allowed(expr("ge", variable(AMOUNT), value(2.5))));
+        Assertions.assertEquals(Set.of(), allowed(expr("eq", variable(AMOUNT), value(2.5))));
+        Assertions.assertEquals(Set.of(1L, 2L, 3L, 4L), allowed(expr("ne", variable(AMOUNT), value(2.5))));
+        Assertions.assertEquals(Set.of(3L), allowed(expr("in", variable(AMOUNT), list(2.5, 3))));
+        Assertions.assertEquals(Set.of(), allowed(expr("in", variable(AMOUNT), list(2.5))));
+    }
+
+    @Test
+    void integralComparisonsWithIntegralAttribute() {
+        Assertions.assertEquals(Set.of(1L), allowed(expr("lt", variable(AMOUNT), value(2))));
+        Assertions.assertEquals(Set.of(1L, 2L), allowed(expr("le", variable(AMOUNT), value(2))));
+        Assertions.assertEquals(Set.of(3L, 4L), allowed(expr("gt", variable(AMOUNT), value(2))));
+        Assertions.assertEquals(Set.of(2L, 3L, 4L), allowed(expr("ge", variable(AMOUNT), value(2))));
+        Assertions.assertEquals(Set.of(2L), allowed(expr("eq", variable(AMOUNT), value(2))));
+        Assertions.assertEquals(Set.of(1L, 3L, 4L), allowed(expr("ne", variable(AMOUNT), value(2))));
+        Assertions.assertEquals(Set.of(2L, 3L), allowed(expr("in", variable(AMOUNT), list(2, 3))));
+    }
+
+    @Test
+    void constantOnTheLeft() {
+        Assertions.assertEquals(Set.of(3L, 4L), allowed(expr("lt", value(2.5), variable(AMOUNT))));
+        Assertions.assertEquals(Set.of(1L, 2L), allowed(expr("ge", value(2.5), variable(AMOUNT))));
+    }
+
+    @Test
+    void outOfRangeComparisons() {
+        Assertions.assertEquals(Set.of(1L, 2L, 3L, 4L), allowed(expr("lt", variable(AMOUNT), value(1e12))));
+        Assertions.assertEquals(Set.of(), allowed(expr("gt", variable(AMOUNT), value(1e12))));
+        Assertions.assertEquals(Set.of(1L, 2L, 3L, 4L), allowed(expr("gt", variable(AMOUNT), value(-1e12))));
+        Assertions.assertEquals(Set.of(), allowed(expr("le", variable(AMOUNT), value(-1e12))));
+        Assertions.assertEquals(Set.of(), allowed(expr("eq", variable(AMOUNT), value(1e12))));
+    }
+
+    @Test
+    void otherAttributeTypes() {
+        Assertions.assertEquals(Set.of(1L, 2L, 5L), allowed(expr("le", variable("total"), value(250.5))));
+        Assertions.assertEquals(Set.of(1L, 2L), allowed(expr("lt", variable("rate"), value(1.25))));
+        Assertions.assertEquals(Set.of(2L, 4L), allowed(expr("eq", variable("status"), value("APPROVED"))));
+    }
+
+    @Test
+    void unknownEnumConstants() {
+        Assertions.assertEquals(Set.of(), allowed(expr("eq", variable("status"), value("PAID"))));
+        Assertions.assertEquals(Set.of(1L, 2L, 3L, 4L, 5L), allowed(expr("ne", variable("status"), value("PAID"))));
+        Assertions.assertEquals(Set.of(2L, 4L), allowed(expr("in", variable("status"), list("PAID", "APPROVED"))));
+        Assertions.assertEquals(Set.of(), allowed(expr("in", variable("status"), list("PAID"))));
+    }
+
+    @Test
+    void collectionMembership() {
+        Assertions.assertEquals(Set.of(1L, 3L), allowed(expr("in", value(7), variable("codes"))));
+        Assertions.assertEquals(Set.of(), allowed(expr("in", value(2.5), variable("codes"))));
+        Assertions.assertEquals(Set.of(2L, 3L), allowed(expr("hasIntersection", variable("codes"), list(2.5, 2, 3))));
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.NullValue;
+import com.google.protobuf.Value;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression.Operand;
+
+import java.util.Arrays;
+
+public final class Operands {
+    private Operands() {
+    }
+
+    public static Operand variable(String name) {
+        return Operand.newBuilder().setVariable(name).build();
+    }
+
+    public static Operand value(String value) {
+        return Operand.newBuilder().setValue(Value.newBuilder().setStringValue(value)).build();
+    }
+
+    public static Operand value(double value) {
+        return Operand.newBuilder().setValue(Value.newBuilder().setNumberValue(value)).build();
+    }
+
+    public static Operand nullValue() {
+        return Operand.newBuilder().setValue(Value.newBuilder().setNullValue(NullValue.NULL_VALUE)).build();
+    }
+
+    public static Operand list(String... values) {
+        ListValue.Builder list = ListValue.newBuilder();
+        for (String v : values) {
+            list.addValues(Value.newBuilder().setStringValue(v));
+        }
+        return Operand.newBuilder().setValue(Value.newBuilder().setListValue(list)).build();
+    }
+
+    public static Operand list(double... values) {
+        ListValue.Builder list = ListValue.newBuilder();
+        for (double v : values) {
+            list.addValues(Value.newBuilder().setNumberValue(v));
+        }
+        return Operand.newBuilder().setValue(Value.newBuilder().setListValue(list)).build();
+    }
+
+    public static Operand expr(String operator, Operand... operands) {
+        return Operand.newBuilder()
+                .setExpression(Expression.newBuilder().setOperator(operator).addAllOperands(Arrays.asList(operands)))
+                .build();
+    }
+}
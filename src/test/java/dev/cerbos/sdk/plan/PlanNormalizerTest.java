@@ -0,0 +1,93 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static dev.cerbos.sdk.plan.Operands.*;
+
+class PlanNormalizerTest {
+    @Test
+    void flattensAndDedupes() {
+        NormalizedCondition normalized = PlanNormalizer.normalize(expr("and",
+                expr("and", expr("eq", variable("a"), value("x"))),
+                expr("and",
+                        expr("eq", value("x"), variable("a")),
+                        expr("or", expr("lt", value(1), variable("b")))),
+                expr("not", expr("not", expr("eq", variable("c"), value(2))))));
+
+        NormalizedCondition expected = PlanNormalizer.normalize(expr("and",
+                expr("gt", variable("b"), value(1)),
+                expr("eq", variable("c"), value(2)),
+                expr("eq", variable("a"), value("x"))));
+
+        Assertions.assertEquals(expected, normalized);
+        Assertions.assertEquals(expected.getHash(), normalized.getHash());
+        Assertions.assertEquals(3, normalized.getCondition().getExpression().getOperandsCount());
+        Assertions.assertEquals(normalized.getCondition(), PlanNormalizer.normalize(normalized.getCondition()).getCondition());
+    }
+
+    @Test
+    void foldsConstants() {
+        Assertions.assertTrue(PlanNormalizer.normalize(expr("or",
+                expr("eq", variable("a"), value("x")),
+                expr("in", value("y"), list("x", "y")))).isAlwaysTrue());
+
+        Assertions.assertTrue(PlanNormalizer.normalize(expr("and",
+                expr("eq", variable("a"), value("x")),
+                expr("not", expr("eq", variable("a"), value("x"))),
+                expr("eq", variable("b"), value("x")))).isAlwaysFalse());
+
+        NormalizedCondition normalized = PlanNormalizer.normalize(expr("and",
+                expr("eq", value("x"), value("x")),
+                expr("not", expr("eq", variable("a"), nullValue()))));
+        Assertions.assertEquals(PlanNormalizer.normalize(expr("ne", variable("a"), nullValue())), normalized);
+    }
+
+    @Test
+    void foldsEqualityNumerically() {
+        Assertions.assertTrue(PlanNormalizer.normalize(expr("eq", value(-0.0), value(0))).isAlwaysTrue());
+        Assertions.assertTrue(PlanNormalizer.normalize(expr("ne", value(-0.0), value(0))).isAlwaysFalse());
+        Assertions.assertTrue(PlanNormalizer.normalize(expr("in", value(-0.0), list(0, 1))).isAlwaysTrue());
+        Assertions.assertTrue(PlanNormalizer.normalize(expr("in", value(2), list(0, 1))).isAlwaysFalse());
+
+        // NaN is left as it is
+        Assertions.assertEquals("eq", PlanNormalizer.normalize(expr("eq", value(Double.NaN), value(Double.NaN)))
+                .getCondition().getExpression().getOperator());
+        Assertions.assertEquals("in", PlanNormalizer.normalize(expr("in", value(Double.NaN), list(0, 1)))
+                .getCondition().getExpression().getOperator());
+    }
+
+    @Test
+    void foldsOrderingComparisons() {
+        Assertions.assertTrue(PlanNormalizer.normalize(expr("lt", value(1), value(2))).isAlwaysTrue());
+        Assertions.assertTrue(PlanNormalizer.normalize(expr("le", value(2), value(2))).isAlwaysTrue());
+        Assertions.assertTrue(PlanNormalizer.normalize(expr("gt", value(1), value(2))).isAlwaysFalse());
+        Assertions.assertTrue(PlanNormalizer.normalize(expr("ge", value(-0.0), value(0))).isAlwaysTrue());
+        Assertions.assertTrue(PlanNormalizer.normalize(expr("lt", value("apple"), value("banana"))).isAlwaysTrue());
+        // Strings are ordered by code point rather than by UTF-16 unit
+        Assertions.assertTrue(PlanNormalizer.normalize(expr("gt", value("\uFB01"), value("\uD83D\uDE00")))
+                .isAlwaysFalse());
+
+        // Mixed types and NaN are left as they are
+        Assertions.assertEquals("lt", PlanNormalizer.normalize(expr("lt", value(1), value("2")))
+                .getCondition().getExpression().getOperator());
+        Assertions.assertEquals("lt", PlanNormalizer.normalize(expr("lt", value(Double.NaN), value(1)))
+                .getCondition().getExpression().getOperator());
+
+        Assertions.assertTrue(PlanNormalizer.normalize(expr("and",
+                expr("eq", variable("a"), value("x")),
+                expr("ge", value(1), value(2)))).isAlwaysFalse());
+    }
+
+    @Test
+    void differentConstantsHashDifferently() {
+        Assertions.assertNotEquals(
+                PlanNormalizer.normalize(expr("eq", variable("a"), value("x"))).getHash(),
+                PlanNormalizer.normalize(expr("eq", variable("a"), value("y"))).getHash());
+    }
+}
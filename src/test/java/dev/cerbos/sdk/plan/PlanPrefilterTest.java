@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Predicate;
+
+import static dev.cerbos.sdk.plan.Operands.*;
+
+class PlanPrefilterTest {
+    private static final Predicate<Expression> NO_MATCHES = expr -> !expr.getOperator().equals("matches");
+
+    @Test
+    void dropsUnsupportedConjuncts() {
+        PlanPrefilter prefilter = PlanPrefilter.relax(expr("and",
+                expr("eq", variable("owner"), value("john")),
+                expr("matches", variable("name"), value("^a"))), NO_MATCHES);
+
+        Assertions.assertFalse(prefilter.isExact());
+        Assertions.assertEquals(PlanNormalizer.normalize(expr("eq", variable("owner"), value("john"))),
+                prefilter.getCondition());
+    }
+
+    @Test
+    void widensDisjunctionsAndNegations() {
+        PlanPrefilter or = PlanPrefilter.relax(expr("or",
+                expr("eq", variable("owner"), value("john")),
+                expr("matches", variable("name"), value("^a"))), NO_MATCHES);
+        Assertions.assertTrue(or.getCondition().isAlwaysTrue());
+
+        PlanPrefilter not = PlanPrefilter.relax(expr("not", expr("and",
+                expr("eq", variable("owner"), value("john")),
+                expr("matches", variable("name"), value("^a")))), NO_MATCHES);
+        Assertions.assertTrue(not.getCondition().isAlwaysTrue());
+
+        PlanPrefilter notOr = PlanPrefilter.relax(expr("not", expr("or",
+                expr("eq", variable("owner"), value("john")),
+                expr("matches", variable("name"), value("^a")))), NO_MATCHES);
+        Assertions.assertEquals(PlanNormalizer.normalize(expr("ne", variable("owner"), value("john"))),
+                notOr.getCondition());
+    }
+
+    @Test
+    void exactWhenEverythingIsSupported() {
+        PlanPrefilter prefilter = PlanPrefilter.relax(expr("and",
+                expr("eq", variable("owner"), value("john")),
+                expr("in", variable("status"), list("A", "B"))), NO_MATCHES);
+        Assertions.assertTrue(prefilter.isExact());
+    }
+
+    @Test
+    void relaxesUnsupportedVariables() {
+        Predicate<Expression> noFlags = expr -> expr.getOperandsList().stream()
+                .noneMatch(operand -> operand.getVariable().equals("published"));
+
+        PlanPrefilter and = PlanPrefilter.relax(expr("and",
+                expr("eq", variable("owner"), value("john")),
+                variable("published")), noFlags);
+        Assertions.assertFalse(and.isExact());
+        Assertions.assertEquals(PlanNormalizer.normalize(expr("eq", variable("owner"), value("john"))),
+                and.getCondition());
+
+        PlanPrefilter not = PlanPrefilter.relax(expr("not", variable("published")), noFlags);
+        Assertions.assertTrue(not.getCondition().isAlwaysTrue());
+
+        Assertions.assertTrue(PlanPrefilter.relax(variable("published"), NO_MATCHES).isExact());
+    }
+}
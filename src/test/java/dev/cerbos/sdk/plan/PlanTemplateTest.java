@@ -0,0 +1,58 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import com.google.protobuf.Value;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static dev.cerbos.sdk.plan.Operands.*;
+
+class PlanTemplateTest {
+    @Test
+    void extractsParameters() {
+        PlanTemplate john = PlanTemplate.of(expr("and",
+                expr("eq", variable("request.resource.attr.owner"), value("john")),
+                expr("in", variable("request.resource.attr.status"), list("A", "B"))));
+        PlanTemplate martha = PlanTemplate.of(expr("and",
+                expr("eq", variable("request.resource.attr.owner"), value("martha")),
+                expr("in", variable("request.resource.attr.status"), list("C", "D"))));
+
+        Assertions.assertEquals(john.getShapeKey(), martha.getShapeKey());
+        Assertions.assertEquals(List.of(
+                Value.newBuilder().setStringValue("martha").build(),
+                Value.newBuilder().setStringValue("C").build(),
+                Value.newBuilder().setStringValue("D").build()), martha.getParameters());
+
+        PlanTemplate longerList = PlanTemplate.of(expr("and",
+                expr("eq", variable("request.resource.attr.owner"), value("john")),
+                expr("in", variable("request.resource.attr.status"), list("A", "B", "C"))));
+        Assertions.assertNotEquals(john.getShapeKey(), longerList.getShapeKey());
+
+        PlanTemplate number = PlanTemplate.of(expr("eq", variable("request.resource.attr.owner"), value(1)));
+        PlanTemplate string = PlanTemplate.of(expr("eq", variable("request.resource.attr.owner"), value("1")));
+        Assertions.assertNotEquals(number.getShapeKey(), string.getShapeKey());
+    }
+
+    @Test
+    void compilesEachShapeOnce() {
+        AtomicInteger compilations = new AtomicInteger();
+        PlanTemplateCache<String> cache = PlanTemplateCache.newInstance(t -> {
+            compilations.incrementAndGet();
+            return t.getShapeKey();
+        }, 10);
+
+        cache.get(PlanTemplate.of(expr("eq", variable("a"), value("x"))));
+        cache.get(PlanTemplate.of(expr("eq", variable("a"), value("y"))));
+        cache.get(PlanTemplate.of(expr("eq", variable("b"), value("y"))));
+
+        Assertions.assertEquals(2, compilations.get());
+        Assertions.assertEquals(2, cache.size());
+    }
+}
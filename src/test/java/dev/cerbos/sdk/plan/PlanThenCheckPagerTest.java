@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import dev.cerbos.api.v1.effect.EffectOuterClass.Effect;
+import dev.cerbos.api.v1.engine.Engine;
+import dev.cerbos.api.v1.engine.Engine.PlanResourcesFilter.Expression.Operand;
+import dev.cerbos.api.v1.request.Request;
+import dev.cerbos.api.v1.response.Response;
+import dev.cerbos.sdk.InProcessCerbos;
+import dev.cerbos.sdk.builders.Principal;
+import dev.cerbos.sdk.builders.Resource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static dev.cerbos.sdk.plan.Operands.*;
+
+class PlanThenCheckPagerTest {
+    private static final Principal ALICE = Principal.newInstance("alice", "user");
+    private static final Resource DOCUMENT = Resource.newInstance("document");
+    private static final List<Integer> ITEMS = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+    private final InProcessCerbos cerbos = new InProcessCerbos();
+    private final List<int[]> fetches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cerbos.onCheck(PlanThenCheckPagerTest::multiplesOfFourAllowed);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cerbos.close();
+    }
+
+    private static Response.CheckResourcesResponse multiplesOfFourAllowed(Request.CheckResourcesRequest request) {
+        Response.CheckResourcesResponse.Builder response = Response.CheckResourcesResponse.newBuilder()
+                .setRequestId(request.getRequestId());
+        for (Request.CheckResourcesRequest.ResourceEntry entry : request.getResourcesList()) {
+            boolean allowed = Integer.parseInt(entry.getResource().getId()) % 4 == 0;
+            response.addResults(Response.CheckResourcesResponse.ResultEntry.newBuilder()
+                    .putActions(entry.getActions(0), allowed ? Effect.EFFECT_ALLOW : Effect.EFFECT_DENY));
+        }
+        return response.build();
+    }
+
+    private void plan(Operand condition) {
+        cerbos.onPlan(InProcessCerbos.planning(Engine.PlanResourcesFilter.newBuilder()
+                .setKind(Engine.PlanResourcesFilter.Kind.KIND_CONDITIONAL)
+                .setCondition(condition)
+                .build()));
+    }
+
+    private PlanThenCheckPager<Integer> pager() {
+        return PlanThenCheckPager.<Integer>newBuilder(cerbos.client(), (prefilter, offset, limit) -> {
+                    fetches.add(new int[]{offset, limit});
+                    return ITEMS.subList(Math.min(offset, ITEMS.size()), Math.min(offset + limit, ITEMS.size()));
+                }, i -> Resource.newInstance("document", String.valueOf(i)))
+                .withSupportedExpressions(expr -> !expr.getOperator().equals("matches"))
+                .withInitialBatchSize(10)
+                .build();
+    }
+
+    private static Operand inexactCondition() {
+        return expr("and",
+                expr("eq", variable("request.resource.attr.owner"), value("alice")),
+                expr("matches", variable("request.resource.attr.name"), value("^a")));
+    }
+
+    @Test
+    void returnsExactPagesWithoutChecks() {
+        plan(expr("eq", variable("request.resource.attr.owner"), value("alice")));
+
+        PlanThenCheckPager.Page<Integer> page = pager().fetchPage(ALICE, DOCUMENT, "view", 0, 10);
+        Assertions.assertEquals(ITEMS.subList(0, 10), page.getItems());
+        Assertions.assertEquals(10, page.getNextOffset());
+        Assertions.assertTrue(page.hasMore());
+        Assertions.assertArrayEquals(new int[]{0, 11}, fetches.get(0));
+        Assertions.assertEquals(0, cerbos.checkRequests().size());
+    }
+
+    @Test
+    void checksCandidatesUntilPageIsFull() {
+        plan(inexactCondition());
+
+        PlanThenCheckPager.Page<Integer> page = pager().fetchPage(ALICE, DOCUMENT, "view", 0, 10);
+        Assertions.assertEquals(List.of(0, 4, 8, 12, 16, 20, 24, 28, 32, 36), page.getItems());
+        Assertions.assertEquals(37, page.getNextOffset());
+        Assertions.assertTrue(page.hasMore());
+
+        // Three of the first ten candidates were allowed, so the second batch is sized to fill the remaining seven
+        Assertions.assertEquals(2, fetches.size());
+        Assertions.assertArrayEquals(new int[]{0, 10}, fetches.get(0));
+        Assertions.assertEquals(10, fetches.get(1)[0]);
+        Assertions.assertTrue(fetches.get(1)[1] >= 27, "second batch of " + fetches.get(1)[1] + " is too small");
+    }
+
+    @Test
+    void resumesAtNextOffsetUntilExhausted() {
+        plan(inexactCondition());
+
+        PlanThenCheckPager.Page<Integer> page = pager().fetchPage(ALICE, DOCUMENT, "view", 90, 10);
+        Assertions.assertEquals(List.of(92, 96), page.getItems());
+        Assertions.assertEquals(100, page.getNextOffset());
+        Assertions.assertFalse(page.hasMore());
+    }
+
+    @Test
+    void returnsEmptyPageWhenAlwaysDenied() {
+        cerbos.onPlan(InProcessCerbos.planning(Engine.PlanResourcesFilter.newBuilder()
+                .setKind(Engine.PlanResourcesFilter.Kind.KIND_ALWAYS_DENIED)
+                .build()));
+
+        PlanThenCheckPager.Page<Integer> page = pager().fetchPage(ALICE, DOCUMENT, "view", 0, 10);
+        Assertions.assertTrue(page.getItems().isEmpty());
+        Assertions.assertFalse(page.hasMore());
+        Assertions.assertTrue(fetches.isEmpty());
+    }
+}
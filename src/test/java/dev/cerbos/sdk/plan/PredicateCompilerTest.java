@@ -0,0 +1,64 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static dev.cerbos.sdk.plan.Operands.*;
+
+class PredicateCompilerTest {
+    private static final List<Map<String, Object>> DOCUMENTS = List.of(
+            Map.of("id", "a", "owner", "john", "status", "DRAFT", "amount", 50, "tags", List.of("x", "y")),
+            Map.of("id", "b", "owner", "martha", "status", "PUBLISHED", "amount", 150L, "tags", List.of("z")),
+            Map.of("id", "c", "owner", "john", "status", "PUBLISHED", "amount", 500.5, "tags", List.of()));
+
+    private final PredicateCompiler<Map<String, Object>> compiler = PredicateCompiler.forAttributes(m -> m);
+
+    private List<Object> filter(Predicate<Map<String, Object>> predicate) {
+        return DOCUMENTS.stream().filter(predicate).map(d -> d.get("id")).collect(Collectors.toList());
+    }
+
+    @Test
+    void comparisons() {
+        Assertions.assertEquals(List.of("a", "c"),
+                filter(compiler.compile(expr("eq", variable("request.resource.attr.owner"), value("john")))));
+        Assertions.assertEquals(List.of("b"),
+                filter(compiler.compile(expr("ne", variable("request.resource.attr.owner"), value("john")))));
+        Assertions.assertEquals(List.of("b", "c"),
+                filter(compiler.compile(expr("lt", value(100), variable("request.resource.attr.amount")))));
+        Assertions.assertEquals(List.of("b"),
+                filter(compiler.compile(expr("eq", variable("request.resource.attr.amount"), value(150)))));
+    }
+
+    @Test
+    void logicalAndCollections() {
+        Predicate<Map<String, Object>> predicate = compiler.compile(expr("or",
+                expr("and",
+                        expr("eq", variable("request.resource.attr.owner"), value("john")),
+                        expr("not", expr("in", variable("request.resource.attr.status"), list("PUBLISHED")))),
+                expr("hasIntersection", variable("request.resource.attr.tags"), list("z", "q"))));
+        Assertions.assertEquals(List.of("a", "b"), filter(predicate));
+
+        Assertions.assertEquals(List.of("a"),
+                filter(compiler.compile(expr("in", value("y"), variable("request.resource.attr.tags")))));
+        Assertions.assertEquals(List.of("a"),
+                filter(compiler.compile(expr("startsWith", variable("request.resource.attr.status"), value("DR")))));
+    }
+
+    @Test
+    void unsupportedVariable() {
+        Assertions.assertThrows(UnsupportedExpressionException.class,
+                () -> compiler.compile(expr("eq", variable("request.principal.attr.dept"), value("x"))));
+        Assertions.assertThrows(UnsupportedExpressionException.class,
+                () -> compiler.compile(expr("eq", variable("request.resource.attr.owner"), nullValue(), nullValue())));
+    }
+}
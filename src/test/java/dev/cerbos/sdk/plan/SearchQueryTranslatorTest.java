@@ -0,0 +1,72 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static dev.cerbos.sdk.plan.Operands.*;
+
+class SearchQueryTranslatorTest {
+    private final SearchQueryTranslator translator = SearchQueryTranslator.newBuilder()
+            .withField("owner", "owner.keyword")
+            .withField("request.resource.attr.amount", "amount")
+            .withFieldResolver(v -> v.startsWith("request.resource.attr.") ? v.substring(22) : null)
+            .build();
+
+    @Test
+    void translatesLogicalAndComparisons() {
+        JsonObject query = translator.translate(expr("and",
+                expr("eq", variable("request.resource.attr.owner"), value("john")),
+                expr("or",
+                        expr("lt", value(100), variable("request.resource.attr.amount")),
+                        expr("in", variable("request.resource.attr.status"), list("DRAFT", "PENDING"))),
+                expr("not", expr("eq", variable("request.resource.attr.deleted_at"), nullValue()))));
+
+        Assertions.assertEquals(JsonParser.parseString("{\"bool\":{\"filter\":["
+                + "{\"term\":{\"owner.keyword\":\"john\"}},"
+                + "{\"bool\":{\"should\":["
+                + "{\"range\":{\"amount\":{\"gt\":100}}},"
+                + "{\"terms\":{\"status\":[\"DRAFT\",\"PENDING\"]}}],\"minimum_should_match\":1}},"
+                + "{\"bool\":{\"must_not\":[{\"bool\":{\"must_not\":[{\"exists\":{\"field\":\"deleted_at\"}}]}}]}}"
+                + "]}}"), query);
+    }
+
+    @Test
+    void translatesStringOperators() {
+        Assertions.assertEquals(JsonParser.parseString("{\"prefix\":{\"name\":\"ab*\"}}"),
+                translator.translate(expr("startsWith", variable("request.resource.attr.name"), value("ab*"))));
+        Assertions.assertEquals(JsonParser.parseString("{\"wildcard\":{\"name\":{\"value\":\"*a\\\\*b*\"}}}"),
+                translator.translate(expr("contains", variable("request.resource.attr.name"), value("a*b"))));
+    }
+
+    @Test
+    void usesFallback() {
+        Assertions.assertThrows(UnsupportedExpressionException.class,
+                () -> translator.translate(expr("matches", variable("request.resource.attr.name"), value("^a.*"))));
+
+        SearchQueryTranslator withFallback = SearchQueryTranslator.newBuilder()
+                .withFieldResolver(v -> v.substring(22))
+                .withFallback((expression, t) -> {
+                    if (!expression.getOperator().equals("matches")) {
+                        return Optional.empty();
+                    }
+                    JsonObject regexp = new JsonObject();
+                    regexp.addProperty(t.field(expression.getOperands(0).getVariable()),
+                            expression.getOperands(1).getValue().getStringValue());
+                    JsonObject query = new JsonObject();
+                    query.add("regexp", regexp);
+                    return Optional.of(query);
+                })
+                .build();
+        Assertions.assertEquals(JsonParser.parseString("{\"regexp\":{\"name\":\"^a.*\"}}"),
+                withFallback.translate(expr("matches", variable("request.resource.attr.name"), value("^a.*"))));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021-2025 Zenauth Ltd.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package dev.cerbos.sdk.plan;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static dev.cerbos.sdk.plan.Operands.*;
+
+class SqlQueryCompilerTest {
+    private final SqlQueryCompiler compiler = SqlQueryCompiler.newBuilder()
+            .withColumn("owner", "r.owner")
+            .withColumn("request.resource.attr.status", "r.status")
+            .withColumn("request.resource.attr.amount", "r.amount")
+            .withColumn("request.resource.attr.name", "r.name")
+            .build();
+
+    @Test
+    void bindsConstantsAsParameters() {
+        SqlQuery query = compiler.compile(expr("and",
+                expr("eq", variable("request.resource.attr.owner"), value("john")),
+                expr("or",
+                        expr("lt", value(100), variable("request.resource.attr.amount")),
+                        expr("in", variable("request.resource.attr.status"), list("DRAFT", "PENDING")))));
+
+        Assertions.assertEquals("(r.owner = ? AND (? < r.amount OR r.status IN (?, ?)))", query.getSql());
+        Assertions.assertEquals(List.of("john", 100L, "DRAFT", "PENDING"), query.getParameters());
+    }
+
+    @Test
+    void reusesSqlForSameShape() {
+        SqlQuery first = compiler.compile(expr("eq", variable("request.resource.attr.owner"), value("john")));
+        SqlQuery second = compiler.compile(expr("eq", variable("request.resource.attr.owner"), value("martha")));
+
+        Assertions.assertSame(first.getSql(), second.getSql());
+        Assertions.assertEquals(List.of("martha"), second.getParameters());
+
+        SqlQuery third = compiler.compile(expr("in", variable("request.resource.attr.status"), list("A", "B", "C")));
+        Assertions.assertEquals("r.status IN (?, ?, ?)", third.getSql());
+    }
+
+    @Test
+    void nullComparisonsAndLike() {
+        SqlQuery query = compiler.compile(expr("and",
+                expr("ne", variable("request.resource.attr.owner"), nullValue()),
+                expr("not", expr("startsWith", variable("request.resource.attr.name"), value("50%_off")))));
+
+        Assertions.assertEquals("(r.owner IS NOT NULL AND NOT (r.name LIKE ? ESCAPE '\\'))", query.getSql());
+        Assertions.assertEquals(List.of("50\\%\\_off%"), query.getParameters());
+    }
+
+    @Test
+    void dialectSpecificArrays() {
+        SqlQueryCompiler postgres = SqlQueryCompiler.newBuilder()
+                .withDialect(SqlDialect.POSTGRES)
+                .withColumnResolver(v -> v.startsWith("request.resource.attr.") ? "r." + v.substring(22) : null)
+                .build();
+        SqlQuery query = postgres.compile(expr("or",
+                expr("in", value("admin"), variable("request.resource.attr.roles")),
+                expr("hasIntersection", variable("request.resource.attr.tags"), list("a", "b"))));
+
+        Assertions.assertEquals("(? = ANY(r.roles) OR r.tags && ARRAY[?, ?])", query.getSql());
+        Assertions.assertEquals(List.of("admin", "a", "b"), query.getParameters());
+
+        Assertions.assertThrows(UnsupportedExpressionException.class,
+                () -> compiler.compile(expr("in", value("admin"), variable("request.resource.attr.roles"))));
+    }
+
+    @Test
+    void unmappedVariable() {
+        Assertions.assertThrows(UnsupportedExpressionException.class,
+                () -> compiler.compile(expr("eq", variable("request.principal.attr.dept"), value("x"))));
+    }
+
+    @Test
+    void probesSupportWithoutCaching() {
+        Assertions.assertTrue(compiler.isSupported(
+                expr("eq", variable("request.resource.attr.status"), value("A")).getExpression()));
+        Assertions.assertFalse(compiler.isSupported(
+                expr("eq", variable("request.principal.attr.dept"), value("x")).getExpression()));
+        Assertions.assertEquals(0, compiler.cachedShapes());
+
+        compiler.compile(expr("eq", variable("request.resource.attr.status"), value("A")));
+        Assertions.assertEquals(1, compiler.cachedShapes());
+    }
+}